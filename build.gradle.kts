@@ -2,6 +2,7 @@ plugins {
     id("java")
     id("com.github.johnrengelman.shadow") version "8.1.1"
     id("app.ultradev.hytalegradle") version "1.6.7"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "SquashCompany"
@@ -17,9 +18,32 @@ repositories {
     mavenCentral()
 }
 
+val hytaleServerJar = files("${property("hytaleInstallPath")}/Server/HytaleServer.jar")
+
+// Benchmarks and the load generator that build real item stacks and UI
+// commands, in src/jmhServer/java. Opt-in, since they need the server jar
+// at run time while src/jmh/java runs without it
+val jmhServer by sourceSets.creating {
+    compileClasspath += sourceSets["main"].output + sourceSets["jmh"].output
+    runtimeClasspath += sourceSets["main"].output + sourceSets["jmh"].output
+}
+
 dependencies {
     // HytaleServer.jar - provided at runtime by the server
-    compileOnly(files("${property("hytaleInstallPath")}/Server/HytaleServer.jar"))
+    compileOnly(hytaleServerJar)
+
+    // Benchmarks compile against the server jar but run headless without it
+    jmhCompileOnly(hytaleServerJar)
+
+    "jmhServerImplementation"(hytaleServerJar)
+    "jmhServerImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhServerAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+
+    // Unit and stress tests in src/test/java, headless like the benchmarks
+    testImplementation(hytaleServerJar)
+    testImplementation(platform("org.junit:junit-bom:5.11.4"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 hytale {
@@ -30,6 +54,52 @@ hytale {
     patchline.set("release")
 }
 
+tasks.test {
+    useJUnitPlatform()
+}
+
+// Benchmarks in src/jmh/java: ./gradlew jmh [-PjmhIncludes=CooldownLookup]
+jmh {
+    jmhVersion.set("1.37")
+    includes.set(listOf((findProperty("jmhIncludes") as String?) ?: ".*"))
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    profilers.set(listOf("gc"))
+}
+
+// Benchmarks in src/jmhServer/java: ./gradlew jmhServer [-PjmhIncludes=PageOpen]
+tasks.register<JavaExec>("jmhServer") {
+    group = "benchmark"
+    description = "Runs the page, claim and loot roll benchmarks that need HytaleServer.jar."
+    classpath = jmhServer.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    val results = layout.buildDirectory.file("results/jmh/server-results.json").get().asFile
+    args = listOf((findProperty("jmhIncludes") as String?) ?: ".*",
+        "-f", "1", "-wi", "3", "-i", "5", "-prof", "gc", "-rf", "JSON", "-rff", results.path)
+    doFirst { results.parentFile.mkdirs() }
+}
+
+// Load generator, no running server needed: ./gradlew loadTest [-PloadArgs="--players 5000 --seconds 60"]
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Simulates concurrent players opening /kits and claiming kits, without a server."
+    classpath = jmhServer.runtimeClasspath
+    mainClass.set("com.squashcompany.kits.kits.pages.KitsLoadGenerator")
+    args = ((findProperty("loadArgs") as String?) ?: "").split(" ").filter { it.isNotBlank() }
+}
+
+// Heap per player of the cooldown table and the old nested maps: ./gradlew footprint
+tasks.register<JavaExec>("footprint") {
+    group = "verification"
+    description = "Measures heap retained per player by cooldown storage layouts at 10k, 100k and 1M players."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("com.squashcompany.kits.kits.manager.CooldownFootprint")
+    maxHeapSize = "3g"
+    args = ((findProperty("footprintArgs") as String?) ?: "").split(" ").filter { it.isNotBlank() }
+}
+
 tasks.shadowJar {
     archiveClassifier.set("")
     archiveBaseName.set("sqh_kits")
@@ -0,0 +1,60 @@
+package com.squashcompany.kits.kits.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cooldown text shown on open pages every tick. Run with
+ * {@code -prof gc} to confirm the cached paths allocate nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CooldownFormatBenchmark {
+
+    @Param({"pt_BR", "en_US"})
+    public String locale;
+
+    private Messages messages;
+    private long seconds;
+
+    @Setup
+    public void setup() {
+        messages = MessageCatalog.get().forLanguage(locale);
+    }
+
+    private long nextSeconds() {
+        // Walk a two-hour range, as a countdown would
+        seconds = seconds == 0 ? 7200 : seconds - 1;
+        return seconds;
+    }
+
+    @Benchmark
+    public String duration() {
+        return messages.duration(nextSeconds());
+    }
+
+    @Benchmark
+    public String cooldownStatus() {
+        return messages.cooldownStatus(nextSeconds());
+    }
+
+    @Benchmark
+    public String period() {
+        return messages.period((int) nextSeconds());
+    }
+}
@@ -0,0 +1,68 @@
+package com.squashcompany.kits.kits.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kit lookups by id and ordinal against a large published kit set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KitLookupBenchmark {
+
+    private static final int LOOKUPS = 4096;
+
+    @Param({"10", "200", "5000"})
+    public int kitCount;
+
+    private String[] ids;
+    private int[] ordinals;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        List<KitsConfig.KitDefinition> definitions = new ArrayList<>(kitCount);
+        for (int i = 0; i < kitCount; i++) {
+            definitions.add(new KitsConfig.KitDefinition("kit_" + i, "Kit " + i, "Generated kit " + i,
+                    300, i % 10 == 0, "Weapon_Sword_Iron", List.of(new KitsConfig.KitItem("Weapon_Sword_Iron", 1))));
+        }
+        KitsConfig.Snapshot snapshot = KitsConfig.get().publish(definitions);
+
+        SplittableRandom random = new SplittableRandom(42);
+        ids = new String[LOOKUPS];
+        ordinals = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            // Fresh strings, as ids arrive from events and commands
+            ids[i] = new String("kit_" + random.nextInt(kitCount));
+            ordinals[i] = snapshot.getKit(ids[i]).getOrdinal();
+        }
+    }
+
+    @Benchmark
+    public KitsConfig.KitDefinition getKitById() {
+        return KitsConfig.get().getKit(ids[cursor++ & (LOOKUPS - 1)]);
+    }
+
+    @Benchmark
+    public KitsConfig.KitDefinition getKitByOrdinal() {
+        return KitsConfig.get().getKit(ordinals[cursor++ & (LOOKUPS - 1)]);
+    }
+}
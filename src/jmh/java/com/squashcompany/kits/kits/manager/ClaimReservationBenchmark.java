@@ -0,0 +1,63 @@
+package com.squashcompany.kits.kits.manager;
+
+import com.squashcompany.kits.kits.config.KitsConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contended kit claims: many threads race to reserve the same few player
+ * cooldowns, rolling some reservations back as a rejected grant would.
+ * {@code ClaimReservationStressTest} checks the same race for duplicate
+ * grants.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class ClaimReservationBenchmark {
+
+    private static final int PLAYERS = 64;
+
+    private KitsConfig.KitDefinition[] kits;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        List<KitsConfig.KitDefinition> configured = KitsConfig.get().getKits();
+        kits = configured.toArray(new KitsConfig.KitDefinition[0]);
+        for (int player = 0; player < PLAYERS; player++) {
+            KitManager.get().clearCooldowns(new UUID(player, ~player));
+        }
+    }
+
+    @Benchmark
+    public long claim() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int player = random.nextInt(PLAYERS);
+        KitsConfig.KitDefinition kit = kits[random.nextInt(kits.length)];
+
+        long reserved = KitManager.get().reserve(player, ~player, kit);
+        if (reserved >= 0 && random.nextInt(4) == 0) {
+            // Rejected grant: give the slot back
+            KitManager.get().release(player, ~player, kit, reserved);
+        }
+        return reserved;
+    }
+}
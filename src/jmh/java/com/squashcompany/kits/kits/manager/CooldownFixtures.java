@@ -0,0 +1,22 @@
+package com.squashcompany.kits.kits.manager;
+
+import com.squashcompany.kits.kits.config.KitsConfig;
+
+import java.util.UUID;
+
+/**
+ * Seeds cooldown state for benchmarks outside this package.
+ */
+public final class CooldownFixtures {
+
+    private CooldownFixtures() {
+    }
+
+    /**
+     * Put a player's kit on cooldown as if it was claimed at {@code lastUsed}.
+     */
+    public static void seed(UUID player, KitsConfig.KitDefinition kit, long lastUsed) {
+        KitManager.get().restore(player.getMostSignificantBits(), player.getLeastSignificantBits(), kit, lastUsed,
+                System.currentTimeMillis() / 1000, KitsConfig.get().getSnapshot().getOrdinalCount());
+    }
+}
@@ -0,0 +1,110 @@
+package com.squashcompany.kits.kits.manager;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Heap retained per tracked player by {@link CooldownTable} and by the
+ * {@code HashMap<String, Map<String, Long>>} it replaced (player UUID string
+ * to kit id to last use):
+ * {@code ./gradlew footprint [-PfootprintArgs="--kits 4"]}.
+ *
+ * Each layout is filled with the same players, every one of them on
+ * cooldown for every kit, and measured as the heap still in use after a full
+ * GC while it is reachable, less the heap in use before it was built. Small
+ * sizes build several copies at once so GC noise averages out. Runs 10k,
+ * 100k and 1M players; give the JVM a heap of a few GB for the largest.
+ */
+public final class CooldownFootprint {
+
+    private static final int[] PLAYER_COUNTS = {10_000, 100_000, 1_000_000};
+    // Players measured per size, spread over copies
+    private static final int MEASURED_PLAYERS = 1_000_000;
+
+    private CooldownFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int kits = 2;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].equals("--kits")) {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+            kits = Integer.parseInt(args[i + 1]);
+        }
+
+        String[] kitIds = new String[kits];
+        for (int k = 0; k < kits; k++) {
+            kitIds[k] = "kit_" + k;
+        }
+        long now = System.currentTimeMillis() / 1000;
+
+        System.out.printf("%10s %18s %18s%n", "players", "HashMap B/player", "table B/player");
+        for (int players : PLAYER_COUNTS) {
+            SplittableRandom random = new SplittableRandom(42);
+            long[] keys = new long[players * 2];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = random.nextLong();
+            }
+
+            int copies = Math.max(1, MEASURED_PLAYERS / players);
+
+            long before = retainedHeap();
+            Object[] nested = new Object[copies];
+            for (int c = 0; c < copies; c++) {
+                Map<String, Map<String, Long>> cooldowns = new HashMap<>();
+                for (int p = 0; p < players; p++) {
+                    Map<String, Long> row = cooldowns.computeIfAbsent(new UUID(keys[2 * p], keys[2 * p + 1]).toString(),
+                            uuid -> new HashMap<>());
+                    for (int k = 0; k < kits; k++) {
+                        row.put(kitIds[k], now + k);
+                    }
+                }
+                nested[c] = cooldowns;
+            }
+            long nestedBytes = retainedHeap() - before;
+            Reference.reachabilityFence(nested);
+            nested = null;
+
+            before = retainedHeap();
+            CooldownTable[] tables = new CooldownTable[copies];
+            for (int c = 0; c < copies; c++) {
+                CooldownTable table = new CooldownTable();
+                for (int p = 0; p < players; p++) {
+                    for (int k = 0; k < kits; k++) {
+                        table.put(keys[2 * p], keys[2 * p + 1], k, now + k, kits);
+                    }
+                }
+                tables[c] = table;
+            }
+            long tableBytes = retainedHeap() - before;
+            Reference.reachabilityFence(tables);
+            tables = null;
+
+            long measured = (long) players * copies;
+            System.out.printf("%10d %18.1f %18.1f%n", players, (double) nestedBytes / measured, (double) tableBytes / measured);
+        }
+    }
+
+    /**
+     * Heap in use once repeated full GCs stop freeing anything.
+     */
+    private static long retainedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long current = memory.getHeapMemoryUsage().getUsed();
+            if (current >= used) {
+                return current;
+            }
+            used = current;
+        }
+        return used;
+    }
+}
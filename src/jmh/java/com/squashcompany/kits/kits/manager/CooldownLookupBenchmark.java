@@ -0,0 +1,82 @@
+package com.squashcompany.kits.kits.manager;
+
+import com.squashcompany.kits.kits.config.KitsConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cooldown reads through {@link KitManager} with a large population of
+ * tracked players, half of them on cooldown for each kit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CooldownLookupBenchmark {
+
+    private static final int LOOKUPS = 4096;
+
+    @Param({"10000", "100000", "1000000"})
+    public int players;
+
+    private UUID[] probes;
+    private KitsConfig.KitDefinition[] kits;
+    private long now;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        List<KitsConfig.KitDefinition> configured = KitsConfig.get().getKits();
+        int rowLength = KitsConfig.get().getSnapshot().getOrdinalCount();
+        now = System.currentTimeMillis() / 1000;
+
+        SplittableRandom random = new SplittableRandom(42);
+        UUID[] population = new UUID[players];
+        for (int i = 0; i < players; i++) {
+            UUID uuid = new UUID(random.nextLong(), random.nextLong());
+            population[i] = uuid;
+            for (KitsConfig.KitDefinition kit : configured) {
+                if (random.nextBoolean()) {
+                    KitManager.get().restore(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(),
+                            kit, now - random.nextInt(kit.getCooldownSeconds()), now, rowLength);
+                }
+            }
+        }
+
+        probes = new UUID[LOOKUPS];
+        kits = new KitsConfig.KitDefinition[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            // One in eight probes misses, like a player who never claimed anything
+            probes[i] = random.nextInt(8) == 0 ? new UUID(random.nextLong(), random.nextLong()) : population[random.nextInt(players)];
+            kits[i] = configured.get(random.nextInt(configured.size()));
+        }
+    }
+
+    @Benchmark
+    public long getRemainingCooldown() {
+        int i = cursor++ & (LOOKUPS - 1);
+        return KitManager.get().getRemainingCooldown(probes[i], kits[i], now);
+    }
+
+    @Benchmark
+    public boolean canUseKit() {
+        int i = cursor++ & (LOOKUPS - 1);
+        return KitManager.get().canUseKit(probes[i], kits[i]);
+    }
+}
@@ -0,0 +1,110 @@
+package com.squashcompany.kits.kits.manager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * {@link CooldownService} reached without sockets, standing in for the
+ * shared cooldown service of a network. Every request and every invalidation
+ * message is delayed by a fixed latency, so nodes see each other's writes as
+ * late as they would over a real network.
+ */
+public final class InProcessCooldownServer {
+
+    private final long latencyMicros;
+    private final ScheduledExecutorService network = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Kits-FakeNetwork");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<Node> nodes = new CopyOnWriteArrayList<>();
+    private final CooldownService service = new CooldownService();
+
+    public InProcessCooldownServer(long latencyMicros) {
+        this.latencyMicros = latencyMicros;
+    }
+
+    /**
+     * Connect a new node.
+     */
+    public CooldownTransport connect() {
+        Node node = new Node();
+        nodes.add(node);
+        return node;
+    }
+
+    /**
+     * Records applied since startup.
+     */
+    public long getWrites() {
+        return service.getWrites();
+    }
+
+    public void shutdown() {
+        network.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> later(Supplier<T> request) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        network.schedule(() -> {
+            try {
+                future.complete(request.get());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }, latencyMicros, TimeUnit.MICROSECONDS);
+        return future;
+    }
+
+    /**
+     * Connection of one node.
+     */
+    private final class Node implements CooldownTransport {
+
+        private volatile ChangeListener listener;
+
+        @Override
+        public CompletableFuture<long[]> fetch(long msb, long lsb) {
+            return later(() -> service.read(msb, lsb));
+        }
+
+        @Override
+        public CompletableFuture<long[]> write(long[] records, int count) {
+            long[] copy = Arrays.copyOf(records, count * RECORD_WIDTH);
+            return later(() -> {
+                long[][] result = service.apply(copy, count);
+                broadcast(result[1]);
+                return result[0];
+            });
+        }
+
+        private void broadcast(long[] changes) {
+            for (Node node : nodes) {
+                ChangeListener target = node.listener;
+                if (node != this && target != null) {
+                    network.schedule(() -> {
+                        for (int i = 0; i < changes.length; i += 5) {
+                            target.changed(changes[i], changes[i + 1], changes[i + 2], changes[i + 3], changes[i + 4]);
+                        }
+                    }, latencyMicros, TimeUnit.MICROSECONDS);
+                }
+            }
+        }
+
+        @Override
+        public void subscribe(ChangeListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void close() {
+            nodes.remove(this);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.squashcompany.kits.kits.manager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loot draws from a {@link LootTable} of {@code entries} weighted entries,
+ * from several threads at once as when many players open crates together.
+ * {@code LootTableTest} checks that draws match their weights, and
+ * {@code LootRollBenchmark} rolls whole loot kits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class LootTableBenchmark {
+
+    @Param({"4", "64", "1024"})
+    public int entries;
+
+    private LootTable table;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        int[] weights = new int[entries];
+        for (int i = 0; i < entries; i++) {
+            weights[i] = 1 + random.nextInt(1000);
+        }
+        table = new LootTable(weights);
+    }
+
+    @Benchmark
+    public int sample() {
+        return table.sample(ThreadLocalRandom.current());
+    }
+}
@@ -0,0 +1,142 @@
+package com.squashcompany.kits.kits.manager;
+
+import com.squashcompany.kits.kits.config.KitsConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Claims and reads on a {@link NetworkCooldownStore} near-cache, with a
+ * second node connected to the same in-process server over a simulated 1 ms
+ * link. Claims must cost about as much as on a local store, since the write
+ * to the server happens in the background.
+ *
+ * Doubles as the convergence check: after each iteration the second node
+ * must see every value the first one wrote within a few seconds, without any
+ * conflict or failed write, or the trial fails.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class NetworkCooldownStoreBenchmark {
+
+    private static final int PLAYERS = 1024;
+    // Each thread claims for its own players, so writes to a cell are queued
+    // in the order they were made, as with real claims spaced by a cooldown
+    private static final int LANES = 16;
+    private static final long LATENCY_MICROS = 1000;
+    private static final long CONVERGE_MILLIS = 5000;
+
+    private InProcessCooldownServer server;
+    private NetworkCooldownStore claiming;
+    private NetworkCooldownStore watching;
+    private KitsConfig.KitDefinition[] kits;
+    private int rowLength;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        List<KitsConfig.KitDefinition> configured = KitsConfig.get().getKits();
+        kits = configured.toArray(new KitsConfig.KitDefinition[0]);
+        rowLength = KitsConfig.get().getSnapshot().getOrdinalCount();
+
+        server = new InProcessCooldownServer(LATENCY_MICROS);
+        claiming = new NetworkCooldownStore(server.connect());
+        watching = new NetworkCooldownStore(server.connect());
+
+        long deadline = System.currentTimeMillis() + CONVERGE_MILLIS;
+        for (int player = 0; player < PLAYERS; player++) {
+            while (!claiming.isReady(player, ~player) | !watching.isReady(player, ~player)) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw new IllegalStateException("Players did not load");
+                }
+                Thread.sleep(1);
+            }
+        }
+    }
+
+    /**
+     * Reserve a kit the way a claim does. Values only grow, standing in for
+     * claims made after the previous cooldown ran out.
+     */
+    @Benchmark
+    public boolean claim(Lane lane) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int player = lane.index + random.nextInt(PLAYERS / LANES) * LANES;
+        KitsConfig.KitDefinition kit = kits[random.nextInt(kits.length)];
+        while (true) {
+            long lastUsed = claiming.get(player, ~player, kit.getOrdinal());
+            long next = Math.max(lastUsed, 1) + kit.getCooldownSeconds();
+            if (claiming.compareAndSet(player, ~player, kit.getOrdinal(), lastUsed, next, rowLength)) {
+                return true;
+            }
+        }
+    }
+
+    @Benchmark
+    public long read() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int player = random.nextInt(PLAYERS);
+        return watching.get(player, ~player, kits[random.nextInt(kits.length)].getOrdinal());
+    }
+
+    @TearDown(Level.Iteration)
+    public void check() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + CONVERGE_MILLIS;
+        while (!converged()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Second node did not converge ("
+                        + claiming.getPendingWrites() + " writes pending)");
+            }
+            Thread.sleep(10);
+        }
+        if (claiming.getConflicts() > 0 || claiming.getFailedWrites() > 0) {
+            throw new IllegalStateException(claiming.getConflicts() + " conflicts, "
+                    + claiming.getFailedWrites() + " failed writes");
+        }
+    }
+
+    private boolean converged() {
+        for (int player = 0; player < PLAYERS; player++) {
+            for (KitsConfig.KitDefinition kit : kits) {
+                if (watching.get(player, ~player, kit.getOrdinal()) != claiming.get(player, ~player, kit.getOrdinal())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        claiming.close();
+        watching.close();
+        server.shutdown();
+    }
+
+    @State(Scope.Thread)
+    public static class Lane {
+
+        private static final AtomicInteger next = new AtomicInteger();
+
+        final int index = next.getAndIncrement() % LANES;
+    }
+}
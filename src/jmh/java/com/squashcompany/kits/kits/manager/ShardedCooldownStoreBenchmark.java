@@ -0,0 +1,130 @@
+package com.squashcompany.kits.kits.manager;
+
+import com.squashcompany.kits.kits.config.KitsConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * A {@link ShardedCooldownStore} holding far fewer players than it has seen.
+ * {@code returning} picks any known player, so most calls wait for a load
+ * (and the write-back of the player it displaces); {@code active} picks from
+ * a set small enough to stay in memory.
+ *
+ * Doubles as the persistence check: after each iteration every player must
+ * read back the last value claimed for them, and after the trial the same
+ * must hold for a store reopened on the same files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ShardedCooldownStoreBenchmark {
+
+    private static final int PLAYERS = 20_000;
+    private static final int RESIDENT = 1_000;
+    private static final int ACTIVE = RESIDENT / 2;
+
+    private Path directory;
+    private ShardedCooldownStore store;
+    private KitsConfig.KitDefinition kit;
+    private int rowLength;
+    // Last value claimed per player, 0 if none yet
+    private long[] claimed;
+    private long nextValue;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("kits-shards");
+        store = new ShardedCooldownStore(directory, RESIDENT);
+        kit = KitsConfig.get().getKits().get(0);
+        rowLength = KitsConfig.get().getSnapshot().getOrdinalCount();
+        claimed = new long[PLAYERS];
+        // Far enough ahead that nothing runs out during the trial
+        nextValue = System.currentTimeMillis() / 1000 + TimeUnit.DAYS.toSeconds(1);
+    }
+
+    @Benchmark
+    public long returning() {
+        return claim(ThreadLocalRandom.current().nextInt(PLAYERS));
+    }
+
+    @Benchmark
+    public long active() {
+        return claim(ThreadLocalRandom.current().nextInt(ACTIVE));
+    }
+
+    private long claim(int player) {
+        awaitReady(store, player);
+        long lastUsed = store.get(msb(player), ~player, kit.getOrdinal());
+        long value = ++nextValue;
+        if (!store.compareAndSet(msb(player), ~player, kit.getOrdinal(), lastUsed, value, rowLength)) {
+            throw new IllegalStateException("Uncontended claim failed");
+        }
+        claimed[player] = value;
+        return value;
+    }
+
+    @TearDown(Level.Iteration)
+    public void check() {
+        verify(store);
+    }
+
+    @TearDown(Level.Trial)
+    public void reopen() throws IOException {
+        store.close();
+        ShardedCooldownStore reopened = new ShardedCooldownStore(directory, RESIDENT);
+        try {
+            verify(reopened);
+        } finally {
+            reopened.close();
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private void verify(ShardedCooldownStore target) {
+        for (int player = 0; player < PLAYERS; player++) {
+            if (claimed[player] == 0) {
+                continue;
+            }
+            awaitReady(target, player);
+            long stored = target.get(msb(player), ~player, kit.getOrdinal());
+            if (stored != claimed[player]) {
+                throw new IllegalStateException("Player " + player + " read back " + stored
+                        + " instead of " + claimed[player]);
+            }
+        }
+    }
+
+    // Spreads players over shards like random UUIDs would
+    private static long msb(int player) {
+        return player * 0x9E3779B97F4A7C15L;
+    }
+
+    private static void awaitReady(ShardedCooldownStore target, int player) {
+        while (!target.isReady(msb(player), ~player)) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.squashcompany.kits.kits.manager;
+
+import com.squashcompany.kits.kits.config.KitsConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The full {@link KitManager#tryClaim} path against an in-memory inventory:
+ * cooldown reservation, grant, expiry scheduling and metrics. {@code grant}
+ * clears the cooldown first so every claim succeeds; {@code onCooldown}
+ * measures the refusal a double click gets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClaimBenchmark {
+
+    private UUID player;
+    private KitsConfig.KitDefinition kit;
+    private InMemoryKitInventory inventory;
+
+    @Setup
+    public void setup() {
+        player = UUID.randomUUID();
+        kit = KitsConfig.get().getKits().get(0);
+        inventory = new InMemoryKitInventory(Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public GrantResult grant() {
+        KitManager.get().clearCooldown(player, kit);
+        return KitManager.get().tryClaim(player, inventory, kit);
+    }
+
+    @Benchmark
+    public GrantResult onCooldown() {
+        return KitManager.get().tryClaim(player, inventory, kit);
+    }
+}
@@ -0,0 +1,125 @@
+package com.squashcompany.kits.kits.manager;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.squashcompany.kits.kits.config.KitsConfig;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@link KitInventory} fake with a fixed number of slots, filled the way
+ * {@link HytaleKitInventory} fills a player's inventory: a claim takes the
+ * kit template's stacks, rolled for loot kits, checks that all of them fit
+ * and only then adds them, topping up stacks of the same item before taking
+ * new slots. Every item stacks up to {@value #MAX_STACK}.
+ *
+ * It also audits grants: a kit granted again before its cooldown ran out
+ * since the previous grant is counted as a duplicate.
+ */
+public final class InMemoryKitInventory implements KitInventory {
+
+    static final int MAX_STACK = 100;
+
+    private final int capacity;
+    // Item id -> quantity held, in a one-element array
+    private final Map<String, long[]> held = new HashMap<>();
+    private int usedSlots;
+    private long grants;
+    private long duplicates;
+    // Epoch second of the last grant, by kit ordinal
+    private long[] lastGranted = new long[0];
+
+    public InMemoryKitInventory(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized GrantResult add(KitsConfig.KitDefinition kit) {
+        List<ItemStack> stacks = KitTemplates.get().get(kit).roll(ThreadLocalRandom.current());
+        if (slotsNeeded(stacks) > capacity - usedSlots) {
+            return GrantResult.rejected(stacks);
+        }
+        for (ItemStack stack : stacks) {
+            long[] quantity = held.computeIfAbsent(stack.getItemId(), id -> new long[1]);
+            usedSlots += slots(quantity[0] + stack.getQuantity()) - slots(quantity[0]);
+            quantity[0] += stack.getQuantity();
+        }
+        grants++;
+
+        int ordinal = kit.getOrdinal();
+        if (ordinal >= lastGranted.length) {
+            lastGranted = Arrays.copyOf(lastGranted, ordinal + 1);
+        }
+        long now = System.currentTimeMillis() / 1000;
+        long previous = lastGranted[ordinal];
+        if (previous != 0 && now - previous < kit.getCooldownSeconds()) {
+            duplicates++;
+        }
+        lastGranted[ordinal] = now;
+        return GrantResult.granted();
+    }
+
+    /**
+     * New slots the stacks would take, counting each item once however many
+     * stacks of it the kit has.
+     */
+    private long slotsNeeded(List<ItemStack> stacks) {
+        long needed = 0;
+        for (int i = 0; i < stacks.size(); i++) {
+            String itemId = stacks.get(i).getItemId();
+            if (seenBefore(stacks, i, itemId)) {
+                continue;
+            }
+            long added = 0;
+            for (int j = i; j < stacks.size(); j++) {
+                if (stacks.get(j).getItemId().equals(itemId)) {
+                    added += stacks.get(j).getQuantity();
+                }
+            }
+            long[] quantity = held.get(itemId);
+            long current = quantity == null ? 0 : quantity[0];
+            needed += slots(current + added) - slots(current);
+        }
+        return needed;
+    }
+
+    private static boolean seenBefore(List<ItemStack> stacks, int index, String itemId) {
+        for (int i = 0; i < index; i++) {
+            if (stacks.get(i).getItemId().equals(itemId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long slots(long quantity) {
+        return (quantity + MAX_STACK - 1) / MAX_STACK;
+    }
+
+    /**
+     * Empty the inventory, as a player dropping or storing everything.
+     */
+    public synchronized void clear() {
+        held.clear();
+        usedSlots = 0;
+    }
+
+    public synchronized int getFree() {
+        return capacity - usedSlots;
+    }
+
+    public synchronized long getGrants() {
+        return grants;
+    }
+
+    /**
+     * Grants that arrived while the previous grant of the same kit was still
+     * on cooldown.
+     */
+    public synchronized long getDuplicates() {
+        return duplicates;
+    }
+}
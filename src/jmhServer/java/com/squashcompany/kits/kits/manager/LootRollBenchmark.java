@@ -0,0 +1,54 @@
+package com.squashcompany.kits.kits.manager;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.squashcompany.kits.kits.config.KitsConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole loot kit rolls into item stacks, for a kit with as many weighted
+ * entries as fit on a kit card, from several threads at once.
+ * {@code LootTableBenchmark} measures the single draws underneath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class LootRollBenchmark {
+
+    private KitTemplates.KitTemplate template;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<KitsConfig.LootEntry> loot = new ArrayList<>();
+        for (int i = 0; i < KitsConfig.MAX_CARD_ITEMS; i++) {
+            loot.add(new KitsConfig.LootEntry("Item_" + i, 1, 1 + random.nextInt(16), 1 + random.nextInt(1000)));
+        }
+        template = new KitTemplates.KitTemplate(new KitsConfig.KitDefinition("crate", "Crate", "Generated crate",
+                0, false, "Item_0", List.of(), loot, 3));
+    }
+
+    @Benchmark
+    public List<ItemStack> rollKit() {
+        return template.roll(ThreadLocalRandom.current());
+    }
+}
@@ -0,0 +1,274 @@
+package com.squashcompany.kits.kits.pages;
+
+import com.squashcompany.kits.kits.config.KitsConfig;
+import com.squashcompany.kits.kits.config.MessageCatalog;
+import com.squashcompany.kits.kits.config.Messages;
+import com.squashcompany.kits.kits.manager.InMemoryKitInventory;
+import com.squashcompany.kits.kits.metrics.KitsMetrics;
+import com.squashcompany.kits.kits.metrics.LatencyHistogram;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Headless load generator for kits pages and claims:
+ * {@code ./gradlew loadTest [-PloadArgs="--players 5000 --seconds 60"]}.
+ *
+ * Worker threads play simulated players who open /kits, sometimes switch
+ * pages, claim a kit, close the popup and later dismiss the page, while a
+ * ticker thread refreshes every open page the way {@link CooldownTicker}
+ * does. Every page runs the real {@link KitsPageSession} and claim path over
+ * in-memory fakes. A few hot players are visited much more often, so two of
+ * their pages regularly race for the same kit. Clicks pass through the same
+ * per-player event throttle as on a server; simulated players click far
+ * faster than people, so with few players most clicks are dropped there.
+ *
+ * Prints throughput, latency percentiles per step, ticker cost, packets and
+ * chat lines sent, allocation and heap growth. Exits with status 1 if any
+ * kit was granted twice within its cooldown.
+ */
+public final class KitsLoadGenerator {
+
+    private static final int INVENTORY_SLOTS = 36;
+    private static final int HOT_PERCENT = 10;
+
+    private final int players;
+    private final int threads;
+    private final int seconds;
+    private final int openPages;
+    private final int hotPlayers;
+    private final long tickMillis;
+
+    private final Set<KitsPageSession> open = ConcurrentHashMap.newKeySet();
+    private final RecordingPageSink sink = new RecordingPageSink();
+    private final RecordingMessenger messenger = new RecordingMessenger();
+
+    private final LatencyHistogram visitLatency = new LatencyHistogram();
+    private final LatencyHistogram openLatency = new LatencyHistogram();
+    private final LatencyHistogram pageLatency = new LatencyHistogram();
+    private final LatencyHistogram claimLatency = new LatencyHistogram();
+    private final LatencyHistogram dismissLatency = new LatencyHistogram();
+    private final LatencyHistogram tickLatency = new LatencyHistogram();
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    private UUID[] uuids;
+    private InMemoryKitInventory[] inventories;
+    private Messages messages;
+
+    private KitsLoadGenerator(String[] args) {
+        int players = 2000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int seconds = 30;
+        int openPages = 1000;
+        int hotPlayers = 16;
+        long tickMillis = 1000;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            int value = Integer.parseInt(args[i + 1]);
+            switch (args[i]) {
+                case "--players" -> players = value;
+                case "--threads" -> threads = value;
+                case "--seconds" -> seconds = value;
+                case "--open-pages" -> openPages = value;
+                case "--hot-players" -> hotPlayers = value;
+                case "--tick-millis" -> tickMillis = value;
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        this.players = players;
+        this.threads = threads;
+        this.seconds = seconds;
+        this.openPages = Math.max(threads, openPages);
+        this.hotPlayers = Math.min(hotPlayers, players);
+        this.tickMillis = tickMillis;
+    }
+
+    public static void main(String[] args) throws Exception {
+        KitsLoadGenerator generator = new KitsLoadGenerator(args);
+        long duplicates = generator.run();
+        System.exit(duplicates > 0 ? 1 : 0);
+    }
+
+    private long run() throws InterruptedException {
+        messages = MessageCatalog.get().getDefault();
+        uuids = new UUID[players];
+        inventories = new InMemoryKitInventory[players];
+        SplittableRandom seeds = new SplittableRandom(42);
+        for (int i = 0; i < players; i++) {
+            uuids[i] = new UUID(seeds.nextLong(), seeds.nextLong());
+            inventories[i] = new InMemoryKitInventory(INVENTORY_SLOTS);
+        }
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTime();
+
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor();
+        ticker.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = seeds.split();
+            Thread worker = new Thread(() -> {
+                try {
+                    work(random, deadline);
+                } finally {
+                    done.countDown();
+                }
+            }, "Kits-Load-" + t);
+            worker.start();
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+
+        ticker.shutdown();
+        ticker.awaitTermination(10, TimeUnit.SECONDS);
+
+        System.gc();
+        long heapAfter = memory.getHeapMemoryUsage().getUsed();
+
+        long grants = 0;
+        long duplicates = 0;
+        for (InMemoryKitInventory inventory : inventories) {
+            grants += inventory.getGrants();
+            duplicates += inventory.getDuplicates();
+        }
+
+        long visits = visitLatency.snapshot().getCount();
+        double elapsedSeconds = elapsed / 1e9;
+        System.out.println("Kits load: " + players + " players (" + hotPlayers + " hot), " + threads + " threads, "
+                + openPages + " open pages, " + seconds + " s, tick " + tickMillis + " ms");
+        System.out.printf("Throughput: %.0f visits/s, %.0f claims/s%n",
+                visits / elapsedSeconds, claimLatency.snapshot().getCount() / elapsedSeconds);
+        System.out.println("Latency (bucket upper bounds):");
+        printLatency("visit", visitLatency);
+        printLatency("open", openLatency);
+        printLatency("page", pageLatency);
+        printLatency("claim", claimLatency);
+        printLatency("dismiss", dismissLatency);
+        printLatency("tick", tickLatency);
+        System.out.printf("Client: %d updates, %d commands, %d chat lines (%.0f updates/s)%n",
+                sink.getUpdates(), sink.getCommands(), messenger.getMessages(), sink.getUpdates() / elapsedSeconds);
+        System.out.printf("Memory: %.0f bytes allocated per visit, %d GCs taking %d ms, heap %+.1f MB after GC%n",
+                visits == 0 ? 0.0 : (double) allocatedBytes.sum() / visits,
+                gcCount() - gcCountBefore, gcTime() - gcTimeBefore, (heapAfter - heapBefore) / 1048576.0);
+        System.out.println("Grants: " + grants + ", duplicates within cooldown: " + duplicates);
+        for (String line : KitsMetrics.get().report()) {
+            System.out.println("  " + line);
+        }
+        return duplicates;
+    }
+
+    private void work(SplittableRandom random, long deadline) {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+
+        // Pages this worker keeps open; each visit replaces the oldest one
+        KitsPageSession[] lingering = new KitsPageSession[openPages / threads];
+        int next = 0;
+
+        while (System.nanoTime() < deadline) {
+            int player = hotPlayers > 0 && random.nextInt(100) < HOT_PERCENT
+                    ? random.nextInt(hotPlayers)
+                    : random.nextInt(players);
+            long start = System.nanoTime();
+
+            KitsPageSession previous = lingering[next];
+            if (previous != null) {
+                open.remove(previous);
+                dismissLatency.record(System.nanoTime() - start);
+            }
+            lingering[next] = visit(player, random);
+            next = (next + 1) % lingering.length;
+
+            visitLatency.record(System.nanoTime() - start);
+        }
+
+        for (KitsPageSession session : lingering) {
+            if (session != null) {
+                open.remove(session);
+            }
+        }
+        allocatedBytes.add(threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore);
+    }
+
+    private KitsPageSession visit(int player, SplittableRandom random) {
+        InMemoryKitInventory inventory = inventories[player];
+        if (inventory.getFree() < INVENTORY_SLOTS / 4) {
+            inventory.clear();
+        }
+
+        long start = System.nanoTime();
+        KitsPageSession session = new KitsPageSession(uuids[player], messages, sink, messenger, inventory);
+        PageUpdate update = sink.begin();
+        session.build(update);
+        sink.send(update);
+        open.add(session);
+        long opened = System.nanoTime();
+        openLatency.record(opened - start);
+
+        if (random.nextInt(4) == 0) {
+            session.handleButton(random.nextBoolean() ? "NextPage" : "PrevPage");
+            long paged = System.nanoTime();
+            pageLatency.record(paged - opened);
+            opened = paged;
+        }
+
+        session.handleButton(KitsPageSession.CARDS[random.nextInt(KitsPageSession.CARDS_PER_PAGE)].claimEvent);
+        claimLatency.record(System.nanoTime() - opened);
+        session.handleButton("ClosePopup");
+        return session;
+    }
+
+    private void tick() {
+        long start = System.nanoTime();
+        CooldownTicker.Tick tick = new CooldownTicker.Tick();
+        tick.nowSeconds = System.currentTimeMillis() / 1000;
+        tick.kits = KitsConfig.get().getSnapshot();
+        for (KitsPageSession session : open) {
+            session.refreshCooldowns(tick);
+        }
+        tickLatency.record(System.nanoTime() - start);
+    }
+
+    private static void printLatency(String name, LatencyHistogram histogram) {
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        System.out.printf("  %-8s %10d ops  p50 %9s  p90 %9s  p99 %9s  p99.9 %9s  max %9s%n", name, snapshot.getCount(),
+                micros(snapshot.getQuantileNanos(0.5)), micros(snapshot.getQuantileNanos(0.9)),
+                micros(snapshot.getQuantileNanos(0.99)), micros(snapshot.getQuantileNanos(0.999)),
+                micros(snapshot.getMaxNanos()));
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1fus", nanos / 1000.0);
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return time;
+    }
+}
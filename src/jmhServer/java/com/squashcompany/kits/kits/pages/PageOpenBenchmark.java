@@ -0,0 +1,87 @@
+package com.squashcompany.kits.kits.pages;
+
+import com.squashcompany.kits.kits.config.MessageCatalog;
+import com.squashcompany.kits.kits.config.Messages;
+import com.squashcompany.kits.kits.manager.InMemoryKitInventory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A burst of players opening /kits at once, such as the 500 players of a
+ * login wave. {@code openBurst} is the first open after joining: session
+ * creation and the initial build, replaying the compiled static page
+ * fragment and the per-player status fields into a UI command builder.
+ * {@code reopenBurst} is every later open, which reuses the player's page
+ * and only rebuilds it. Run with the gc profiler (on by default) for the
+ * bytes allocated per burst.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageOpenBenchmark {
+
+    @Param({"100", "500", "1000"})
+    public int burst;
+
+    private UUID[] players;
+    private InMemoryKitInventory inventory;
+    private RecordingPageSink sink;
+    private RecordingMessenger messenger;
+    private Messages messages;
+    private KitsPageSession[] sessions;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        players = new UUID[burst];
+        for (int i = 0; i < burst; i++) {
+            players[i] = new UUID(random.nextLong(), random.nextLong());
+        }
+        inventory = new InMemoryKitInventory(Integer.MAX_VALUE);
+        sink = new RecordingPageSink();
+        messenger = new RecordingMessenger();
+        messages = MessageCatalog.get().getDefault();
+        sessions = new KitsPageSession[burst];
+        for (int i = 0; i < burst; i++) {
+            sessions[i] = new KitsPageSession(players[i], messages, sink, messenger, inventory);
+        }
+    }
+
+    @Benchmark
+    public long openBurst() {
+        for (UUID player : players) {
+            KitsPageSession session = new KitsPageSession(player, messages, sink, messenger, inventory);
+            PageUpdate update = sink.begin();
+            session.build(update);
+            sink.send(update);
+        }
+        return sink.getCommands();
+    }
+
+    @Benchmark
+    public long reopenBurst() {
+        for (KitsPageSession session : sessions) {
+            PageUpdate update = sink.begin();
+            session.build(update);
+            sink.send(update);
+            session.dismiss();
+        }
+        return sink.getCommands();
+    }
+}
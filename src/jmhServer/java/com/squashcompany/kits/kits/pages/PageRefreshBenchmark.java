@@ -0,0 +1,119 @@
+package com.squashcompany.kits.kits.pages;
+
+import com.squashcompany.kits.kits.config.KitsConfig;
+import com.squashcompany.kits.kits.config.MessageCatalog;
+import com.squashcompany.kits.kits.config.Messages;
+import com.squashcompany.kits.kits.manager.CooldownFixtures;
+import com.squashcompany.kits.kits.manager.InMemoryKitInventory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One second of cooldown refreshes over every open page: {@link KitsPageSession#refreshCooldowns}
+ * with its remaining-time lookups, status text and {@link SentFields} diff,
+ * sending into an in-memory sink. Countdowns run out during long runs, after
+ * which only the "available" path is measured.
+ *
+ * {@code sharedTicker} runs it as {@link CooldownTicker} does, one task on
+ * the scheduler thread resolving the tick once and walking every page.
+ * {@code perPageTasks} is the design it replaced: every page has its own
+ * task on the same single scheduler thread and resolves the tick itself.
+ * Both include the handoff to the scheduler thread; a single thread runs
+ * the work, so the time per operation is the CPU time per tick.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageRefreshBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    public int openPages;
+
+    private KitsPageSession[] sessions;
+    private RecordingPageSink sink;
+    private CooldownTicker.Tick tick;
+    private ScheduledExecutorService scheduler;
+
+    @Setup
+    public void setup() {
+        KitsConfig.KitDefinition first = KitsConfig.get().getKits().get(0);
+        Messages messages = MessageCatalog.get().getDefault();
+        InMemoryKitInventory inventory = new InMemoryKitInventory(Integer.MAX_VALUE);
+        RecordingMessenger messenger = new RecordingMessenger();
+        sink = new RecordingPageSink();
+        tick = new CooldownTicker.Tick();
+        tick.kits = KitsConfig.get().getSnapshot();
+        tick.nowSeconds = System.currentTimeMillis() / 1000;
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+
+        SplittableRandom random = new SplittableRandom(42);
+        sessions = new KitsPageSession[openPages];
+        for (int i = 0; i < openPages; i++) {
+            UUID player = new UUID(random.nextLong(), random.nextLong());
+            // Half the pages count down on their first card
+            if (i % 2 == 0) {
+                CooldownFixtures.seed(player, first, tick.nowSeconds - random.nextInt(first.getCooldownSeconds()));
+            }
+            sessions[i] = new KitsPageSession(player, messages, sink, messenger, inventory);
+            sessions[i].build(sink.begin());
+        }
+    }
+
+    @TearDown
+    public void stopScheduler() {
+        scheduler.shutdownNow();
+    }
+
+    @Benchmark
+    public long sharedTicker() throws InterruptedException {
+        // Advance a second per tick so countdown text changes like it does live
+        tick.nowSeconds++;
+        CountDownLatch done = new CountDownLatch(1);
+        scheduler.execute(() -> {
+            for (KitsPageSession session : sessions) {
+                session.refreshCooldowns(tick);
+            }
+            done.countDown();
+        });
+        done.await();
+        return sink.getCommands();
+    }
+
+    @Benchmark
+    public long perPageTasks() throws InterruptedException {
+        long now = ++tick.nowSeconds;
+        CountDownLatch done = new CountDownLatch(sessions.length);
+        for (KitsPageSession session : sessions) {
+            // Each page's own periodic task, queued on the shared scheduler
+            scheduler.schedule(() -> {
+                CooldownTicker.Tick own = new CooldownTicker.Tick();
+                own.nowSeconds = now;
+                own.kits = KitsConfig.get().getSnapshot();
+                session.refreshCooldowns(own);
+                done.countDown();
+            }, 0, TimeUnit.NANOSECONDS);
+        }
+        done.await();
+        return sink.getCommands();
+    }
+}
@@ -0,0 +1,20 @@
+package com.squashcompany.kits.kits.pages;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link PlayerMessenger} fake counting chat lines. Thread-safe.
+ */
+final class RecordingMessenger implements PlayerMessenger {
+
+    private final LongAdder messages = new LongAdder();
+
+    @Override
+    public void send(String text) {
+        messages.increment();
+    }
+
+    long getMessages() {
+        return messages.sum();
+    }
+}
@@ -0,0 +1,75 @@
+package com.squashcompany.kits.kits.pages;
+
+import com.hypixel.hytale.server.core.ui.builder.UICommandBuilder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link PageSink} fake that renders every update into a
+ * {@link UICommandBuilder} exactly as {@link KitsPage} does, including
+ * compiling and replaying page fragments, and counts what a real client
+ * would receive instead of sending it. Thread-safe, so one instance can
+ * serve many sessions.
+ */
+final class RecordingPageSink implements PageSink {
+
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder commands = new LongAdder();
+
+    @Override
+    public PageUpdate begin() {
+        return new Update(new UICommandBuilder());
+    }
+
+    @Override
+    public void send(PageUpdate update) {
+        updates.increment();
+        commands.add(((Update) update).commands);
+    }
+
+    long getUpdates() {
+        return updates.sum();
+    }
+
+    long getCommands() {
+        return commands.sum();
+    }
+
+    /**
+     * Renders through {@link UICommandUpdate} and counts the commands it
+     * sets.
+     */
+    static final class Update implements PageUpdate {
+
+        private final UICommandUpdate target;
+        int commands;
+
+        Update(UICommandBuilder builder) {
+            this.target = new UICommandUpdate(builder);
+        }
+
+        @Override
+        public void text(String selector, String value) {
+            target.text(selector, value);
+            commands++;
+        }
+
+        @Override
+        public void flag(String selector, boolean value) {
+            target.flag(selector, value);
+            commands++;
+        }
+
+        @Override
+        public void fragment(UIFragment fragment) {
+            target.fragment(fragment);
+            commands += fragment.size();
+        }
+
+        @Override
+        public void page(PageFragments.Page page) {
+            target.page(page);
+            commands += page.fragment().size();
+        }
+    }
+}
@@ -1,11 +1,27 @@
 package com.squashcompany.kits.kits;
 
+import com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent;
 import com.hypixel.hytale.server.core.plugin.JavaPlugin;
 import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
+import com.squashcompany.kits.kits.audit.ClaimAuditLog;
 import com.squashcompany.kits.kits.commands.KitsCommand;
 import com.squashcompany.kits.kits.config.KitsConfig;
+import com.squashcompany.kits.kits.config.MessageCatalog;
+import com.squashcompany.kits.kits.config.MessageKey;
+import com.squashcompany.kits.kits.config.PluginSettings;
+import com.squashcompany.kits.kits.manager.EventThrottle;
 import com.squashcompany.kits.kits.manager.KitManager;
+import com.squashcompany.kits.kits.manager.KitTemplates;
+import com.squashcompany.kits.kits.manager.CooldownTransport;
+import com.squashcompany.kits.kits.manager.NetworkCooldownStore;
+import com.squashcompany.kits.kits.manager.ShardedCooldownStore;
+import com.squashcompany.kits.kits.metrics.KitsMetrics;
+import com.squashcompany.kits.kits.pages.KitsPage;
 
+import java.io.IOException;
+import java.util.ServiceLoader;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import javax.annotation.Nonnull;
 
@@ -31,21 +47,107 @@ public class Kits extends JavaPlugin {
 
     @Override
     protected void setup() {
-        // Initialize configuration
-        KitsConfig.get();
+        // Read plugin settings; bundled defaults apply if this fails
+        try {
+            PluginSettings.get().load(getDataDirectory());
+        } catch (IOException e) {
+            getLogger().at(Level.SEVERE).withCause(e).log("Failed to load settings, using defaults!");
+        }
 
-        // Initialize kit manager
-        KitManager.get();
+        // Load kits from the data directory and reload them when the file changes
+        try {
+            KitsConfig.get().load(getDataDirectory());
+            KitsConfig.get().startWatching();
+        } catch (IOException e) {
+            getLogger().at(Level.SEVERE).withCause(e).log("Failed to create kits config, using bundled kits!");
+        }
+
+        // Compile message locales, including overrides from the data directory
+        try {
+            MessageCatalog.get().load(getDataDirectory());
+        } catch (IOException e) {
+            getLogger().at(Level.SEVERE).withCause(e).log("Failed to load message overrides, using bundled messages!");
+        }
+
+        // Share cooldowns across a network, or keep only recently active players in memory, if configured
+        NetworkCooldownStore shared = openSharedStore(PluginSettings.get().getStorageSharedTransport());
+        int residentPlayers = PluginSettings.get().getStorageResidentPlayers();
+        ShardedCooldownStore shards = null;
+        if (shared != null) {
+            KitManager.get().setStore(shared);
+        } else if (residentPlayers > 0) {
+            try {
+                shards = new ShardedCooldownStore(getDataDirectory().resolve("players"), residentPlayers);
+                KitManager.get().setStore(shards);
+            } catch (IOException e) {
+                getLogger().at(Level.SEVERE).withCause(e).log("Failed to open player shards, keeping every player in memory!");
+            }
+        }
+
+        // Initialize kit manager and restore persisted cooldowns
+        long restoreStart = System.nanoTime();
+        try {
+            int restored = KitManager.get().openStorage(getDataDirectory());
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - restoreStart);
+            getLogger().at(Level.INFO).log("Restored " + restored + " cooldown records in " + elapsedMs + " ms");
+        } catch (IOException e) {
+            getLogger().at(Level.SEVERE).withCause(e).log("Failed to load cooldowns, running without persistence!");
+        }
+
+        // Record every claim for abuse investigations, if enabled
+        int auditFiles = PluginSettings.get().getAuditMaxFiles();
+        if (auditFiles > 0) {
+            try {
+                ClaimAuditLog.get().open(getDataDirectory().resolve("audit"), auditFiles);
+            } catch (IOException e) {
+                getLogger().at(Level.SEVERE).withCause(e).log("Failed to open the claim audit log, claims are not audited!");
+                auditFiles = 0;
+            }
+        }
+
+        // Expose runtime metrics through /kits stats and, if enabled, the log
+        KitsMetrics metrics = KitsMetrics.get();
+        metrics.registerGauge(MessageKey.STATS_OPEN_PAGES, KitsPage::getOpenPages);
+        metrics.registerGauge(MessageKey.STATS_CACHED_PAGES, KitsPage::getCachedPages);
+        metrics.registerGauge(MessageKey.STATS_TRACKED_PLAYERS, KitManager.get()::getTrackedPlayers);
+        metrics.registerGauge(MessageKey.STATS_PENDING_EXPIRATIONS, KitManager.get()::getPendingExpirations);
+        metrics.registerGauge(MessageKey.STATS_EVICTED_COOLDOWNS, KitManager.get()::getTotalEvictions);
+        metrics.registerGauge(MessageKey.STATS_LAST_SWEEP_EVICTIONS, KitManager.get()::getLastSweepEvictions);
+        if (shards != null) {
+            metrics.registerGauge(MessageKey.STATS_PLAYER_LOADS, shards::getLoads);
+            metrics.registerGauge(MessageKey.STATS_PLAYER_UNLOADS, shards::getEvictions);
+            metrics.registerGauge(MessageKey.STATS_SHARD_WRITES, shards::getShardWrites);
+        }
+        if (shared != null) {
+            metrics.registerGauge(MessageKey.STATS_PENDING_SHARED_WRITES, shared::getPendingWrites);
+            metrics.registerGauge(MessageKey.STATS_SHARED_CONFLICTS, shared::getConflicts);
+            metrics.registerGauge(MessageKey.STATS_FAILED_SHARED_WRITES, shared::getFailedWrites);
+        }
+        if (auditFiles > 0) {
+            metrics.registerGauge(MessageKey.STATS_AUDITED_CLAIMS, ClaimAuditLog.get()::getWritten);
+            metrics.registerGauge(MessageKey.STATS_DROPPED_AUDIT_EVENTS, ClaimAuditLog.get()::getDropped);
+        }
+        metrics.startLogging(PluginSettings.get().getMetricsLogInterval());
 
         // Register commands
         this.getCommandRegistry().registerCommand(new KitsCommand());
 
+        // Pages, click allowances and shared cooldown caches are kept until their player leaves
+        this.getEventRegistry().register(PlayerDisconnectEvent.class, event -> {
+            UUID playerUuid = event.getPlayerRef().getUuid();
+            KitsPage.forget(playerUuid);
+            EventThrottle.get().forget(playerUuid);
+            KitManager.get().forget(playerUuid);
+        });
+
         getLogger().at(Level.INFO).log("Kits plugin setup complete!");
     }
 
     @Override
     protected void start() {
         // Called when the plugin is enabled
+        // Item assets are loaded by now; recheck the kits against them
+        KitsConfig.get().setItemCatalog(KitTemplates.get().useItemAssets());
         getLogger().at(Level.INFO).log("Kits has been enabled!");
         getLogger().at(Level.INFO).log("Use /kits to open the kit selection menu.");
     }
@@ -53,6 +155,38 @@ public class Kits extends JavaPlugin {
     @Override
     protected void shutdown() {
         // Called when the plugin is disabled
+        KitsConfig.get().stopWatching();
+        KitsMetrics.get().stopLogging();
+        try {
+            KitManager.get().closeStorage();
+        } catch (IOException e) {
+            getLogger().at(Level.SEVERE).withCause(e).log("Failed to save cooldowns!");
+        }
+        ClaimAuditLog.get().close();
         getLogger().at(Level.INFO).log("Kits has been disabled!");
     }
+
+    /**
+     * Connect to the shared cooldown service through the named transport
+     * provider, or return null if none is configured or it cannot be opened.
+     */
+    private NetworkCooldownStore openSharedStore(String transportName) {
+        if (transportName.isEmpty()) {
+            return null;
+        }
+        for (CooldownTransport.Provider provider : ServiceLoader.load(CooldownTransport.Provider.class,
+                Kits.class.getClassLoader())) {
+            if (provider.getName().equals(transportName)) {
+                try {
+                    return new NetworkCooldownStore(provider.open(getDataDirectory()));
+                } catch (IOException | RuntimeException e) {
+                    getLogger().at(Level.SEVERE).withCause(e)
+                            .log("Failed to open cooldown transport " + transportName + ", cooldowns are not shared!");
+                    return null;
+                }
+            }
+        }
+        getLogger().at(Level.SEVERE).log("No cooldown transport named " + transportName + ", cooldowns are not shared!");
+        return null;
+    }
 }
@@ -0,0 +1,62 @@
+package com.squashcompany.kits.kits.audit;
+
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * On-disk layout of the claim audit log, shared by the writer and the
+ * offline query tool.
+ *
+ * Each file is a GZIP stream holding a header (magic, version) followed by
+ * fixed-size events of {@link #WIDTH} longs. Files are named after the UTC
+ * time they were started, so name order is time order. A file cut short by a
+ * crash is valid up to its last complete event.
+ */
+final class ClaimAuditFormat {
+
+    static final int MAGIC = 0x4B415544; // "KAUD"
+    static final int VERSION = 1;
+
+    static final String PREFIX = "claims-";
+    static final String SUFFIX = ".log.gz";
+    static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    // Event fields
+    static final int MSB = 0;
+    static final int LSB = 1;
+    static final int TIME = 2; // Epoch millis
+    static final int KIT_KEY = 3;
+    static final int KIT = 4; // Kit ordinal << 8 | status ordinal
+    static final int LEFTOVERS = 5; // Stacks << 32 | items
+    static final int REMAINING = 6; // Cooldown seconds left, when refused for it
+    static final int WIDTH = 7;
+
+    static final int EVENT_BYTES = WIDTH * Long.BYTES;
+
+    private ClaimAuditFormat() {
+    }
+
+    static long kit(int ordinal, int status) {
+        return (long) ordinal << 8 | status;
+    }
+
+    static int ordinal(long kit) {
+        return (int) (kit >>> 8);
+    }
+
+    static int status(long kit) {
+        return (int) (kit & 0xFF);
+    }
+
+    static long leftovers(int stacks, int items) {
+        return (long) stacks << 32 | (items & 0xFFFFFFFFL);
+    }
+
+    static int leftoverStacks(long leftovers) {
+        return (int) (leftovers >>> 32);
+    }
+
+    static int leftoverItems(long leftovers) {
+        return (int) leftovers;
+    }
+}
@@ -0,0 +1,313 @@
+package com.squashcompany.kits.kits.audit;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.squashcompany.kits.kits.Kits;
+import com.squashcompany.kits.kits.config.KitsConfig;
+import com.squashcompany.kits.kits.manager.GrantResult;
+import com.squashcompany.kits.kits.util.RecordRing;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Record of every kit claim, for investigating duping and abuse.
+ *
+ * Claims publish a fixed-size event into a preallocated ring and return; a
+ * single background thread drains it in batches into GZIP files under the
+ * audit directory (see {@link ClaimAuditFormat}). The current file is flushed
+ * once per second and a new one is started every {@link #ROTATE_EVENTS}
+ * events or UTC day, after which the oldest files beyond the configured limit
+ * are deleted. Read the files with {@link ClaimAuditQuery}.
+ *
+ * Claims never wait for the disk. While the writer cannot keep up the ring
+ * fills and new events are dropped; drops are counted and logged at most
+ * once a minute. If a write fails the batch is counted as dropped and the
+ * writer starts a new file a few seconds later; events still buffered for
+ * the failed file may be lost with it.
+ */
+public final class ClaimAuditLog {
+
+    private static final ClaimAuditLog instance = new ClaimAuditLog();
+
+    private static final int RING_CAPACITY = 1 << 16;
+    private static final int DRAIN_BATCH = 1024;
+    private static final int ROTATE_EVENTS = 1 << 20;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long RETRY_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final long DROP_REPORT_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final RecordRing ring = new RecordRing(RING_CAPACITY, ClaimAuditFormat.WIDTH);
+    private final RecordRing.Handler eventEncoder = this::encodeEvent;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    // Writer-thread state
+    private final ByteBuffer batch = ByteBuffer.allocate(DRAIN_BATCH * ClaimAuditFormat.EVENT_BYTES);
+    private Path directory;
+    private int maxFiles;
+    private DataOutputStream out;
+    private long fileDay;
+    private int fileEvents;
+    private boolean dirty;
+    private long lastFlush;
+    private long retryAt;
+    private long lastDropReport;
+    private long reportedDrops;
+
+    private volatile boolean open;
+    private volatile boolean running;
+    private Thread writer;
+
+    private ClaimAuditLog() {
+    }
+
+    public static ClaimAuditLog get() {
+        return instance;
+    }
+
+    /**
+     * Start writing claim events to a directory. Called once during plugin
+     * setup; until then events are ignored.
+     *
+     * @param directory Where audit files are kept
+     * @param maxFiles Files kept before the oldest are deleted
+     */
+    public synchronized void open(Path directory, int maxFiles) throws IOException {
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.maxFiles = maxFiles;
+        long now = System.nanoTime();
+        lastDropReport = now;
+        retryAt = now;
+        running = true;
+        open = true;
+        writer = new Thread(this::runWriter, "Kits-ClaimAudit");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queue a claim for the audit log. Never blocks; if the ring is full the
+     * event is dropped and counted.
+     *
+     * @param playerUuid The claiming player
+     * @param kit The kit claimed
+     * @param result The outcome of the claim
+     */
+    public void record(UUID playerUuid, KitsConfig.KitDefinition kit, GrantResult result) {
+        if (!open) {
+            return;
+        }
+        long sequence = ring.tryClaim();
+        if (sequence < 0) {
+            dropped.increment();
+            return;
+        }
+
+        List<ItemStack> leftovers = result.getLeftovers();
+        int leftoverItems = 0;
+        for (int i = 0; i < leftovers.size(); i++) {
+            leftoverItems += leftovers.get(i).getQuantity();
+        }
+
+        long[] data = ring.data();
+        int offset = ring.offset(sequence);
+        data[offset + ClaimAuditFormat.MSB] = playerUuid.getMostSignificantBits();
+        data[offset + ClaimAuditFormat.LSB] = playerUuid.getLeastSignificantBits();
+        data[offset + ClaimAuditFormat.TIME] = System.currentTimeMillis();
+        data[offset + ClaimAuditFormat.KIT_KEY] = kit.getKey();
+        data[offset + ClaimAuditFormat.KIT] = ClaimAuditFormat.kit(kit.getOrdinal(), result.getStatus().ordinal());
+        data[offset + ClaimAuditFormat.LEFTOVERS] = ClaimAuditFormat.leftovers(leftovers.size(), leftoverItems);
+        data[offset + ClaimAuditFormat.REMAINING] = result.getRemainingCooldown();
+        ring.publish(sequence);
+    }
+
+    /**
+     * Events written to disk since startup.
+     */
+    public long getWritten() {
+        return written.sum();
+    }
+
+    /**
+     * Events dropped since startup because the writer fell behind.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Stop the writer after draining everything queued so far.
+     */
+    public synchronized void close() {
+        open = false;
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+    }
+
+    private void runWriter() {
+        while (running || ring.size() > 0) {
+            long now = System.nanoTime();
+            int unwritten = 0;
+            try {
+                if (out == null) {
+                    if (now - retryAt < 0) {
+                        if (!running) {
+                            break;
+                        }
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                        continue;
+                    }
+                    startFile();
+                }
+
+                batch.clear();
+                int drained = ring.drain(eventEncoder, DRAIN_BATCH);
+                if (drained > 0) {
+                    unwritten = drained;
+                    out.write(batch.array(), 0, batch.position());
+                    unwritten = 0;
+                    fileEvents += drained;
+                    written.add(drained);
+                    dirty = true;
+                }
+
+                if (fileEvents >= ROTATE_EVENTS || currentDay() != fileDay) {
+                    finishFile();
+                } else if (dirty && now - lastFlush >= FLUSH_INTERVAL_NANOS) {
+                    out.flush();
+                    dirty = false;
+                    lastFlush = now;
+                }
+                reportDrops(now);
+
+                if (drained == 0 && running) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (IOException e) {
+                dropped.add(unwritten);
+                Kits.get().getLogger().at(Level.SEVERE).withCause(e).log("Claim audit write failed, starting a new file");
+                abandonFile();
+                retryAt = now + RETRY_INTERVAL_NANOS;
+            }
+        }
+
+        try {
+            if (out != null) {
+                finishFile();
+            }
+        } catch (IOException e) {
+            Kits.get().getLogger().at(Level.SEVERE).withCause(e).log("Failed to close claim audit log");
+        }
+        int lost = ring.size();
+        if (lost > 0) {
+            dropped.add(lost);
+        }
+        reportDrops(System.nanoTime() + DROP_REPORT_INTERVAL_NANOS);
+    }
+
+    private void encodeEvent(long[] data, int offset) {
+        for (int i = 0; i < ClaimAuditFormat.WIDTH; i++) {
+            batch.putLong(data[offset + i]);
+        }
+    }
+
+    private void startFile() throws IOException {
+        long time = System.currentTimeMillis();
+        Path file;
+        do {
+            file = directory.resolve(ClaimAuditFormat.PREFIX
+                    + ClaimAuditFormat.FILE_TIME.format(Instant.ofEpochMilli(time)) + ClaimAuditFormat.SUFFIX);
+            time += 1000;
+        } while (Files.exists(file));
+
+        OutputStream compressed = new GZIPOutputStream(Files.newOutputStream(file), 1 << 16, true) {
+            {
+                // Favour keeping up with claims over file size
+                def.setLevel(Deflater.BEST_SPEED);
+            }
+        };
+        DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(compressed, 1 << 16));
+        stream.writeInt(ClaimAuditFormat.MAGIC);
+        stream.writeInt(ClaimAuditFormat.VERSION);
+        out = stream;
+        fileDay = currentDay();
+        fileEvents = 0;
+        dirty = true;
+        lastFlush = System.nanoTime();
+
+        deleteOldFiles();
+    }
+
+    private void finishFile() throws IOException {
+        DataOutputStream stream = out;
+        out = null;
+        dirty = false;
+        stream.close();
+    }
+
+    private void abandonFile() {
+        DataOutputStream stream = out;
+        out = null;
+        dirty = false;
+        if (stream != null) {
+            try {
+                stream.close();
+            } catch (IOException ignored) {
+                // Already failing
+            }
+        }
+    }
+
+    private void deleteOldFiles() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(ClaimAuditQuery::isAuditFile).sorted().toList();
+        }
+        for (int i = 0; i < files.size() - maxFiles; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private void reportDrops(long now) {
+        if (now - lastDropReport < DROP_REPORT_INTERVAL_NANOS) {
+            return;
+        }
+        lastDropReport = now;
+        long total = dropped.sum();
+        if (total > reportedDrops) {
+            Kits.get().getLogger().at(Level.WARNING).log("Claim audit log fell behind, dropped "
+                    + (total - reportedDrops) + " events");
+            reportedDrops = total;
+        }
+    }
+
+    private static long currentDay() {
+        return System.currentTimeMillis() / TimeUnit.DAYS.toMillis(1);
+    }
+}
@@ -0,0 +1,226 @@
+package com.squashcompany.kits.kits.audit;
+
+import com.squashcompany.kits.kits.config.KitsConfig;
+import com.squashcompany.kits.kits.manager.GrantResult;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Offline search of the claim audit log. Runs without a server:
+ *
+ * <pre>
+ * java -cp sqh_kits.jar com.squashcompany.kits.kits.audit.ClaimAuditQuery \
+ *     [--player UUID] [--kit ID] [--since TIME] [--until TIME] [--kits FILE] PATH...
+ * </pre>
+ *
+ * PATH is an audit directory or single audit files. TIME is an ISO instant
+ * ({@code 2026-10-17T14:00:00Z}) or a UTC date. Kit ids are named from
+ * {@code kits.properties} next to the audit directory unless {@code --kits}
+ * points elsewhere; kits missing from it are printed by key.
+ *
+ * Files are streamed one event at a time, and files that start after
+ * {@code --until} or end before {@code --since} are not opened.
+ */
+public final class ClaimAuditQuery {
+
+    private final UUID player;
+    private final long kitKey;
+    private final long since;
+    private final long until;
+    private final Map<Long, String> kitNames;
+    private final PrintStream output;
+
+    private long matched;
+
+    ClaimAuditQuery(UUID player, long kitKey, long since, long until, Map<Long, String> kitNames, PrintStream output) {
+        this.player = player;
+        this.kitKey = kitKey;
+        this.since = since;
+        this.until = until;
+        this.kitNames = kitNames;
+        this.output = output;
+    }
+
+    public static void main(String[] args) throws IOException {
+        UUID player = null;
+        String kit = null;
+        long since = Long.MIN_VALUE;
+        long until = Long.MAX_VALUE;
+        Path kitsFile = null;
+        List<Path> paths = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--player" -> player = UUID.fromString(args[++i]);
+                    case "--kit" -> kit = args[++i];
+                    case "--since" -> since = parseTime(args[++i]);
+                    case "--until" -> until = parseTime(args[++i]);
+                    case "--kits" -> kitsFile = Path.of(args[++i]);
+                    default -> paths.add(Path.of(args[i]));
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException | DateTimeParseException e) {
+            paths.clear();
+        }
+        if (paths.isEmpty()) {
+            System.err.println("Usage: ClaimAuditQuery [--player UUID] [--kit ID] [--since TIME] [--until TIME]"
+                    + " [--kits FILE] PATH...");
+            System.exit(2);
+            return;
+        }
+
+        // Each directory holds one run of files in time order
+        List<List<Path>> runs = new ArrayList<>();
+        for (Path path : paths) {
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> listing = Files.list(path)) {
+                    runs.add(listing.filter(ClaimAuditQuery::isAuditFile).sorted().toList());
+                }
+                if (kitsFile == null) {
+                    kitsFile = path.toAbsolutePath().resolveSibling("kits.properties");
+                }
+            } else {
+                runs.add(List.of(path));
+            }
+        }
+
+        long key = kit != null ? KitsConfig.KitDefinition.keyOf(kit) : 0;
+        ClaimAuditQuery query = new ClaimAuditQuery(player, key, since, until, readKitNames(kitsFile), System.out);
+        int scanned = 0;
+        for (List<Path> run : runs) {
+            for (int i = 0; i < run.size(); i++) {
+                // A file ends where the next one starts
+                long start = startOf(run.get(i));
+                long end = i + 1 < run.size() ? startOf(run.get(i + 1)) : Long.MAX_VALUE;
+                if (start > until || end < since) {
+                    continue;
+                }
+                query.scan(run.get(i));
+                scanned++;
+            }
+        }
+        System.err.println(query.matched + " matching claims in " + scanned + " files");
+    }
+
+    /**
+     * Print every matching event of one file.
+     */
+    void scan(Path file) throws IOException {
+        long[] event = new long[ClaimAuditFormat.WIDTH];
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file), 1 << 16), 1 << 16))) {
+            if (in.readInt() != ClaimAuditFormat.MAGIC || in.readInt() != ClaimAuditFormat.VERSION) {
+                System.err.println("Skipping " + file + ": not a claim audit file");
+                return;
+            }
+            while (true) {
+                for (int i = 0; i < ClaimAuditFormat.WIDTH; i++) {
+                    event[i] = in.readLong();
+                }
+                if (matches(event)) {
+                    matched++;
+                    output.println(describe(event));
+                }
+            }
+        } catch (EOFException e) {
+            // End of the file, or of what was flushed before a crash
+        } catch (ZipException e) {
+            System.err.println("Stopped reading " + file + " at damaged data: " + e.getMessage());
+        }
+    }
+
+    private boolean matches(long[] event) {
+        long time = event[ClaimAuditFormat.TIME];
+        return time >= since && time <= until
+                && (kitKey == 0 || event[ClaimAuditFormat.KIT_KEY] == kitKey)
+                && (player == null || (event[ClaimAuditFormat.MSB] == player.getMostSignificantBits()
+                        && event[ClaimAuditFormat.LSB] == player.getLeastSignificantBits()));
+    }
+
+    private String describe(long[] event) {
+        long key = event[ClaimAuditFormat.KIT_KEY];
+        String kit = kitNames.getOrDefault(key, Long.toHexString(key));
+        int status = ClaimAuditFormat.status(event[ClaimAuditFormat.KIT]);
+        GrantResult.Status[] statuses = GrantResult.Status.values();
+
+        StringBuilder line = new StringBuilder(128)
+                .append(Instant.ofEpochMilli(event[ClaimAuditFormat.TIME]))
+                .append(' ').append(new UUID(event[ClaimAuditFormat.MSB], event[ClaimAuditFormat.LSB]))
+                .append(' ').append(kit)
+                .append(' ').append(status < statuses.length ? statuses[status].name() : "STATUS_" + status);
+        long leftovers = event[ClaimAuditFormat.LEFTOVERS];
+        if (leftovers != 0) {
+            line.append(" leftovers=").append(ClaimAuditFormat.leftoverStacks(leftovers)).append(" stacks/")
+                    .append(ClaimAuditFormat.leftoverItems(leftovers)).append(" items");
+        }
+        if (event[ClaimAuditFormat.REMAINING] > 0) {
+            line.append(" remaining=").append(event[ClaimAuditFormat.REMAINING]).append('s');
+        }
+        return line.toString();
+    }
+
+    static boolean isAuditFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(ClaimAuditFormat.PREFIX) && name.endsWith(ClaimAuditFormat.SUFFIX);
+    }
+
+    /**
+     * Start time of a file from its name, in epoch millis.
+     */
+    private static long startOf(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            String stamp = name.substring(ClaimAuditFormat.PREFIX.length(), name.length() - ClaimAuditFormat.SUFFIX.length());
+            return Instant.from(ClaimAuditFormat.FILE_TIME.parse(stamp)).toEpochMilli();
+        } catch (RuntimeException e) {
+            return Long.MIN_VALUE; // Renamed file: always read
+        }
+    }
+
+    private static long parseTime(String value) {
+        try {
+            return Instant.parse(value).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        }
+    }
+
+    private static Map<Long, String> readKitNames(Path kitsFile) throws IOException {
+        Map<Long, String> names = new HashMap<>();
+        if (kitsFile == null || !Files.isRegularFile(kitsFile)) {
+            return names;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(kitsFile, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        for (String id : properties.getProperty("kits", "").split(",")) {
+            if (!id.isBlank()) {
+                names.put(KitsConfig.KitDefinition.keyOf(id.trim()), id.trim());
+            }
+        }
+        return names;
+    }
+}
@@ -10,6 +10,10 @@ import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.squashcompany.kits.kits.config.MessageCatalog;
+import com.squashcompany.kits.kits.config.MessageKey;
+import com.squashcompany.kits.kits.config.Messages;
+import com.squashcompany.kits.kits.metrics.KitsMetrics;
 import com.squashcompany.kits.kits.pages.KitsPage;
 import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
 
@@ -24,49 +28,47 @@ import java.util.concurrent.CompletableFuture;
 public class KitsCommand extends AbstractAsyncCommand {
 
     public KitsCommand() {
-        super("kits", "Abre o menu de selecao de kits");
+        super("kits", MessageCatalog.get().getDefault().text(MessageKey.COMMAND_DESCRIPTION));
         this.setPermissionGroup(GameMode.Adventure); // Available to all players
+        this.addSubCommand(new KitsStatsCommand());
+        this.addSubCommand(new KitsResetCommand());
     }
 
     @NonNullDecl
     @Override
     protected CompletableFuture<Void> executeAsync(CommandContext commandContext) {
+        long start = System.nanoTime();
         var sender = commandContext.sender();
+        Messages messages = MessageCatalog.get().getDefault();
 
         if (!(sender instanceof Player player)) {
-            commandContext.sendMessage(Message.raw("Este comando so pode ser usado por jogadores!"));
+            commandContext.sendMessage(Message.raw(messages.text(MessageKey.COMMAND_PLAYERS_ONLY)));
             return CompletableFuture.completedFuture(null);
         }
 
-        player.getWorldMapTracker().tick(0);
         Ref<EntityStore> ref = player.getReference();
 
         if (ref == null || !ref.isValid()) {
-            commandContext.sendMessage(Message.raw("Voce precisa estar em um mundo para usar este comando!"));
+            commandContext.sendMessage(Message.raw(messages.text(MessageKey.COMMAND_NO_WORLD)));
             return CompletableFuture.completedFuture(null);
         }
 
         Store<EntityStore> store = ref.getStore();
         World world = store.getExternalData().getWorld();
 
+        // One hop to the world thread, which owns the player's components
         return CompletableFuture.runAsync(() -> {
-            PlayerRef playerRef = store.getComponent(ref, PlayerRef.getComponentType());
+            PlayerRef playerRef = ref.isValid() ? store.getComponent(ref, PlayerRef.getComponentType()) : null;
 
             if (playerRef == null) {
-                commandContext.sendMessage(Message.raw("Erro ao obter referencia do jogador!"));
+                commandContext.sendMessage(Message.raw(messages.text(MessageKey.COMMAND_NO_PLAYER)));
                 return;
             }
 
-            // Open the kits page on the world thread
-            world.execute(() -> {
-                // Create and open the native Hytale UI page
-                KitsPage kitsPage = new KitsPage(playerRef, player);
-                player.getPageManager().openCustomPage(
-                        player.getReference(),
-                        store,
-                        kitsPage
-                );
-            });
+            // Reuses the player's page from their last /kits
+            KitsPage kitsPage = KitsPage.forPlayer(playerRef, player);
+            player.getPageManager().openCustomPage(ref, store, kitsPage);
+            KitsMetrics.get().recordPageOpenLatency(System.nanoTime() - start);
         }, world);
     }
 }
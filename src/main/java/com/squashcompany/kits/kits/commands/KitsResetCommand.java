@@ -0,0 +1,63 @@
+package com.squashcompany.kits.kits.commands;
+
+import com.hypixel.hytale.protocol.GameMode;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.hypixel.hytale.server.core.command.system.basecommands.AbstractAsyncCommand;
+import com.squashcompany.kits.kits.config.KitsConfig;
+import com.squashcompany.kits.kits.config.MessageCatalog;
+import com.squashcompany.kits.kits.config.MessageKey;
+import com.squashcompany.kits.kits.config.Messages;
+import com.squashcompany.kits.kits.manager.KitManager;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Command /kits reset &lt;kit|all&gt; - Resets a kit cooldown for every
+ * player at once. Operators only.
+ */
+public class KitsResetCommand extends AbstractAsyncCommand {
+
+    private static final String ALL = "all";
+
+    private final RequiredArg<String> kitArg;
+
+    public KitsResetCommand() {
+        super("reset", MessageCatalog.get().getDefault().text(MessageKey.COMMAND_RESET_DESCRIPTION));
+        this.setPermissionGroup(GameMode.Creative); // Operators only
+        this.kitArg = this.withRequiredArg("kit",
+                MessageCatalog.get().getDefault().text(MessageKey.COMMAND_RESET_ARGUMENT), ArgTypes.STRING);
+    }
+
+    @NonNullDecl
+    @Override
+    protected CompletableFuture<Void> executeAsync(CommandContext commandContext) {
+        String kitId = commandContext.get(kitArg);
+        return SenderMessages.of(commandContext).thenAccept(messages -> reset(commandContext, messages, kitId));
+    }
+
+    private static void reset(CommandContext commandContext, Messages messages, String kitId) {
+        if (!KitManager.get().canReset()) {
+            commandContext.sendMessage(Message.raw(messages.text(MessageKey.COMMAND_RESET_SHARED)));
+            return;
+        }
+
+        if (ALL.equalsIgnoreCase(kitId)) {
+            KitManager.get().resetAll();
+            commandContext.sendMessage(Message.raw(messages.text(MessageKey.COMMAND_RESET_ALL)));
+            return;
+        }
+
+        KitsConfig.KitDefinition kit = KitsConfig.get().getKit(kitId);
+        if (kit == null) {
+            commandContext.sendMessage(Message.raw(messages.format(MessageKey.COMMAND_RESET_UNKNOWN, kitId)));
+            return;
+        }
+
+        KitManager.get().resetKit(kit);
+        commandContext.sendMessage(Message.raw(messages.format(MessageKey.COMMAND_RESET_KIT, kit.getDisplayName())));
+    }
+}
@@ -0,0 +1,34 @@
+package com.squashcompany.kits.kits.commands;
+
+import com.hypixel.hytale.protocol.GameMode;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.basecommands.AbstractAsyncCommand;
+import com.squashcompany.kits.kits.config.MessageCatalog;
+import com.squashcompany.kits.kits.config.MessageKey;
+import com.squashcompany.kits.kits.metrics.KitsMetrics;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Command /kits stats - Shows runtime metrics of the plugin. Operators only.
+ */
+public class KitsStatsCommand extends AbstractAsyncCommand {
+
+    public KitsStatsCommand() {
+        super("stats", MessageCatalog.get().getDefault().text(MessageKey.COMMAND_STATS_DESCRIPTION));
+        this.setPermissionGroup(GameMode.Creative); // Operators only
+    }
+
+    @NonNullDecl
+    @Override
+    protected CompletableFuture<Void> executeAsync(CommandContext commandContext) {
+        return SenderMessages.of(commandContext).thenAccept(messages -> {
+            commandContext.sendMessage(Message.raw(messages.text(MessageKey.COMMAND_STATS_HEADER)));
+            for (String line : KitsMetrics.get().report(messages)) {
+                commandContext.sendMessage(Message.raw("§7" + line));
+            }
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package com.squashcompany.kits.kits.commands;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.squashcompany.kits.kits.config.MessageCatalog;
+import com.squashcompany.kits.kits.config.Messages;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Resolves the messages a command replies with: the client locale of a
+ * player sender, the server default for the console.
+ */
+final class SenderMessages {
+
+    private SenderMessages() {
+    }
+
+    /**
+     * Messages for the sender of a command. Players' locales are read on
+     * their world thread, which owns the {@link PlayerRef} component, so the
+     * future completes there for players and at once for everyone else.
+     */
+    static CompletableFuture<Messages> of(CommandContext commandContext) {
+        Messages fallback = MessageCatalog.get().getDefault();
+        if (!(commandContext.sender() instanceof Player player)) {
+            return CompletableFuture.completedFuture(fallback);
+        }
+        Ref<EntityStore> ref = player.getReference();
+        if (ref == null || !ref.isValid()) {
+            return CompletableFuture.completedFuture(fallback);
+        }
+        Store<EntityStore> store = ref.getStore();
+        World world = store.getExternalData().getWorld();
+        return CompletableFuture.supplyAsync(() -> {
+            PlayerRef playerRef = ref.isValid() ? store.getComponent(ref, PlayerRef.getComponentType()) : null;
+            return playerRef == null ? fallback : MessageCatalog.get().forLanguage(playerRef.getLanguage());
+        }, world);
+    }
+}
@@ -0,0 +1,56 @@
+package com.squashcompany.kits.kits.config;
+
+import java.util.function.LongFunction;
+
+/**
+ * Lazily filled table of rendered durations, so an open page refreshing
+ * every second reuses the same strings instead of building new ones.
+ *
+ * Durations under an hour are kept per second. Longer ones only show hours
+ * and minutes, so they are kept per minute up to a week; anything longer is
+ * rendered on demand. Entries are immutable strings, so racing fills are
+ * harmless.
+ */
+final class DurationTable {
+
+    private static final int SECOND_SLOTS = 3600;
+    private static final int MINUTE_SLOTS = 7 * 24 * 60;
+
+    private final LongFunction<String> render;
+    private final String[] bySecond = new String[SECOND_SLOTS];
+    private final String[] byMinute = new String[MINUTE_SLOTS];
+
+    /**
+     * @param render Renders a duration in seconds; above an hour the result
+     * must not depend on the seconds within the minute
+     */
+    DurationTable(LongFunction<String> render) {
+        this.render = render;
+    }
+
+    String get(long seconds) {
+        if (seconds < 0) {
+            seconds = 0;
+        }
+        if (seconds < SECOND_SLOTS) {
+            int slot = (int) seconds;
+            String text = bySecond[slot];
+            if (text == null) {
+                text = render.apply(seconds);
+                bySecond[slot] = text;
+            }
+            return text;
+        }
+        long minutes = seconds / 60;
+        if (minutes < MINUTE_SLOTS) {
+            int slot = (int) minutes;
+            String text = byMinute[slot];
+            if (text == null) {
+                text = render.apply(minutes * 60);
+                byMinute[slot] = text;
+            }
+            return text;
+        }
+        return render.apply(seconds);
+    }
+}
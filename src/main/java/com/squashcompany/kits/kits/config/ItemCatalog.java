@@ -0,0 +1,20 @@
+package com.squashcompany.kits.kits.config;
+
+/**
+ * Item ids the server knows, used to reject kits that reference missing
+ * items when they are loaded instead of when they are claimed.
+ */
+@FunctionalInterface
+public interface ItemCatalog {
+
+    /**
+     * Accepts every id; used until the server's item assets are available
+     * and in headless runs.
+     */
+    ItemCatalog ANY = itemId -> true;
+
+    /**
+     * @return true if the id names an item asset
+     */
+    boolean contains(String itemId);
+}
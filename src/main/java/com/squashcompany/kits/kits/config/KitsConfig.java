@@ -1,81 +1,361 @@
 package com.squashcompany.kits.kits.config;
 
+import com.squashcompany.kits.kits.Kits;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 
 /**
  * Configuration for the Kits plugin. Contains kit definitions with items and
- * cooldowns.
+ * cooldowns, loaded from {@code kits.properties} in the plugin data directory
+ * and reloaded automatically when that file changes.
+ *
+ * Kits are published as an immutable {@link Snapshot}. Readers on any thread
+ * get the current snapshot with a single volatile read and look kits up by id
+ * or ordinal in O(1) without allocating. Ordinals are assigned once per kit
+ * id and never reused, so per-player cooldown rows stay valid when the kit
+ * list changes.
  */
 public class KitsConfig {
 
-    private static KitsConfig instance;
+    /**
+     * Item slots on a kit card. Every item and loot entry of a kit is shown,
+     * so kits may list at most this many between them.
+     */
+    public static final int MAX_CARD_ITEMS = 5;
+
+    private static final KitsConfig instance = new KitsConfig();
+
+    // Current kit set, replaced wholesale
+    private volatile Snapshot snapshot;
+
+    // kitId -> ordinal, grows monotonically (guarded by this)
+    private final Map<String, Integer> ordinals = new HashMap<>();
+
+    private static final long RELOAD_DEBOUNCE_MS = 250;
+
+    // kits.properties in the plugin data directory, null until loaded
+    private volatile Path configFile;
+    private Thread watcher;
 
-    // Kit configurations
-    private final List<KitDefinition> kits = new ArrayList<>();
+    // Item ids kits may reference, replaced under this lock
+    private volatile ItemCatalog itemCatalog = ItemCatalog.ANY;
 
     private KitsConfig() {
         loadDefaultKits();
     }
 
     public static KitsConfig get() {
-        if (instance == null) {
-            instance = new KitsConfig();
-        }
         return instance;
     }
 
     /**
-     * Load default kit configurations. These can be modified or loaded from a
-     * config file in the future.
+     * Load the default kit configurations bundled with the plugin.
      */
     private void loadDefaultKits() {
-        // Basic Kit - Available to all players
-        KitDefinition basicKit = new KitDefinition(
-                "basic",
-                "Kit Basico",
-                "Kit inicial com ferramentas de ferro",
-                60 * 5, // 5 minutes cooldown (in seconds)
-                false, // Not VIP
-                "Weapon_Sword_Iron" // Icon item
-        );
-        basicKit.addItem("Weapon_Sword_Iron", 1);
-        basicKit.addItem("Tool_Pickaxe_Iron", 1);
-        basicKit.addItem("Tool_Hatchet_Iron", 1);
-        basicKit.addItem("Plant_Fruit_Apple", 16);
-        basicKit.addItem("Furniture_Crude_Torch", 32);
-        kits.add(basicKit);
-
-        // VIP Kit - Work in Progress
-        KitDefinition vipKit = new KitDefinition(
-                "vip",
-                "Kit VIP",
-                "Kit exclusivo com equipamentos de mithril",
-                60 * 3, // 3 minutes cooldown (in seconds)
-                true, // Is VIP
-                "Weapon_Sword_Mithril" // Icon item
-        );
-        vipKit.addItem("Weapon_Sword_Mithril", 1);
-        vipKit.addItem("Tool_Pickaxe_Mithril", 1);
-        vipKit.addItem("Tool_Hatchet_Mithril", 1);
-        vipKit.addItem("Plant_Fruit_Apple", 64);
-        vipKit.addItem("Furniture_Crude_Torch", 64);
-        kits.add(vipKit);
+        try {
+            publish(KitsConfigLoader.loadDefaults());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Load kits from {@code kits.properties} in the data directory, writing
+     * the bundled defaults there first if the file does not exist. If the file
+     * is invalid the current kits are kept.
+     *
+     * @param dataDirectory The plugin data directory
+     * @return true if the file was loaded
+     */
+    public boolean load(Path dataDirectory) throws IOException {
+        Path file = dataDirectory.resolve(KitsConfigLoader.FILE_NAME);
+        if (!Files.exists(file)) {
+            KitsConfigLoader.writeDefaults(file);
+        }
+        configFile = file;
+        return reload();
+    }
+
+    /**
+     * Parse and validate the config file on the calling thread, then swap the
+     * result in as a new snapshot. Readers see either the old or the new kit
+     * set, never a mix. Reloads and item catalog changes run one at a time,
+     * so a reload parsed against an older catalog is never published after
+     * a newer one.
+     *
+     * @return true if the new kits were published
+     */
+    public synchronized boolean reload() {
+        Path file = configFile;
+        if (file == null) {
+            return false;
+        }
+
+        long start = System.nanoTime();
+        List<KitDefinition> definitions;
+        List<String> disabled = new ArrayList<>();
+        try {
+            definitions = KitsConfigLoader.load(file, itemCatalog, disabled);
+        } catch (IOException | IllegalArgumentException e) {
+            Kits.get().getLogger().at(Level.SEVERE).log("Failed to load " + file + ", keeping current kits: " + e.getMessage());
+            return false;
+        }
+        for (String reason : disabled) {
+            Kits.get().getLogger().at(Level.SEVERE).log("In " + file + ", " + reason);
+        }
+
+        Snapshot previous = snapshot;
+        Snapshot current = publish(definitions);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        int added = 0;
+        int changed = 0;
+        for (KitDefinition kit : current.getKits()) {
+            KitDefinition old = previous.getKit(kit.getId());
+            if (old == null) {
+                added++;
+            } else if (!old.hasSameContent(kit)) {
+                changed++;
+            }
+        }
+        int removed = 0;
+        for (KitDefinition old : previous.getKits()) {
+            if (current.getKit(old.getId()) == null) {
+                removed++;
+            }
+        }
+
+        Kits.get().getLogger().at(Level.INFO).log("Loaded " + current.getKits().size() + " kits in " + elapsedMs
+                + " ms (" + added + " added, " + changed + " changed, " + removed + " removed, "
+                + disabled.size() + " disabled)");
+        return true;
+    }
+
+    /**
+     * Check kit items against the server's item assets from now on, and
+     * reload the config file so kits loaded before the assets were available
+     * are checked too. Kits naming unknown items are reported and disabled;
+     * the rest of the file still loads.
+     *
+     * @param catalog The item ids the server knows
+     */
+    public synchronized void setItemCatalog(ItemCatalog catalog) {
+        itemCatalog = Objects.requireNonNull(catalog);
+        if (!reload()) {
+            // The file is unreadable, so check the kits already live instead
+            disableUnknownItems(catalog);
+        }
+    }
+
+    private synchronized void disableUnknownItems(ItemCatalog catalog) {
+        List<KitDefinition> kept = new ArrayList<>();
+        for (KitDefinition kit : snapshot.getKits()) {
+            String missing = catalog.contains(kit.getIconItem()) ? null : kit.getIconItem();
+            for (KitItem item : kit.getItems()) {
+                if (missing == null && !catalog.contains(item.getItemId())) {
+                    missing = item.getItemId();
+                }
+            }
+            for (LootEntry entry : kit.getLoot()) {
+                if (missing == null && !catalog.contains(entry.getItemId())) {
+                    missing = entry.getItemId();
+                }
+            }
+            if (missing == null) {
+                kept.add(kit);
+            } else {
+                Kits.get().getLogger().at(Level.SEVERE).log("Kit '" + kit.getId() + "' disabled: unknown item '" + missing + "'");
+            }
+        }
+        if (kept.size() < snapshot.getKits().size()) {
+            publish(kept);
+        }
+    }
+
+    /**
+     * Watch the config file and reload it on a background thread whenever it
+     * changes.
+     */
+    public synchronized void startWatching() {
+        if (watcher != null || configFile == null) {
+            return;
+        }
+        watcher = new Thread(this::watchConfigFile, "Kits-ConfigWatcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    public synchronized void stopWatching() {
+        if (watcher != null) {
+            watcher.interrupt();
+            watcher = null;
+        }
+    }
+
+    private void watchConfigFile() {
+        Path file = configFile;
+        try (WatchService service = file.getFileSystem().newWatchService()) {
+            file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = service.take();
+                boolean touched = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (file.getFileName().equals(event.context())) {
+                        touched = true;
+                    }
+                }
+                key.reset();
+
+                if (touched) {
+                    // Editors often write in several steps; let them settle
+                    Thread.sleep(RELOAD_DEBOUNCE_MS);
+                    for (WatchKey pending = service.poll(); pending != null; pending = service.poll()) {
+                        pending.pollEvents();
+                        pending.reset();
+                    }
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stopped
+        } catch (IOException e) {
+            Kits.get().getLogger().at(Level.WARNING).withCause(e).log("Kit config watcher stopped");
+        }
+    }
+
+    /**
+     * Build a snapshot from the given definitions and make it current.
+     * Package-private so benchmarks can publish generated kit sets.
+     *
+     * @throws IllegalArgumentException if two kits share an id
+     */
+    synchronized Snapshot publish(List<KitDefinition> definitions) {
+        Snapshot built = new Snapshot(definitions, ordinals);
+        snapshot = built;
+        return built;
+    }
+
+    /**
+     * The current immutable kit set.
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
     }
 
     public List<KitDefinition> getKits() {
-        return kits;
+        return snapshot.getKits();
     }
 
     public KitDefinition getKit(String id) {
-        return kits.stream()
-                .filter(kit -> kit.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        return snapshot.getKit(id);
+    }
+
+    public KitDefinition getKit(int ordinal) {
+        return snapshot.getKit(ordinal);
     }
 
     /**
-     * Represents a single kit definition.
+     * Immutable, indexed view of every configured kit.
+     */
+    public static final class Snapshot {
+
+        private final List<KitDefinition> kits;
+        private final Map<String, KitDefinition> byId;
+        private final Map<Long, KitDefinition> byKey;
+        private final KitDefinition[] byOrdinal;
+
+        private Snapshot(List<KitDefinition> definitions, Map<String, Integer> ordinals) {
+            // Validate before assigning, so a rejected kit set consumes no ordinals
+            Set<String> seen = new HashSet<>(definitions.size() * 2);
+            for (KitDefinition definition : definitions) {
+                if (!seen.add(definition.getId())) {
+                    throw new IllegalArgumentException("Duplicate kit id: " + definition.getId());
+                }
+            }
+
+            List<KitDefinition> indexed = new ArrayList<>(definitions.size());
+            Map<String, KitDefinition> ids = new HashMap<>(definitions.size() * 2);
+            for (KitDefinition definition : definitions) {
+                Integer ordinal = ordinals.get(definition.getId());
+                if (ordinal == null) {
+                    ordinal = ordinals.size();
+                    ordinals.put(definition.getId(), ordinal);
+                }
+                KitDefinition kit = new KitDefinition(definition, ordinal);
+                ids.put(kit.getId(), kit);
+                indexed.add(kit);
+            }
+
+            KitDefinition[] table = new KitDefinition[ordinals.size()];
+            for (KitDefinition kit : indexed) {
+                table[kit.getOrdinal()] = kit;
+            }
+
+            Map<Long, KitDefinition> keys = new HashMap<>(indexed.size() * 2);
+            for (KitDefinition kit : indexed) {
+                keys.put(kit.getKey(), kit);
+            }
+
+            this.kits = Collections.unmodifiableList(indexed);
+            this.byId = ids;
+            this.byKey = keys;
+            this.byOrdinal = table;
+        }
+
+        /**
+         * Kits in configuration order.
+         */
+        public List<KitDefinition> getKits() {
+            return kits;
+        }
+
+        public KitDefinition getKit(String id) {
+            return byId.get(id);
+        }
+
+        /**
+         * @return The kit with this persistent key, or null if it was removed
+         */
+        public KitDefinition getKitByKey(long key) {
+            return byKey.get(key);
+        }
+
+        /**
+         * @return The kit with this ordinal, or null if it was removed
+         */
+        public KitDefinition getKit(int ordinal) {
+            return ordinal >= 0 && ordinal < byOrdinal.length ? byOrdinal[ordinal] : null;
+        }
+
+        /**
+         * One past the highest ordinal ever assigned; the row length needed to
+         * address every kit.
+         */
+        public int getOrdinalCount() {
+            return byOrdinal.length;
+        }
+    }
+
+    /**
+     * Represents a single kit definition. Immutable.
      */
     public static class KitDefinition {
 
@@ -85,19 +365,48 @@ public class KitsConfig {
         private final int cooldownSeconds;
         private final boolean isVip;
         private final String iconItem;
-        private final List<KitItem> items = new ArrayList<>();
+        private final List<KitItem> items;
+        private final List<LootEntry> loot;
+        private final int lootRolls;
+        private final long key;
+        private final int ordinal;
 
-        public KitDefinition(String id, String displayName, String description, int cooldownSeconds, boolean isVip, String iconItem) {
+        public KitDefinition(String id, String displayName, String description, int cooldownSeconds, boolean isVip,
+                String iconItem, List<KitItem> items) {
+            this(id, displayName, description, cooldownSeconds, isVip, iconItem, items, List.of(), 0);
+        }
+
+        /**
+         * @param loot Weighted entries drawn on every claim, may be empty
+         * @param lootRolls Entries drawn per claim, with repetition
+         */
+        public KitDefinition(String id, String displayName, String description, int cooldownSeconds, boolean isVip,
+                String iconItem, List<KitItem> items, List<LootEntry> loot, int lootRolls) {
             this.id = id;
             this.displayName = displayName;
             this.description = description;
             this.cooldownSeconds = cooldownSeconds;
             this.isVip = isVip;
             this.iconItem = iconItem;
+            this.items = List.copyOf(items);
+            this.loot = List.copyOf(loot);
+            this.lootRolls = loot.isEmpty() ? 0 : lootRolls;
+            this.key = keyOf(id);
+            this.ordinal = -1;
         }
 
-        public void addItem(String itemId, int quantity) {
-            items.add(new KitItem(itemId, quantity));
+        private KitDefinition(KitDefinition source, int ordinal) {
+            this.id = source.id;
+            this.displayName = source.displayName;
+            this.description = source.description;
+            this.cooldownSeconds = source.cooldownSeconds;
+            this.isVip = source.isVip;
+            this.iconItem = source.iconItem;
+            this.items = source.items;
+            this.loot = source.loot;
+            this.lootRolls = source.lootRolls;
+            this.key = source.key;
+            this.ordinal = ordinal;
         }
 
         public String getId() {
@@ -124,13 +433,75 @@ public class KitsConfig {
             return iconItem;
         }
 
+        /**
+         * Unmodifiable list of items given on every claim.
+         */
         public List<KitItem> getItems() {
             return items;
         }
+
+        /**
+         * Unmodifiable list of weighted entries the random part of the kit is
+         * drawn from; empty for fixed kits.
+         */
+        public List<LootEntry> getLoot() {
+            return loot;
+        }
+
+        /**
+         * Different loot entries drawn per claim, 0 for fixed kits.
+         */
+        public int getLootRolls() {
+            return lootRolls;
+        }
+
+        /**
+         * Dense index of this kit, used to address per-player cooldown rows.
+         */
+        public int getOrdinal() {
+            return ordinal;
+        }
+
+        /**
+         * Stable non-zero 64-bit key of the kit id, used to persist cooldowns
+         * independently of ordinals (which may change between restarts).
+         */
+        public long getKey() {
+            return key;
+        }
+
+        /**
+         * Whether both definitions describe the same kit, ignoring ordinals.
+         */
+        public boolean hasSameContent(KitDefinition other) {
+            return id.equals(other.id)
+                    && displayName.equals(other.displayName)
+                    && description.equals(other.description)
+                    && cooldownSeconds == other.cooldownSeconds
+                    && isVip == other.isVip
+                    && iconItem.equals(other.iconItem)
+                    && items.equals(other.items)
+                    && loot.equals(other.loot)
+                    && lootRolls == other.lootRolls;
+        }
+
+        /**
+         * Key of a kit id, as returned by {@link #getKey()}. Usable without
+         * the kit being configured.
+         */
+        public static long keyOf(String id) {
+            // FNV-1a
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < id.length(); i++) {
+                hash ^= id.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return hash == 0 ? 1 : hash;
+        }
     }
 
     /**
-     * Represents an item in a kit.
+     * Represents an item in a kit. Immutable.
      */
     public static class KitItem {
 
@@ -149,5 +520,64 @@ public class KitsConfig {
         public int getQuantity() {
             return quantity;
         }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof KitItem other && quantity == other.quantity && itemId.equals(other.itemId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(itemId, quantity);
+        }
+    }
+
+    /**
+     * A weighted loot table entry: an item and the range its quantity is
+     * drawn from. Immutable.
+     */
+    public static class LootEntry {
+
+        private final String itemId;
+        private final int minQuantity;
+        private final int maxQuantity;
+        private final int weight;
+
+        public LootEntry(String itemId, int minQuantity, int maxQuantity, int weight) {
+            this.itemId = itemId;
+            this.minQuantity = minQuantity;
+            this.maxQuantity = maxQuantity;
+            this.weight = weight;
+        }
+
+        public String getItemId() {
+            return itemId;
+        }
+
+        public int getMinQuantity() {
+            return minQuantity;
+        }
+
+        public int getMaxQuantity() {
+            return maxQuantity;
+        }
+
+        /**
+         * Relative chance of this entry against the others of its kit.
+         */
+        public int getWeight() {
+            return weight;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof LootEntry other && minQuantity == other.minQuantity
+                    && maxQuantity == other.maxQuantity && weight == other.weight && itemId.equals(other.itemId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(itemId, minQuantity, maxQuantity, weight);
+        }
     }
 }
@@ -0,0 +1,256 @@
+package com.squashcompany.kits.kits.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Parses and validates kit definitions from a {@code kits.properties} file.
+ * See the bundled {@code defaults/kits.properties} for the format.
+ */
+final class KitsConfigLoader {
+
+    static final String FILE_NAME = "kits.properties";
+    static final String DEFAULTS_RESOURCE = "/defaults/" + FILE_NAME;
+
+    private static final Pattern KIT_ID = Pattern.compile("[a-z0-9_\\-]+");
+
+    static final int MAX_LOOT_WEIGHT = 1_000_000;
+    // Stacks are prebuilt for every quantity of a range
+    static final int MAX_QUANTITY_RANGE = 256;
+
+    private KitsConfigLoader() {
+    }
+
+    static List<KitsConfig.KitDefinition> load(Path file, ItemCatalog items, List<String> disabled) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Properties properties = new Properties();
+            properties.load(reader);
+            return parse(properties, items, disabled);
+        }
+    }
+
+    static List<KitsConfig.KitDefinition> loadDefaults() throws IOException {
+        try (InputStream in = KitsConfigLoader.class.getResourceAsStream(DEFAULTS_RESOURCE)) {
+            if (in == null) {
+                throw new IOException("Missing bundled " + DEFAULTS_RESOURCE);
+            }
+            Properties properties = new Properties();
+            properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            return parse(properties, ItemCatalog.ANY, new ArrayList<>());
+        }
+    }
+
+    /**
+     * Copy the bundled defaults to {@code file}.
+     */
+    static void writeDefaults(Path file) throws IOException {
+        try (InputStream in = KitsConfigLoader.class.getResourceAsStream(DEFAULTS_RESOURCE)) {
+            if (in == null) {
+                throw new IOException("Missing bundled " + DEFAULTS_RESOURCE);
+            }
+            Files.createDirectories(file.getParent());
+            Files.copy(in, file);
+        }
+    }
+
+    /**
+     * Build kit definitions, collecting every problem before failing.
+     *
+     * Kits naming items the catalog does not know are left out rather than
+     * failing the file, so one missing item does not keep every other change
+     * from loading, and kits loaded before the catalog was available are
+     * taken out once it is.
+     *
+     * @param items Item ids that kits may reference
+     * @param disabled Receives why each left-out kit was disabled
+     * @throws IllegalArgumentException listing every invalid entry
+     */
+    static List<KitsConfig.KitDefinition> parse(Properties properties, ItemCatalog items, List<String> disabled) {
+        List<String> problems = new ArrayList<>();
+        List<KitsConfig.KitDefinition> kits = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+
+        String order = properties.getProperty("kits", "").trim();
+        if (order.isEmpty()) {
+            problems.add("'kits' must list at least one kit id");
+        }
+
+        for (String rawId : order.split(",")) {
+            String id = rawId.trim();
+            if (id.isEmpty()) {
+                continue;
+            }
+            if (!KIT_ID.matcher(id).matches()) {
+                problems.add("kit id '" + id + "' may only contain a-z, 0-9, '_' and '-'");
+                continue;
+            }
+            if (!seen.add(id)) {
+                problems.add("kit id '" + id + "' is listed twice");
+                continue;
+            }
+
+            String prefix = "kit." + id + ".";
+            String name = properties.getProperty(prefix + "name", "").trim();
+            if (name.isEmpty()) {
+                problems.add(prefix + "name is required");
+            }
+            String description = properties.getProperty(prefix + "description", "").trim();
+
+            int cooldown = 0;
+            String cooldownValue = properties.getProperty(prefix + "cooldown", "").trim();
+            try {
+                cooldown = Integer.parseInt(cooldownValue);
+                if (cooldown < 0) {
+                    problems.add(prefix + "cooldown must not be negative");
+                }
+            } catch (NumberFormatException e) {
+                problems.add(prefix + "cooldown must be a number of seconds, got '" + cooldownValue + "'");
+            }
+
+            boolean vip = Boolean.parseBoolean(properties.getProperty(prefix + "vip", "false").trim());
+
+            List<String> unknown = new ArrayList<>();
+            List<KitsConfig.KitItem> kitItems = parseItems(prefix + "items", properties.getProperty(prefix + "items", ""),
+                    items, problems, unknown);
+            List<KitsConfig.LootEntry> loot = parseLoot(prefix + "loot", properties.getProperty(prefix + "loot", ""),
+                    items, problems, unknown);
+            if (kitItems.isEmpty() && loot.isEmpty() && unknown.isEmpty()) {
+                problems.add(prefix + "items or " + prefix + "loot must contain at least one item");
+            } else if (kitItems.size() + loot.size() > KitsConfig.MAX_CARD_ITEMS) {
+                problems.add(prefix + "items and " + prefix + "loot list " + (kitItems.size() + loot.size())
+                        + " entries, but a kit card shows at most " + KitsConfig.MAX_CARD_ITEMS);
+            }
+
+            int rolls = 0;
+            if (!loot.isEmpty()) {
+                String rollsValue = properties.getProperty(prefix + "rolls", "1").trim();
+                try {
+                    rolls = Integer.parseInt(rollsValue);
+                    // Each roll draws a different entry
+                    if (rolls < 1 || rolls > loot.size()) {
+                        problems.add(prefix + "rolls must be between 1 and " + loot.size()
+                                + ", the number of loot entries");
+                    }
+                } catch (NumberFormatException e) {
+                    problems.add(prefix + "rolls must be a number, got '" + rollsValue + "'");
+                }
+            }
+
+            String icon = properties.getProperty(prefix + "icon", "").trim();
+            if (icon.isEmpty() && !kitItems.isEmpty()) {
+                icon = kitItems.get(0).getItemId();
+            } else if (icon.isEmpty() && !loot.isEmpty()) {
+                icon = loot.get(0).getItemId();
+            } else if (!icon.isEmpty() && !items.contains(icon)) {
+                unknown.add(prefix + "icon: unknown item '" + icon + "'");
+            }
+
+            if (!unknown.isEmpty()) {
+                disabled.add("kit '" + id + "' disabled: " + String.join(", ", unknown));
+                continue;
+            }
+            kits.add(new KitsConfig.KitDefinition(id, name, description, cooldown, vip, icon, kitItems, loot, rolls));
+        }
+
+        if (!problems.isEmpty()) {
+            throw new IllegalArgumentException("Invalid " + FILE_NAME + ":\n - " + String.join("\n - ", problems));
+        }
+        return kits;
+    }
+
+    private static List<KitsConfig.KitItem> parseItems(String key, String value, ItemCatalog catalog, List<String> problems,
+            List<String> unknown) {
+        List<KitsConfig.KitItem> items = new ArrayList<>();
+        for (String rawEntry : value.split(",")) {
+            String entry = rawEntry.trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf(':');
+            String itemId = separator < 0 ? entry : entry.substring(0, separator).trim();
+            int quantity = 1;
+            if (separator >= 0) {
+                try {
+                    quantity = Integer.parseInt(entry.substring(separator + 1).trim());
+                } catch (NumberFormatException e) {
+                    problems.add(key + ": bad quantity in '" + entry + "'");
+                    continue;
+                }
+            }
+            if (itemId.isEmpty() || quantity <= 0) {
+                problems.add(key + ": invalid entry '" + entry + "'");
+                continue;
+            }
+            if (!catalog.contains(itemId)) {
+                unknown.add(key + ": unknown item '" + itemId + "'");
+                continue;
+            }
+            items.add(new KitsConfig.KitItem(itemId, quantity));
+        }
+        return items;
+    }
+
+    /**
+     * Parse {@code ItemId:quantity:weight} entries, where quantity is a
+     * number or a {@code min-max} range.
+     */
+    private static List<KitsConfig.LootEntry> parseLoot(String key, String value, ItemCatalog catalog, List<String> problems,
+            List<String> unknown) {
+        List<KitsConfig.LootEntry> loot = new ArrayList<>();
+        for (String rawEntry : value.split(",")) {
+            String entry = rawEntry.trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+            int weightSeparator = entry.lastIndexOf(':');
+            int quantitySeparator = weightSeparator < 0 ? -1 : entry.lastIndexOf(':', weightSeparator - 1);
+            if (quantitySeparator < 0) {
+                problems.add(key + ": expected ItemId:quantity:weight, got '" + entry + "'");
+                continue;
+            }
+            String itemId = entry.substring(0, quantitySeparator).trim();
+            String quantity = entry.substring(quantitySeparator + 1, weightSeparator).trim();
+            int range = quantity.indexOf('-', 1);
+            int minQuantity;
+            int maxQuantity;
+            int weight;
+            try {
+                minQuantity = Integer.parseInt((range < 0 ? quantity : quantity.substring(0, range)).trim());
+                maxQuantity = range < 0 ? minQuantity : Integer.parseInt(quantity.substring(range + 1).trim());
+                weight = Integer.parseInt(entry.substring(weightSeparator + 1).trim());
+            } catch (NumberFormatException e) {
+                problems.add(key + ": bad quantity or weight in '" + entry + "'");
+                continue;
+            }
+            if (itemId.isEmpty() || minQuantity <= 0 || maxQuantity < minQuantity) {
+                problems.add(key + ": invalid entry '" + entry + "'");
+                continue;
+            }
+            if (maxQuantity - minQuantity >= MAX_QUANTITY_RANGE) {
+                problems.add(key + ": quantity range of '" + entry + "' spans more than " + MAX_QUANTITY_RANGE + " values");
+                continue;
+            }
+            if (weight <= 0 || weight > MAX_LOOT_WEIGHT) {
+                problems.add(key + ": weight of '" + entry + "' must be between 1 and " + MAX_LOOT_WEIGHT);
+                continue;
+            }
+            if (!catalog.contains(itemId)) {
+                unknown.add(key + ": unknown item '" + itemId + "'");
+                continue;
+            }
+            loot.add(new KitsConfig.LootEntry(itemId, minQuantity, maxQuantity, weight));
+        }
+        return loot;
+    }
+}
@@ -0,0 +1,158 @@
+package com.squashcompany.kits.kits.config;
+
+import com.squashcompany.kits.kits.Kits;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Catalog of compiled {@link Messages}, one per locale.
+ *
+ * Bundled locales live in {@code lang/<locale>.properties} on the classpath;
+ * files with the same name in the plugin data directory's {@code lang}
+ * folder override their keys or add new locales. Every locale falls back to
+ * {@link #DEFAULT_LOCALE} for keys it does not define. Client languages are
+ * resolved to a locale once and remembered.
+ */
+public final class MessageCatalog {
+
+    public static final String DEFAULT_LOCALE = "pt_BR";
+
+    private static final String[] BUNDLED_LOCALES = {"pt_BR", "en_US"};
+    private static final String RESOURCE_DIR = "/lang/";
+    private static final String FILE_SUFFIX = ".properties";
+
+    private static final MessageCatalog instance = new MessageCatalog();
+
+    // Locales by lower-case tag, replaced wholesale on load
+    private volatile Map<String, Messages> locales;
+    private volatile Messages defaults;
+
+    // Client language -> resolved locale
+    private final Map<String, Messages> resolved = new ConcurrentHashMap<>();
+
+    private MessageCatalog() {
+        try {
+            publish(readLocales(null));
+        } catch (IOException e) {
+            throw new IllegalStateException("Missing bundled messages", e);
+        }
+    }
+
+    public static MessageCatalog get() {
+        return instance;
+    }
+
+    /**
+     * Load the bundled locales plus any overrides from the data directory.
+     *
+     * @param dataDirectory The plugin data directory
+     */
+    public void load(Path dataDirectory) throws IOException {
+        long start = System.nanoTime();
+        Map<String, Messages> loaded = readLocales(dataDirectory.resolve("lang"));
+        publish(loaded);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        Kits.get().getLogger().at(Level.INFO).log("Loaded " + loaded.size() + " message locales in " + elapsedMs + " ms");
+    }
+
+    private void publish(Map<String, Messages> loaded) {
+        locales = loaded;
+        defaults = loaded.get(DEFAULT_LOCALE.toLowerCase(Locale.ROOT));
+        resolved.clear();
+    }
+
+    /**
+     * Messages of the default locale, for text not tied to a player.
+     */
+    public Messages getDefault() {
+        return defaults;
+    }
+
+    /**
+     * Messages for a client language such as {@code en-US} or {@code pt_BR}.
+     * Falls back to another region of the same language, then to the
+     * default locale.
+     *
+     * @param language The client language, may be null
+     */
+    public Messages forLanguage(String language) {
+        if (language == null || language.isEmpty()) {
+            return defaults;
+        }
+        return resolved.computeIfAbsent(language, this::resolve);
+    }
+
+    private Messages resolve(String language) {
+        String tag = language.replace('-', '_').toLowerCase(Locale.ROOT);
+        Map<String, Messages> current = locales;
+        Messages exact = current.get(tag);
+        if (exact != null) {
+            return exact;
+        }
+        int separator = tag.indexOf('_');
+        String base = separator > 0 ? tag.substring(0, separator) : tag;
+        for (Map.Entry<String, Messages> entry : current.entrySet()) {
+            if (entry.getKey().equals(base) || entry.getKey().startsWith(base + "_")) {
+                return entry.getValue();
+            }
+        }
+        return defaults;
+    }
+
+    private static Map<String, Messages> readLocales(Path overrideDir) throws IOException {
+        Map<String, Properties> sources = new HashMap<>();
+        for (String locale : BUNDLED_LOCALES) {
+            sources.put(locale, readBundled(locale));
+        }
+
+        if (overrideDir != null && Files.isDirectory(overrideDir)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(overrideDir, "*" + FILE_SUFFIX)) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    String locale = name.substring(0, name.length() - FILE_SUFFIX.length());
+                    Properties overrides = new Properties();
+                    try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                        overrides.load(reader);
+                    }
+                    sources.computeIfAbsent(locale, key -> new Properties()).putAll(overrides);
+                }
+            }
+        }
+
+        // Every locale starts from the default locale's messages
+        Properties fallback = sources.get(DEFAULT_LOCALE);
+        Map<String, Messages> compiled = new HashMap<>();
+        for (Map.Entry<String, Properties> entry : sources.entrySet()) {
+            Properties merged = new Properties();
+            merged.putAll(fallback);
+            merged.putAll(entry.getValue());
+            compiled.put(entry.getKey().toLowerCase(Locale.ROOT), new Messages(entry.getKey(), merged));
+        }
+        return compiled;
+    }
+
+    private static Properties readBundled(String locale) throws IOException {
+        String resource = RESOURCE_DIR + locale + FILE_SUFFIX;
+        try (InputStream in = MessageCatalog.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Missing bundled " + resource);
+            }
+            Properties properties = new Properties();
+            properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            return properties;
+        }
+    }
+}
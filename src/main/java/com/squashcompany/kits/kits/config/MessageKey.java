@@ -0,0 +1,94 @@
+package com.squashcompany.kits.kits.config;
+
+/**
+ * Keys of the user-facing messages in {@code lang/<locale>.properties}.
+ */
+public enum MessageKey {
+
+    PAGE_TITLE("page.title"),
+    PAGE_HEADER_LINE1("page.header.line1"),
+    PAGE_HEADER_LINE2("page.header.line2"),
+    PAGE_SECTION_ITEMS("page.section.items"),
+    PAGE_SECTION_ITEMS_VIP("page.section.items_vip"),
+    PAGE_COOLDOWN_CAPTION("page.cooldown.caption"),
+    PAGE_STATUS_AVAILABLE("page.status.available"),
+    PAGE_STATUS_COOLDOWN("page.status.cooldown"),
+    PAGE_BUTTON_CLAIM("page.button.claim"),
+    PAGE_BUTTON_CLAIM_VIP("page.button.claim_vip"),
+    PAGE_BUTTON_PREVIOUS("page.button.previous"),
+    PAGE_BUTTON_NEXT("page.button.next"),
+    PAGE_BUTTON_CLOSE("page.button.close"),
+    PAGE_POPUP_TITLE("page.popup.title"),
+    PAGE_POPUP_MESSAGE("page.popup.message"),
+    CHAT_KIT_NOT_FOUND("chat.kit_not_found"),
+    CHAT_COOLDOWN("chat.cooldown"),
+    CHAT_RECEIVED("chat.received"),
+    CHAT_RECEIVED_VIP("chat.received_vip"),
+    CHAT_PARTIAL("chat.partial"),
+    CHAT_INVENTORY_FULL("chat.inventory_full"),
+    CHAT_UNAVAILABLE("chat.unavailable"),
+    COMMAND_DESCRIPTION("command.description"),
+    COMMAND_PLAYERS_ONLY("command.players_only"),
+    COMMAND_NO_WORLD("command.no_world"),
+    COMMAND_NO_PLAYER("command.no_player"),
+    COMMAND_RESET_DESCRIPTION("command.reset.description"),
+    COMMAND_RESET_ARGUMENT("command.reset.argument"),
+    COMMAND_RESET_KIT("command.reset.kit"),
+    COMMAND_RESET_ALL("command.reset.all"),
+    COMMAND_RESET_UNKNOWN("command.reset.unknown"),
+    COMMAND_RESET_SHARED("command.reset.shared"),
+    COMMAND_STATS_DESCRIPTION("command.stats.description"),
+    COMMAND_STATS_HEADER("command.stats.header"),
+    STATS_CLAIMS("stats.claims"),
+    STATS_CLAIMS_BY_KIT("stats.claims_by_kit"),
+    STATS_CLAIMS_BY_KIT_NONE("stats.claims_by_kit.none"),
+    STATS_CLAIM_LATENCY("stats.claim_latency"),
+    STATS_PAGE_OPENS("stats.page_opens"),
+    STATS_PAGE_OPEN_LATENCY("stats.page_open_latency"),
+    STATS_UPDATES("stats.updates"),
+    STATS_EVENTS_THROTTLED("stats.events_throttled"),
+    STATS_TICK_DURATION("stats.tick_duration"),
+    STATS_TICK_LAG("stats.tick_lag"),
+    STATS_TICKER("stats.ticker"),
+    STATS_LATENCY("stats.latency"),
+    STATS_NO_SAMPLES("stats.no_samples"),
+    STATS_OPEN_PAGES("stats.open_pages"),
+    STATS_CACHED_PAGES("stats.cached_pages"),
+    STATS_TRACKED_PLAYERS("stats.tracked_players"),
+    STATS_PENDING_EXPIRATIONS("stats.pending_expirations"),
+    STATS_EVICTED_COOLDOWNS("stats.evicted_cooldowns"),
+    STATS_LAST_SWEEP_EVICTIONS("stats.last_sweep_evictions"),
+    STATS_PLAYER_LOADS("stats.player_loads"),
+    STATS_PLAYER_UNLOADS("stats.player_unloads"),
+    STATS_SHARD_WRITES("stats.shard_writes"),
+    STATS_PENDING_SHARED_WRITES("stats.pending_shared_writes"),
+    STATS_SHARED_CONFLICTS("stats.shared_conflicts"),
+    STATS_FAILED_SHARED_WRITES("stats.failed_shared_writes"),
+    STATS_AUDITED_CLAIMS("stats.audited_claims"),
+    STATS_DROPPED_AUDIT_EVENTS("stats.dropped_audit_events"),
+    DURATION_READY("duration.ready"),
+    DURATION_SECONDS("duration.seconds"),
+    DURATION_MINUTES("duration.minutes"),
+    DURATION_MINUTES_SECONDS("duration.minutes_seconds"),
+    DURATION_HOURS("duration.hours"),
+    DURATION_HOURS_MINUTES("duration.hours_minutes"),
+    PERIOD_SECOND("period.second"),
+    PERIOD_SECONDS("period.seconds"),
+    PERIOD_MINUTE("period.minute"),
+    PERIOD_MINUTES("period.minutes"),
+    PERIOD_HOUR("period.hour"),
+    PERIOD_HOURS("period.hours");
+
+    private final String property;
+
+    MessageKey(String property) {
+        this.property = property;
+    }
+
+    /**
+     * Property name of the message in the locale files.
+     */
+    public String getProperty() {
+        return property;
+    }
+}
@@ -0,0 +1,73 @@
+package com.squashcompany.kits.kits.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message split once into literal text and {@code {n}} placeholders.
+ */
+final class MessageTemplate {
+
+    private final String[] literals;
+    // Argument index after each literal, -1 after the last one
+    private final int[] arguments;
+    private final String constant;
+
+    private MessageTemplate(String[] literals, int[] arguments) {
+        this.literals = literals;
+        this.arguments = arguments;
+        this.constant = literals.length == 1 ? literals[0] : null;
+    }
+
+    static MessageTemplate compile(String text) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> arguments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            int close = c == '{' ? text.indexOf('}', i) : -1;
+            if (close > i + 1 && isIndex(text, i + 1, close)) {
+                literals.add(literal.toString());
+                arguments.add(Integer.parseInt(text, i + 1, close, 10));
+                literal.setLength(0);
+                i = close + 1;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        literals.add(literal.toString());
+        arguments.add(-1);
+
+        int[] argumentArray = new int[arguments.size()];
+        for (int j = 0; j < argumentArray.length; j++) {
+            argumentArray[j] = arguments.get(j);
+        }
+        return new MessageTemplate(literals.toArray(new String[0]), argumentArray);
+    }
+
+    private static boolean isIndex(String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isDigit(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    String format(Object... args) {
+        if (constant != null) {
+            return constant;
+        }
+        StringBuilder out = new StringBuilder(64);
+        for (int i = 0; i < literals.length; i++) {
+            out.append(literals[i]);
+            int argument = arguments[i];
+            if (argument >= 0) {
+                out.append(argument < args.length ? args[argument] : "");
+            }
+        }
+        return out.toString();
+    }
+}
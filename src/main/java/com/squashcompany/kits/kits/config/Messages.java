@@ -0,0 +1,105 @@
+package com.squashcompany.kits.kits.config;
+
+import java.util.Properties;
+
+/**
+ * User-facing messages of one locale, compiled from its properties file.
+ *
+ * Templates are parsed once and the remaining-time strings shown on open
+ * pages come from {@link DurationTable}s, so a page refresh allocates no new
+ * strings. Instances are immutable and shared by every player using the
+ * locale.
+ */
+public final class Messages {
+
+    private static final MessageKey[] KEYS = MessageKey.values();
+
+    private final String locale;
+    private final MessageTemplate[] templates = new MessageTemplate[KEYS.length];
+    private final DurationTable durations = new DurationTable(this::renderDuration);
+    private final DurationTable cooldownStatuses = new DurationTable(
+            seconds -> format(MessageKey.PAGE_STATUS_COOLDOWN, durations.get(seconds)));
+
+    /**
+     * @param properties Messages of the locale, already merged over the
+     * default locale
+     */
+    Messages(String locale, Properties properties) {
+        this.locale = locale;
+        for (MessageKey key : KEYS) {
+            templates[key.ordinal()] = MessageTemplate.compile(properties.getProperty(key.getProperty(), key.getProperty()));
+        }
+    }
+
+    /**
+     * Locale tag, e.g. {@code pt_BR}.
+     */
+    public String getLocale() {
+        return locale;
+    }
+
+    /**
+     * Get a message that takes no arguments.
+     */
+    public String text(MessageKey key) {
+        return templates[key.ordinal()].format();
+    }
+
+    /**
+     * Get a message with its {@code {n}} placeholders filled in.
+     */
+    public String format(MessageKey key, Object... args) {
+        return templates[key.ordinal()].format(args);
+    }
+
+    /**
+     * Short remaining time (e.g. "5m 30s"), cached.
+     */
+    public String duration(long seconds) {
+        return durations.get(seconds);
+    }
+
+    /**
+     * Cooldown status line (e.g. "COOLDOWN: 5m 30s"), cached.
+     */
+    public String cooldownStatus(long seconds) {
+        return cooldownStatuses.get(seconds);
+    }
+
+    /**
+     * Long form of a kit's wait time (e.g. "5 minutos").
+     */
+    public String period(int seconds) {
+        if (seconds < 60) {
+            return format(seconds != 1 ? MessageKey.PERIOD_SECONDS : MessageKey.PERIOD_SECOND, seconds);
+        } else if (seconds < 3600) {
+            int minutes = seconds / 60;
+            return format(minutes != 1 ? MessageKey.PERIOD_MINUTES : MessageKey.PERIOD_MINUTE, minutes);
+        } else {
+            int hours = seconds / 3600;
+            return format(hours != 1 ? MessageKey.PERIOD_HOURS : MessageKey.PERIOD_HOUR, hours);
+        }
+    }
+
+    private String renderDuration(long seconds) {
+        if (seconds <= 0) {
+            return text(MessageKey.DURATION_READY);
+        } else if (seconds < 60) {
+            return format(MessageKey.DURATION_SECONDS, seconds);
+        } else if (seconds < 3600) {
+            long minutes = seconds / 60;
+            long secs = seconds % 60;
+            if (secs == 0) {
+                return format(MessageKey.DURATION_MINUTES, minutes);
+            }
+            return format(MessageKey.DURATION_MINUTES_SECONDS, minutes, secs);
+        } else {
+            long hours = seconds / 3600;
+            long minutes = (seconds % 3600) / 60;
+            if (minutes == 0) {
+                return format(MessageKey.DURATION_HOURS, hours);
+            }
+            return format(MessageKey.DURATION_HOURS_MINUTES, hours, minutes);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.squashcompany.kits.kits.config;
+
+import com.squashcompany.kits.kits.Kits;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.logging.Level;
+
+/**
+ * Plugin-wide settings from {@code settings.properties} in the plugin data
+ * directory, read once at startup. See the bundled
+ * {@code defaults/settings.properties} for every key.
+ *
+ * Missing or invalid values fall back to the bundled defaults, so getters
+ * always return usable values.
+ */
+public final class PluginSettings {
+
+    static final String FILE_NAME = "settings.properties";
+    static final String DEFAULTS_RESOURCE = "/defaults/" + FILE_NAME;
+
+    private static final PluginSettings instance = new PluginSettings();
+
+    private final Properties defaults = new Properties();
+    private volatile Properties values;
+
+    private PluginSettings() {
+        try (InputStream in = PluginSettings.class.getResourceAsStream(DEFAULTS_RESOURCE)) {
+            if (in == null) {
+                throw new IOException("Missing bundled " + DEFAULTS_RESOURCE);
+            }
+            defaults.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read bundled settings", e);
+        }
+        values = defaults;
+    }
+
+    public static PluginSettings get() {
+        return instance;
+    }
+
+    /**
+     * Read settings from the data directory, writing the bundled defaults
+     * there first if the file does not exist yet.
+     *
+     * @param dataDirectory The plugin data directory
+     */
+    public void load(Path dataDirectory) throws IOException {
+        Path file = dataDirectory.resolve(FILE_NAME);
+        if (!Files.exists(file)) {
+            try (InputStream in = PluginSettings.class.getResourceAsStream(DEFAULTS_RESOURCE)) {
+                Files.createDirectories(dataDirectory);
+                Files.copy(in, file);
+            }
+        }
+        Properties loaded = new Properties(defaults);
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            loaded.load(reader);
+        }
+        values = loaded;
+    }
+
+    /**
+     * Seconds between metric dumps to the log, 0 when disabled.
+     */
+    public int getMetricsLogInterval() {
+        return getInt("metrics.log_interval", 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Players whose cooldowns are kept in memory, the rest staying in shard
+     * files until they come back. 0 keeps every player in memory.
+     */
+    public int getStorageResidentPlayers() {
+        return getInt("storage.resident_players", 0, 10_000_000);
+    }
+
+    /**
+     * Name of the cooldown transport shared by the servers of a network,
+     * empty when cooldowns are kept by this server alone.
+     */
+    public String getStorageSharedTransport() {
+        String raw = values.getProperty("storage.shared_transport");
+        return raw == null ? "" : raw.trim();
+    }
+
+    /**
+     * Address of the shared cooldown service for the built-in {@code tcp}
+     * transport.
+     */
+    public InetSocketAddress getStorageSharedAddress() {
+        String raw = values.getProperty("storage.shared_address");
+        InetSocketAddress address = parseAddress(raw);
+        if (address != null) {
+            return address;
+        }
+        InetSocketAddress fallback = parseAddress(defaults.getProperty("storage.shared_address"));
+        Kits.get().getLogger().at(Level.WARNING).log("Invalid setting storage.shared_address=" + raw + ", using " + fallback);
+        return fallback;
+    }
+
+    /**
+     * Whether this server runs the shared cooldown service of the built-in
+     * {@code tcp} transport.
+     */
+    public boolean isStorageSharedHost() {
+        return Boolean.parseBoolean(values.getProperty("storage.shared_host", "false").trim());
+    }
+
+    /**
+     * Claim audit files kept before the oldest are deleted, 0 when the audit
+     * log is disabled.
+     */
+    public int getAuditMaxFiles() {
+        return getInt("audit.max_files", 0, 100_000);
+    }
+
+    /**
+     * Kits page events (claims and page changes) a player may send per
+     * second on average.
+     */
+    public int getThrottleEventsPerSecond() {
+        return getInt("throttle.events_per_second", 1, 1000);
+    }
+
+    /**
+     * Kits page events a player may send at once before the average rate
+     * applies.
+     */
+    public int getThrottleBurst() {
+        return getInt("throttle.burst", 1, 1000);
+    }
+
+    /**
+     * Milliseconds a cooldown tick may take before the refresher counts as
+     * overloaded.
+     */
+    public int getRefreshTickBudgetMillis() {
+        return getInt("refresh.tick_budget_ms", 10, 1000);
+    }
+
+    /**
+     * Milliseconds a cooldown tick may start late before the refresher counts
+     * as overloaded.
+     */
+    public int getRefreshLagThresholdMillis() {
+        return getInt("refresh.lag_threshold_ms", 10, 10_000);
+    }
+
+    /**
+     * Open pages from which long cooldowns are refreshed less often, however
+     * fast ticks are.
+     */
+    public int getRefreshReducedPages() {
+        return getInt("refresh.reduced_pages", 1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Seconds between refreshes of cooldowns longer than a minute while the
+     * refresher is degraded.
+     */
+    public int getRefreshLongCooldownInterval() {
+        return getInt("refresh.long_cooldown_interval", 2, 60);
+    }
+
+    /**
+     * Most pages refreshed per tick while shedding load.
+     */
+    public int getRefreshMaxPagesPerTick() {
+        return getInt("refresh.max_pages_per_tick", 1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Consecutive calm ticks before the refresher steps back up one mode.
+     */
+    public int getRefreshRecoveryTicks() {
+        return getInt("refresh.recovery_ticks", 1, 3600);
+    }
+
+    private static InetSocketAddress parseAddress(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        int colon = raw.trim().lastIndexOf(':');
+        try {
+            int port = Integer.parseInt(raw.trim().substring(colon + 1));
+            if (colon > 0 && port > 0 && port <= 65535) {
+                return new InetSocketAddress(raw.trim().substring(0, colon), port);
+            }
+        } catch (NumberFormatException e) {
+            // Fall through to the default
+        }
+        return null;
+    }
+
+    int getInt(String key, int min, int max) {
+        String raw = values.getProperty(key);
+        try {
+            int value = Integer.parseInt(raw.trim());
+            if (value >= min && value <= max) {
+                return value;
+            }
+        } catch (NullPointerException | NumberFormatException e) {
+            // Fall through to the default
+        }
+        int fallback = Integer.parseInt(defaults.getProperty(key).trim());
+        Kits.get().getLogger().at(Level.WARNING).log("Invalid setting " + key + "=" + raw + ", using " + fallback);
+        return fallback;
+    }
+}
@@ -0,0 +1,278 @@
+package com.squashcompany.kits.kits.manager;
+
+import com.squashcompany.kits.kits.Kits;
+import com.squashcompany.kits.kits.util.RecordRing;
+
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Evicts expired cooldowns from a {@link CooldownStore} using a hierarchical
+ * timing wheel.
+ *
+ * Four levels of 64 slots cover 1 s, 64 s, ~68 min and ~3 days per slot, so
+ * any cooldown up to ~194 days is placed in O(1); longer ones wait in an
+ * overflow bucket that is re-placed whenever the top level turns. Entries
+ * cascade to finer levels as their slot comes due and are checked against
+ * the store when they fire: entries that were cleared or re-claimed since
+ * they were scheduled are dropped, and rows left empty are removed.
+ *
+ * Callers schedule through a non-blocking ring; only the sweeper thread
+ * touches the wheel itself.
+ */
+final class CooldownExpiry {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    // Entry fields: player msb, player lsb, last-used timestamp, ordinal
+    private static final int ENTRY_WIDTH = 4;
+    private static final int RING_CAPACITY = 1 << 14;
+
+    private final CooldownStore store;
+    private final CooldownLookup cooldowns;
+    private final RecordRing incoming = new RecordRing(RING_CAPACITY, ENTRY_WIDTH);
+    private final RecordRing.Handler incomingHandler = this::acceptIncoming;
+
+    // Sweeper-thread state
+    private final Bucket[][] wheel = new Bucket[LEVELS][SLOTS];
+    private final Bucket overflow = new Bucket();
+    private long currentSecond;
+    private int sweepEvicted;
+
+    private volatile boolean rescanRequested;
+    private volatile int lastSweepEvicted;
+    private volatile long totalEvicted;
+    private volatile int pending;
+
+    private ScheduledExecutorService sweeper;
+
+    CooldownExpiry(CooldownStore store, CooldownLookup cooldowns) {
+        this.store = store;
+        this.cooldowns = cooldowns;
+        for (Bucket[] level : wheel) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = new Bucket();
+            }
+        }
+    }
+
+    /**
+     * Start sweeping once per second.
+     */
+    void start() {
+        currentSecond = System.currentTimeMillis() / 1000;
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Kits-CooldownExpiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(() -> {
+            try {
+                sweep(System.currentTimeMillis() / 1000);
+            } catch (RuntimeException e) {
+                Kits.get().getLogger().at(Level.WARNING).withCause(e).log("Cooldown expiry sweep failed");
+            }
+        }, 1, 1, TimeUnit.SECONDS);
+    }
+
+    void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /**
+     * Schedule a cooldown for eviction. Never blocks; if the ring is full the
+     * sweeper rescans the whole store on its next run instead.
+     */
+    void schedule(long msb, long lsb, int ordinal, long lastUsed) {
+        long sequence = incoming.tryClaim();
+        if (sequence < 0) {
+            rescanRequested = true;
+            return;
+        }
+        long[] data = incoming.data();
+        int offset = incoming.offset(sequence);
+        data[offset] = msb;
+        data[offset + 1] = lsb;
+        data[offset + 2] = lastUsed;
+        data[offset + 3] = ordinal;
+        incoming.publish(sequence);
+    }
+
+    /**
+     * Entries evicted by the most recent sweep.
+     */
+    int getLastSweepEvicted() {
+        return lastSweepEvicted;
+    }
+
+    long getTotalEvicted() {
+        return totalEvicted;
+    }
+
+    /**
+     * Entries currently waiting in the wheel, as of the last sweep.
+     */
+    int getPending() {
+        return pending;
+    }
+
+    /**
+     * Advance the wheel to {@code now}, firing every entry that came due.
+     */
+    void sweep(long now) {
+        sweepEvicted = 0;
+
+        if (rescanRequested) {
+            rescanRequested = false;
+            store.forEach((msb, lsb, ordinal, lastUsed) -> place(msb, lsb, lastUsed, ordinal));
+        }
+        while (incoming.drain(incomingHandler, RING_CAPACITY) > 0) {
+            // Keep draining until producers stop outrunning us
+        }
+
+        while (currentSecond < now) {
+            currentSecond++;
+            long tick = currentSecond;
+
+            // Cascade coarser levels into finer ones, top level first
+            if ((tick & SLOT_MASK) == 0) {
+                int topLevel = 1;
+                while (topLevel < LEVELS - 1 && (tick & ((1L << (SLOT_BITS * (topLevel + 1))) - 1)) == 0) {
+                    topLevel++;
+                }
+                if (topLevel == LEVELS - 1 && (tick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0) {
+                    replace(overflow);
+                }
+                for (int level = topLevel; level >= 1; level--) {
+                    replace(wheel[level][(int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK]);
+                }
+            }
+
+            Bucket due = wheel[0][(int) tick & SLOT_MASK];
+            for (int i = 0; i < due.size; i++) {
+                int offset = i * ENTRY_WIDTH;
+                fire(due.data[offset], due.data[offset + 1], due.data[offset + 2], (int) due.data[offset + 3]);
+            }
+            due.clear();
+        }
+
+        lastSweepEvicted = sweepEvicted;
+        totalEvicted += sweepEvicted;
+        pending = countPending();
+    }
+
+    private void acceptIncoming(long[] data, int offset) {
+        place(data[offset], data[offset + 1], data[offset + 2], (int) data[offset + 3]);
+    }
+
+    private void replace(Bucket bucket) {
+        // Entries only ever move to finer levels, never back into this bucket
+        int size = bucket.size;
+        long[] data = bucket.data;
+        bucket.size = 0;
+        for (int i = 0; i < size; i++) {
+            int offset = i * ENTRY_WIDTH;
+            place(data[offset], data[offset + 1], data[offset + 2], (int) data[offset + 3]);
+        }
+        if (bucket.data == data) {
+            bucket.shrink();
+        }
+    }
+
+    private void place(long msb, long lsb, long lastUsed, int ordinal) {
+        long cooldown = cooldowns.cooldownSeconds(ordinal);
+        long expiresAt = cooldown < 0 ? currentSecond : lastUsed + cooldown;
+        if (expiresAt <= currentSecond) {
+            fire(msb, lsb, lastUsed, ordinal);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            if ((expiresAt >>> shift) - (currentSecond >>> shift) < SLOTS) {
+                wheel[level][(int) (expiresAt >>> shift) & SLOT_MASK].add(msb, lsb, lastUsed, ordinal);
+                return;
+            }
+        }
+        overflow.add(msb, lsb, lastUsed, ordinal);
+    }
+
+    private void fire(long msb, long lsb, long lastUsed, int ordinal) {
+        if (store.get(msb, lsb, ordinal) != lastUsed) {
+            return; // Cleared or claimed again; a newer entry covers it
+        }
+        long cooldown = cooldowns.cooldownSeconds(ordinal);
+        if (cooldown >= 0 && lastUsed + cooldown > currentSecond) {
+            place(msb, lsb, lastUsed, ordinal); // Cooldown was lengthened
+            return;
+        }
+        if (store.evict(msb, lsb, ordinal, lastUsed)) {
+            sweepEvicted++;
+        }
+    }
+
+    private int countPending() {
+        int count = overflow.size;
+        for (Bucket[] level : wheel) {
+            for (Bucket bucket : level) {
+                count += bucket.size;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Resolves the current cooldown of a kit ordinal.
+     */
+    @FunctionalInterface
+    interface CooldownLookup {
+
+        /**
+         * @return Cooldown in seconds, or -1 if the kit no longer exists
+         */
+        long cooldownSeconds(int ordinal);
+    }
+
+    /**
+     * Growable flat array of entries.
+     */
+    private static final class Bucket {
+
+        private static final int INITIAL_ENTRIES = 4;
+        private static final int RETAINED_ENTRIES = 256;
+
+        long[] data = new long[INITIAL_ENTRIES * ENTRY_WIDTH];
+        int size;
+
+        void add(long msb, long lsb, long lastUsed, int ordinal) {
+            int offset = size * ENTRY_WIDTH;
+            if (offset == data.length) {
+                data = Arrays.copyOf(data, data.length << 1);
+            }
+            data[offset] = msb;
+            data[offset + 1] = lsb;
+            data[offset + 2] = lastUsed;
+            data[offset + 3] = ordinal;
+            size++;
+        }
+
+        void clear() {
+            size = 0;
+            shrink();
+        }
+
+        void shrink() {
+            // Release capacity left behind by a burst
+            if (size == 0 && data.length > RETAINED_ENTRIES * ENTRY_WIDTH) {
+                data = new long[INITIAL_ENTRIES * ENTRY_WIDTH];
+            }
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.squashcompany.kits.kits.manager;
+
+import com.squashcompany.kits.kits.Kits;
+import com.squashcompany.kits.kits.util.RecordRing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Crash-safe persistence for kit cooldowns.
+ *
+ * Every cooldown change is appended as a fixed-size record to a memory-mapped
+ * journal. Callers only publish into a preallocated ring; a single background
+ * thread copies records into the mapping, forces it to disk once per second
+ * and periodically compacts live entries into a snapshot file, after which
+ * the journal starts over under a new generation.
+ *
+ * Record layout (40 bytes): player msb, player lsb, kit key, value, checksum.
+ * A value of 0 clears the kit; a kit key of 0 with a value of 0 clears every
+ * kit of the player. Records for the nil player (msb and lsb 0) are resets:
+ * the value is the reset time of the kit, or of every kit for a kit key of 0.
+ * The checksum mixes in the journal generation, so records
+ * left over from a previous generation (or torn by a crash) end the replay.
+ */
+final class CooldownJournal implements AutoCloseable {
+
+    private static final int JOURNAL_MAGIC = 0x4B4A4E4C; // "KJNL"
+    private static final int SNAPSHOT_MAGIC = 0x4B534E50; // "KSNP"
+    private static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_BYTES = 40;
+    private static final int SNAPSHOT_ENTRY_BYTES = 32;
+    private static final int JOURNAL_BYTES = HEADER_BYTES + RECORD_BYTES * (1 << 17);
+
+    private static final int RING_CAPACITY = 1 << 14;
+    private static final int DRAIN_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long FORCE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long COMPACT_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final Path journalFile;
+    private final Path snapshotFile;
+    private final LiveEntries liveEntries;
+    private final RecordRing ring = new RecordRing(RING_CAPACITY, 4);
+    private final RecordRing.Handler recordWriter = this::writeRecord;
+
+    // Writer-thread state
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private long generation;
+    private int position;
+    private boolean dirty;
+    private long lastForce;
+    private long lastCompaction;
+
+    private volatile boolean overflowed;
+    private volatile boolean running;
+    private Thread writer;
+
+    // Recovery report
+    private int snapshotEntries;
+    private int journalEntries;
+
+    CooldownJournal(Path directory, LiveEntries liveEntries) {
+        this.journalFile = directory.resolve("cooldowns.journal");
+        this.snapshotFile = directory.resolve("cooldowns.snapshot");
+        this.liveEntries = liveEntries;
+    }
+
+    /**
+     * Rebuild state from the last snapshot and the journal tail, then map the
+     * journal for appending. Must be called once, before {@link #start()}.
+     *
+     * @param sink Receives every recovered entry in order
+     */
+    void recover(EntrySink sink) throws IOException {
+        Files.createDirectories(journalFile.getParent());
+        long snapshotGeneration = readSnapshot(sink);
+
+        channel = FileChannel.open(journalFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, JOURNAL_BYTES);
+
+        boolean validHeader = mapped.getInt(0) == JOURNAL_MAGIC && mapped.getInt(4) == VERSION;
+        long journalGeneration = validHeader ? mapped.getLong(8) : 0;
+        position = HEADER_BYTES;
+
+        if (validHeader && journalGeneration >= snapshotGeneration) {
+            // Journal is newer than the snapshot: replay its valid prefix
+            generation = journalGeneration;
+            while (position + RECORD_BYTES <= JOURNAL_BYTES) {
+                long msb = mapped.getLong(position);
+                long lsb = mapped.getLong(position + 8);
+                long kitKey = mapped.getLong(position + 16);
+                long value = mapped.getLong(position + 24);
+                if (mapped.getLong(position + 32) != checksum(msb, lsb, kitKey, value, generation)) {
+                    break;
+                }
+                sink.accept(msb, lsb, kitKey, value);
+                journalEntries++;
+                position += RECORD_BYTES;
+            }
+        } else {
+            // Snapshot already covers everything this journal held
+            generation = Math.max(snapshotGeneration, journalGeneration) + 1;
+            writeHeader();
+        }
+    }
+
+    /**
+     * Start the background writer.
+     */
+    void start() {
+        long now = System.nanoTime();
+        lastForce = now;
+        lastCompaction = now;
+        running = true;
+        writer = new Thread(this::runWriter, "Kits-CooldownJournal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queue a record for the journal. Never blocks; if the ring is full the
+     * record is dropped and the writer takes a fresh snapshot instead, which
+     * captures the in-memory state the record described.
+     */
+    void append(long msb, long lsb, long kitKey, long value) {
+        long sequence = ring.tryClaim();
+        if (sequence < 0) {
+            overflowed = true;
+            return;
+        }
+        long[] data = ring.data();
+        int offset = ring.offset(sequence);
+        data[offset] = msb;
+        data[offset + 1] = lsb;
+        data[offset + 2] = kitKey;
+        data[offset + 3] = value;
+        ring.publish(sequence);
+    }
+
+    int getSnapshotEntries() {
+        return snapshotEntries;
+    }
+
+    int getJournalEntries() {
+        return journalEntries;
+    }
+
+    /**
+     * Stop the writer after draining everything queued so far, and compact.
+     * If the writer does not stop in time it still owns the journal, so the
+     * journal is left as it is: compacting would race its appends, and the
+     * next start replays the records instead.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (writer.isAlive()) {
+                Kits.get().getLogger().at(Level.WARNING).log("Cooldown journal writer did not stop with "
+                        + ring.size() + " records queued; skipping compaction");
+                return;
+            }
+        }
+        if (channel != null) {
+            compact();
+            channel.close();
+        }
+    }
+
+    private void runWriter() {
+        while (running || ring.size() > 0) {
+            try {
+                int drained = ring.drain(recordWriter, DRAIN_BATCH);
+                long now = System.nanoTime();
+
+                if (overflowed || (position > HEADER_BYTES && now - lastCompaction >= COMPACT_INTERVAL_NANOS)) {
+                    compact();
+                } else if (dirty && now - lastForce >= FORCE_INTERVAL_NANOS) {
+                    mapped.force();
+                    dirty = false;
+                    lastForce = now;
+                }
+
+                if (drained == 0 && running) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (IOException | RuntimeException e) {
+                Kits.get().getLogger().at(Level.SEVERE).withCause(e).log("Cooldown journal write failed");
+                LockSupport.parkNanos(FORCE_INTERVAL_NANOS);
+            }
+        }
+    }
+
+    private void writeRecord(long[] data, int offset) {
+        if (position + RECORD_BYTES > JOURNAL_BYTES) {
+            try {
+                compact();
+            } catch (IOException e) {
+                throw new IllegalStateException("Cooldown journal is full and compaction failed", e);
+            }
+        }
+        long msb = data[offset];
+        long lsb = data[offset + 1];
+        long kitKey = data[offset + 2];
+        long value = data[offset + 3];
+        mapped.putLong(position, msb);
+        mapped.putLong(position + 8, lsb);
+        mapped.putLong(position + 16, kitKey);
+        mapped.putLong(position + 24, value);
+        mapped.putLong(position + 32, checksum(msb, lsb, kitKey, value, generation));
+        position += RECORD_BYTES;
+        dirty = true;
+    }
+
+    /**
+     * Write every live entry to a new snapshot and restart the journal under
+     * the next generation. In-memory state always includes every queued
+     * record, so the snapshot supersedes the whole journal.
+     */
+    private void compact() throws IOException {
+        overflowed = false;
+        long nextGeneration = generation + 1;
+        Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32 crc = new CRC32();
+            DataOutputStream stream = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(nonClosing(Channels.newOutputStream(out)), 1 << 16), crc));
+            stream.writeInt(SNAPSHOT_MAGIC);
+            stream.writeInt(VERSION);
+            stream.writeLong(nextGeneration);
+
+            long[] count = new long[1];
+            IOException[] failure = new IOException[1];
+            liveEntries.forEachLive((msb, lsb, kitKey, value) -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    stream.writeLong(msb);
+                    stream.writeLong(lsb);
+                    stream.writeLong(kitKey);
+                    stream.writeLong(value);
+                    count[0]++;
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+
+            stream.flush();
+            long checksum = crc.getValue();
+            stream.writeLong(count[0]);
+            stream.writeLong(checksum);
+            stream.flush();
+            out.force(true);
+        }
+        Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        generation = nextGeneration;
+        position = HEADER_BYTES;
+        writeHeader();
+        dirty = false;
+        long now = System.nanoTime();
+        lastForce = now;
+        lastCompaction = now;
+    }
+
+    private void writeHeader() {
+        mapped.putInt(0, JOURNAL_MAGIC);
+        mapped.putInt(4, VERSION);
+        mapped.putLong(8, generation);
+        mapped.force();
+    }
+
+    /**
+     * @return Generation of the snapshot, or 0 if there is no usable snapshot
+     */
+    private long readSnapshot(EntrySink sink) throws IOException {
+        long size;
+        try {
+            size = Files.size(snapshotFile);
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+        long entries = (size - HEADER_BYTES - 16) / SNAPSHOT_ENTRY_BYTES;
+        if (entries < 0 || HEADER_BYTES + 16 + entries * SNAPSHOT_ENTRY_BYTES != size) {
+            throw new IOException("Corrupt cooldown snapshot (bad size): " + snapshotFile);
+        }
+
+        // Validate the whole file before applying anything
+        CRC32 crc = new CRC32();
+        long generationRead;
+        try (DataInputStream in = openSnapshot(crc)) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Corrupt cooldown snapshot (bad header): " + snapshotFile);
+            }
+            generationRead = in.readLong();
+            in.skipNBytes(entries * SNAPSHOT_ENTRY_BYTES);
+            long expected = crc.getValue();
+            if (in.readLong() != entries || in.readLong() != expected) {
+                throw new IOException("Corrupt cooldown snapshot (bad checksum): " + snapshotFile);
+            }
+        } catch (EOFException e) {
+            throw new IOException("Corrupt cooldown snapshot (truncated): " + snapshotFile, e);
+        }
+
+        try (DataInputStream in = openSnapshot(new CRC32())) {
+            in.skipNBytes(HEADER_BYTES);
+            for (long i = 0; i < entries; i++) {
+                sink.accept(in.readLong(), in.readLong(), in.readLong(), in.readLong());
+            }
+        }
+        snapshotEntries = (int) entries;
+        return generationRead;
+    }
+
+    private DataInputStream openSnapshot(CRC32 crc) throws IOException {
+        // Checksum sits outside the buffer so it only sees bytes actually consumed
+        return new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshotFile), 1 << 16), crc));
+    }
+
+    private static OutputStream nonClosing(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+
+    static long checksum(long msb, long lsb, long kitKey, long value, long generation) {
+        long h = 0x9E3779B97F4A7C15L ^ generation;
+        h = CooldownTable.hash(h ^ msb, lsb);
+        h = CooldownTable.hash(h ^ kitKey, value);
+        return h;
+    }
+
+    /**
+     * Receives journal and snapshot entries.
+     */
+    @FunctionalInterface
+    interface EntrySink {
+
+        void accept(long msb, long lsb, long kitKey, long value);
+    }
+
+    /**
+     * Supplies the entries that are still on cooldown when compacting.
+     * Anything left out must be durable elsewhere by the time it returns.
+     */
+    @FunctionalInterface
+    interface LiveEntries {
+
+        void forEachLive(EntrySink sink) throws IOException;
+    }
+}
@@ -0,0 +1,162 @@
+package com.squashcompany.kits.kits.manager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cooldowns of a whole network, as kept by the shared cooldown service behind
+ * a {@link CooldownTransport}: the latest timestamp per player and kit key,
+ * with the conditional writes described in {@link CooldownTransport#write}.
+ *
+ * Thread-safe; callers that must order their own work with the writes (such
+ * as invalidation messages) may hold the instance lock around them.
+ */
+final class CooldownService {
+
+    private static final int SNAPSHOT_VERSION = 1;
+
+    // Guarded by this
+    private final Map<UUID, Map<Long, Long>> values = new HashMap<>();
+    private long writes;
+    private boolean dirty;
+
+    /**
+     * @return Pairs of kit key and value, flattened
+     */
+    synchronized long[] read(long msb, long lsb) {
+        Map<Long, Long> player = values.getOrDefault(new UUID(msb, lsb), Map.of());
+        long[] pairs = new long[player.size() * 2];
+        int i = 0;
+        for (Map.Entry<Long, Long> entry : player.entrySet()) {
+            pairs[i++] = entry.getKey();
+            pairs[i++] = entry.getValue();
+        }
+        return pairs;
+    }
+
+    /**
+     * Apply a batch of write records in order.
+     *
+     * @return Conflicts as msb, lsb, kit key and stored value, then the
+     * applied changes as msb, lsb, kit key, previous and new value, each
+     * flattened
+     */
+    synchronized long[][] apply(long[] records, int count) {
+        List<long[]> conflicts = new ArrayList<>();
+        List<long[]> changes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int offset = i * CooldownTransport.RECORD_WIDTH;
+            long msb = records[offset];
+            long lsb = records[offset + 1];
+            long kitKey = records[offset + 2];
+            long bound = records[offset + 3];
+            long value = records[offset + 4];
+            UUID uuid = new UUID(msb, lsb);
+
+            if (kitKey == 0) {
+                values.remove(uuid);
+                changes.add(new long[] {msb, lsb, 0, 0, 0});
+                writes++;
+                continue;
+            }
+            Map<Long, Long> player = values.computeIfAbsent(uuid, key -> new HashMap<>());
+            long stored = player.getOrDefault(kitKey, 0L);
+            if (stored > bound) {
+                conflicts.add(new long[] {msb, lsb, kitKey, stored});
+                continue;
+            }
+            if (value == 0) {
+                player.remove(kitKey);
+                if (player.isEmpty()) {
+                    values.remove(uuid);
+                }
+            } else {
+                player.put(kitKey, value);
+            }
+            changes.add(new long[] {msb, lsb, kitKey, stored, value});
+            writes++;
+        }
+        dirty |= !changes.isEmpty();
+        return new long[][] {flatten(conflicts, 4), flatten(changes, 5)};
+    }
+
+    /**
+     * Records applied since startup.
+     */
+    synchronized long getWrites() {
+        return writes;
+    }
+
+    /**
+     * Replace every value with the ones saved in a snapshot file, if it
+     * exists.
+     */
+    synchronized void load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        values.clear();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            int version = in.readInt();
+            if (version != SNAPSHOT_VERSION) {
+                throw new IOException("Unknown cooldown service snapshot version " + version);
+            }
+            int players = in.readInt();
+            for (int p = 0; p < players; p++) {
+                UUID uuid = new UUID(in.readLong(), in.readLong());
+                int kits = in.readInt();
+                Map<Long, Long> player = new HashMap<>();
+                for (int k = 0; k < kits; k++) {
+                    player.put(in.readLong(), in.readLong());
+                }
+                values.put(uuid, player);
+            }
+        }
+        dirty = false;
+    }
+
+    /**
+     * Write every value to a snapshot file, replacing it atomically. Does
+     * nothing if nothing changed since the last save or load.
+     */
+    synchronized void save(Path file) throws IOException {
+        if (!dirty) {
+            return;
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(values.size());
+            for (Map.Entry<UUID, Map<Long, Long>> player : values.entrySet()) {
+                out.writeLong(player.getKey().getMostSignificantBits());
+                out.writeLong(player.getKey().getLeastSignificantBits());
+                out.writeInt(player.getValue().size());
+                for (Map.Entry<Long, Long> kit : player.getValue().entrySet()) {
+                    out.writeLong(kit.getKey());
+                    out.writeLong(kit.getValue());
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        dirty = false;
+    }
+
+    private static long[] flatten(List<long[]> rows, int width) {
+        long[] flat = new long[rows.size() * width];
+        for (int i = 0; i < rows.size(); i++) {
+            System.arraycopy(rows.get(i), 0, flat, i * width, width);
+        }
+        return flat;
+    }
+}
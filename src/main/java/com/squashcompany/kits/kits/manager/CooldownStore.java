@@ -0,0 +1,140 @@
+package com.squashcompany.kits.kits.manager;
+
+import java.io.IOException;
+
+/**
+ * Where {@link KitManager} keeps kit cooldowns.
+ *
+ * Values are last-used timestamps in epoch seconds (0 = never used), keyed by
+ * player UUID (as two longs) and kit ordinal. Every method is called on world
+ * or ticker threads and must answer from memory: implementations backed by a
+ * remote service serve reads from a local copy and ship writes in the
+ * background, never blocking the caller on a round trip.
+ *
+ * {@link LocalCooldownStore} keeps everything in this process;
+ * {@link NetworkCooldownStore} shares cooldowns between the servers of a
+ * network.
+ */
+public interface CooldownStore extends AutoCloseable {
+
+    /**
+     * Whether a player's cooldowns are known locally. A store that loads
+     * players on demand starts loading on the first call and returns false
+     * until the load finished; claims are refused meanwhile.
+     */
+    boolean isReady(long msb, long lsb);
+
+    /**
+     * Get the stored value for a player's kit, or 0 if none.
+     */
+    long get(long msb, long lsb, int ordinal);
+
+    /**
+     * Replace a kit value only if it still holds {@code expected}. Used to
+     * reserve a claim; a successful swap is propagated to other nodes.
+     *
+     * @param rowLength Minimum row length to allocate for new players
+     * @return true if the value was replaced
+     */
+    boolean compareAndSet(long msb, long lsb, int ordinal, long expected, long value, int rowLength);
+
+    /**
+     * Roll back a reservation unless a concurrent write already replaced it.
+     * A successful rollback is propagated to other nodes.
+     *
+     * @return true if the value was cleared
+     */
+    boolean release(long msb, long lsb, int ordinal, long expected);
+
+    /**
+     * Drop a value that ran out from local memory only, if it still holds
+     * {@code expected}. Other nodes expire their own copies.
+     *
+     * @return true if the value was dropped
+     */
+    boolean evict(long msb, long lsb, int ordinal, long expected);
+
+    /**
+     * Seed a value recovered from local persistence without propagating it.
+     * A value of 0 clears the kit.
+     */
+    void restore(long msb, long lsb, int ordinal, long value, int rowLength);
+
+    /**
+     * Clear a single kit value for a player everywhere.
+     */
+    void clear(long msb, long lsb, int ordinal);
+
+    /**
+     * Clear every kit value of a player everywhere.
+     */
+    void clearPlayer(long msb, long lsb);
+
+    /**
+     * Whether other servers share these cooldowns. Kit resets only exist on
+     * this server, so they are refused while this is true.
+     */
+    default boolean isShared() {
+        return false;
+    }
+
+    /**
+     * A player left this server. Stores that load players on demand may drop
+     * what they hold for the player; the next {@link #isReady} loads it
+     * again.
+     */
+    default void unload(long msb, long lsb) {
+    }
+
+    /**
+     * Make every change handed to the store so far durable outside memory.
+     * Called before the cooldown journal compacts, which drops the records
+     * of values and clears the store no longer holds in memory. Stores that
+     * keep everything in memory need not do anything.
+     */
+    default void sync() throws IOException {
+    }
+
+    /**
+     * Visit every value held locally. Writes racing with the walk may or may
+     * not be observed.
+     */
+    void forEach(Visitor visitor);
+
+    /**
+     * Number of players held locally. Approximate while writers are active.
+     */
+    int size();
+
+    /**
+     * Be told about values that changed because of another node, so their
+     * expiry can be scheduled. Stores that only change through their own
+     * methods may ignore it.
+     */
+    default void setChangeListener(ChangeListener listener) {
+    }
+
+    /**
+     * Stop background work, shipping writes queued so far where possible.
+     */
+    @Override
+    void close();
+
+    /**
+     * Receives entries from {@link #forEach(Visitor)}.
+     */
+    @FunctionalInterface
+    interface Visitor {
+
+        void visit(long msb, long lsb, int ordinal, long value);
+    }
+
+    /**
+     * Receives values set by another node.
+     */
+    @FunctionalInterface
+    interface ChangeListener {
+
+        void changed(long msb, long lsb, int ordinal, long value);
+    }
+}
@@ -0,0 +1,415 @@
+package com.squashcompany.kits.kits.manager;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Compact concurrent cooldown table keyed by player UUID and kit ordinal.
+ *
+ * Players are spread over striped open-addressing tables. Each UUID is kept as
+ * two longs in a flat key array and owns a single primitive row indexed by kit
+ * ordinal, holding the last-used timestamp in epoch seconds (0 = never used).
+ *
+ * Reads never lock and never allocate: a row reference is published with
+ * release semantics after its key, so a reader that sees the row also sees the
+ * key. Writes lock only the stripe that owns the player. Removed players leave
+ * a tombstone that is purged the next time the stripe is rehashed.
+ *
+ * {@link #compareAndSet} works on cells directly without the lock. To keep a
+ * cell CAS from landing in a row that is being replaced or dropped, locked
+ * writers seal every cell of such a row first; a sealed cell fails any CAS
+ * and makes readers retry against the row that replaces it.
+ */
+final class CooldownTable {
+
+    private static final int STRIPE_BITS = 6;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final VarHandle ROWS = MethodHandles.arrayElementVarHandle(long[][].class);
+    private static final VarHandle CELLS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    // Marks a slot whose player was removed; probing continues past it
+    private static final long[] REMOVED = new long[0];
+
+    // Cell value of a row being replaced or dropped; never a valid timestamp
+    private static final long SEALED = Long.MIN_VALUE;
+
+    private final Segment[] segments = new Segment[STRIPES];
+
+    CooldownTable() {
+        for (int i = 0; i < STRIPES; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Get the stored value for a player's kit, or 0 if none.
+     */
+    long get(long msb, long lsb, int ordinal) {
+        long hash = hash(msb, lsb);
+        Segment segment = segmentFor(hash);
+        while (true) {
+            long[] row = findRow(segment.table, msb, lsb, hash);
+            if (row == null || ordinal >= row.length) {
+                return 0;
+            }
+            long value = (long) CELLS.getAcquire(row, ordinal);
+            if (value != SEALED) {
+                return value;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Store a value for a player's kit, creating the player's row if needed.
+     *
+     * @param rowLength Minimum row length to allocate for new rows (usually
+     * the number of known kits)
+     */
+    void put(long msb, long lsb, int ordinal, long value, int rowLength) {
+        long hash = hash(msb, lsb);
+        Segment segment = segmentFor(hash);
+        synchronized (segment) {
+            Table table = segment.table;
+            int slot = findSlot(table, msb, lsb, hash);
+            if (slot >= 0) {
+                long[] row = table.rows[slot];
+                if (ordinal >= row.length) {
+                    row = sealedCopy(row, Math.max(ordinal + 1, rowLength));
+                    row[ordinal] = value;
+                    ROWS.setRelease(table.rows, slot, row);
+                } else {
+                    CELLS.setRelease(row, ordinal, value);
+                }
+                return;
+            }
+
+            long[] row = new long[Math.max(ordinal + 1, rowLength)];
+            row[ordinal] = value;
+            segment.insert(msb, lsb, hash, row);
+        }
+    }
+
+    /**
+     * Replace a kit value only if it still holds {@code expected}.
+     *
+     * Lock-free while the player's row exists and covers the ordinal; the
+     * stripe lock is taken only to create or grow the row.
+     *
+     * @param rowLength Minimum row length to allocate for new rows
+     * @return true if the value was replaced
+     */
+    boolean compareAndSet(long msb, long lsb, int ordinal, long expected, long value, int rowLength) {
+        long hash = hash(msb, lsb);
+        Segment segment = segmentFor(hash);
+        while (true) {
+            long[] row = findRow(segment.table, msb, lsb, hash);
+            if (row == null || ordinal >= row.length) {
+                break;
+            }
+            long current = (long) CELLS.getAcquire(row, ordinal);
+            if (current == SEALED) {
+                Thread.onSpinWait();
+                continue;
+            }
+            if (current != expected) {
+                return false;
+            }
+            if (CELLS.compareAndSet(row, ordinal, expected, value)) {
+                return true;
+            }
+        }
+
+        synchronized (segment) {
+            Table table = segment.table;
+            int slot = findSlot(table, msb, lsb, hash);
+            if (slot >= 0) {
+                long[] row = table.rows[slot];
+                if (ordinal < row.length) {
+                    // Live rows are never sealed outside the lock
+                    return CELLS.compareAndSet(row, ordinal, expected, value);
+                }
+                if (expected != 0) {
+                    return false;
+                }
+                row = sealedCopy(row, Math.max(ordinal + 1, rowLength));
+                row[ordinal] = value;
+                ROWS.setRelease(table.rows, slot, row);
+                return true;
+            }
+            if (expected != 0) {
+                return false;
+            }
+            long[] row = new long[Math.max(ordinal + 1, rowLength)];
+            row[ordinal] = value;
+            segment.insert(msb, lsb, hash, row);
+            return true;
+        }
+    }
+
+    /**
+     * Clear a single kit value for a player.
+     */
+    void remove(long msb, long lsb, int ordinal) {
+        long hash = hash(msb, lsb);
+        Segment segment = segmentFor(hash);
+        synchronized (segment) {
+            Table table = segment.table;
+            int slot = findSlot(table, msb, lsb, hash);
+            if (slot >= 0 && ordinal < table.rows[slot].length) {
+                CELLS.setRelease(table.rows[slot], ordinal, 0L);
+            }
+        }
+    }
+
+    /**
+     * Clear a kit value only if it still holds {@code expected}, dropping the
+     * player's row once every value in it is clear.
+     *
+     * @return true if the value was cleared
+     */
+    boolean expire(long msb, long lsb, int ordinal, long expected) {
+        long hash = hash(msb, lsb);
+        Segment segment = segmentFor(hash);
+        synchronized (segment) {
+            Table table = segment.table;
+            int slot = findSlot(table, msb, lsb, hash);
+            if (slot < 0) {
+                return false;
+            }
+            long[] row = table.rows[slot];
+            if (ordinal >= row.length || !CELLS.compareAndSet(row, ordinal, expected, 0L)) {
+                return false;
+            }
+            // Seal the row while it is all clear; back off if a claim got in
+            for (int i = 0; i < row.length; i++) {
+                if (!CELLS.compareAndSet(row, i, 0L, SEALED)) {
+                    while (--i >= 0) {
+                        CELLS.setRelease(row, i, 0L);
+                    }
+                    return true;
+                }
+            }
+            ROWS.setRelease(table.rows, slot, REMOVED);
+            segment.live--;
+            return true;
+        }
+    }
+
+    /**
+     * Remove a player and all of their values.
+     */
+    void removePlayer(long msb, long lsb) {
+        takePlayer(msb, lsb);
+    }
+
+    /**
+     * Remove a player and return the values they held at removal, indexed by
+     * ordinal. A write racing with the removal either lands in the returned
+     * row or starts a new one.
+     *
+     * @return The removed row, or null if the player had none
+     */
+    long[] takePlayer(long msb, long lsb) {
+        long hash = hash(msb, lsb);
+        Segment segment = segmentFor(hash);
+        synchronized (segment) {
+            Table table = segment.table;
+            int slot = findSlot(table, msb, lsb, hash);
+            if (slot < 0) {
+                return null;
+            }
+            long[] row = sealedCopy(table.rows[slot], table.rows[slot].length);
+            ROWS.setRelease(table.rows, slot, REMOVED);
+            segment.live--;
+            return row;
+        }
+    }
+
+    /**
+     * Number of players currently holding a row. Approximate while writers
+     * are active.
+     */
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.live;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Visit every non-zero value. Lock-free; writes racing with the walk may
+     * or may not be observed.
+     */
+    void forEach(Visitor visitor) {
+        for (Segment segment : segments) {
+            Table table = segment.table;
+            for (int slot = 0; slot < table.rows.length; slot++) {
+                long[] row = (long[]) ROWS.getAcquire(table.rows, slot);
+                if (row == null || row == REMOVED) {
+                    continue;
+                }
+                long msb = table.keys[slot << 1];
+                long lsb = table.keys[(slot << 1) + 1];
+                for (int ordinal = 0; ordinal < row.length; ordinal++) {
+                    long value = (long) CELLS.getAcquire(row, ordinal);
+                    if (value == SEALED) {
+                        // Row is being replaced; read through to its successor
+                        value = get(msb, lsb, ordinal);
+                    }
+                    if (value != 0) {
+                        visitor.visit(msb, lsb, ordinal, value);
+                    }
+                }
+            }
+        }
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> (64 - STRIPE_BITS))];
+    }
+
+    private static long[] findRow(Table table, long msb, long lsb, long hash) {
+        long[] keys = table.keys;
+        long[][] rows = table.rows;
+        int mask = table.mask;
+        int slot = (int) hash & mask;
+        while (true) {
+            long[] row = (long[]) ROWS.getAcquire(rows, slot);
+            if (row == null) {
+                return null;
+            }
+            if (row != REMOVED && keys[slot << 1] == msb && keys[(slot << 1) + 1] == lsb) {
+                return row;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    // Caller must hold the segment lock. Every old cell is sealed as it is
+    // copied, so a racing compareAndSet either lands before the copy or fails.
+    private static long[] sealedCopy(long[] row, int length) {
+        long[] copy = new long[length];
+        for (int i = 0; i < row.length; i++) {
+            copy[i] = (long) CELLS.getAndSet(row, i, SEALED);
+        }
+        return copy;
+    }
+
+    // Caller must hold the segment lock
+    private static int findSlot(Table table, long msb, long lsb, long hash) {
+        long[] keys = table.keys;
+        long[][] rows = table.rows;
+        int mask = table.mask;
+        int slot = (int) hash & mask;
+        while (true) {
+            long[] row = rows[slot];
+            if (row == null) {
+                return -1;
+            }
+            if (row != REMOVED && keys[slot << 1] == msb && keys[(slot << 1) + 1] == lsb) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    static long hash(long msb, long lsb) {
+        // MurmurHash3 fmix64 over both halves
+        long h = msb ^ Long.rotateLeft(lsb, 32);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Receives entries from {@link #forEach(Visitor)}.
+     */
+    @FunctionalInterface
+    interface Visitor {
+
+        void visit(long msb, long lsb, int ordinal, long value);
+    }
+
+    /**
+     * One stripe of the table. Fields other than {@code table} are guarded by
+     * the segment monitor.
+     */
+    private static final class Segment {
+
+        volatile Table table = new Table(INITIAL_CAPACITY);
+        int live;
+        int used;
+
+        void insert(long msb, long lsb, long hash, long[] row) {
+            Table current = table;
+            if ((used + 1) * 4 > current.capacity() * 3) {
+                current = rehash(current);
+            }
+            int slot = (int) hash & current.mask;
+            while (current.rows[slot] != null) {
+                slot = (slot + 1) & current.mask;
+            }
+            current.keys[slot << 1] = msb;
+            current.keys[(slot << 1) + 1] = lsb;
+            ROWS.setRelease(current.rows, slot, row);
+            live++;
+            used++;
+        }
+
+        private Table rehash(Table old) {
+            // Grow only when live players need it; otherwise just purge tombstones
+            int capacity = old.capacity();
+            if ((live + 1) * 2 > capacity) {
+                capacity <<= 1;
+            }
+            Table fresh = new Table(capacity);
+            for (int i = 0; i < old.rows.length; i++) {
+                long[] row = old.rows[i];
+                if (row == null || row == REMOVED) {
+                    continue;
+                }
+                long msb = old.keys[i << 1];
+                long lsb = old.keys[(i << 1) + 1];
+                int slot = (int) hash(msb, lsb) & fresh.mask;
+                while (fresh.rows[slot] != null) {
+                    slot = (slot + 1) & fresh.mask;
+                }
+                fresh.keys[slot << 1] = msb;
+                fresh.keys[(slot << 1) + 1] = lsb;
+                fresh.rows[slot] = row;
+            }
+            used = live;
+            table = fresh;
+            return fresh;
+        }
+    }
+
+    /**
+     * Immutable-shape open-addressing arrays, replaced wholesale on rehash.
+     */
+    private static final class Table {
+
+        final long[] keys;
+        final long[][] rows;
+        final int mask;
+
+        Table(int capacity) {
+            this.keys = new long[capacity << 1];
+            this.rows = new long[capacity][];
+            this.mask = capacity - 1;
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+    }
+}
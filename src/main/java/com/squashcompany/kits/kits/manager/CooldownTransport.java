@@ -0,0 +1,98 @@
+package com.squashcompany.kits.kits.manager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Connection of one node to the shared cooldown service of a network, used
+ * by {@link NetworkCooldownStore}. Implementations wrap whatever key-value
+ * service the network runs; every call must return without waiting on the
+ * network.
+ *
+ * Kits are identified by their stable kit key rather than by ordinal, since
+ * ordinals are only meaningful inside one process. A kit key of 0 stands for
+ * every kit of the player.
+ */
+public interface CooldownTransport extends AutoCloseable {
+
+    /**
+     * Fields of one write record: player msb, player lsb, kit key, bound, new
+     * value.
+     */
+    int RECORD_WIDTH = 5;
+
+    /**
+     * Bound of a write that applies whatever the stored value is.
+     */
+    long UNCONDITIONAL = Long.MAX_VALUE;
+
+    /**
+     * Load every cooldown of a player.
+     *
+     * @return Pairs of kit key and value, flattened
+     */
+    CompletableFuture<long[]> fetch(long msb, long lsb);
+
+    /**
+     * Apply a batch of writes in order. A record is only applied if the
+     * stored value (0 if none) is at most its bound; otherwise it is reported
+     * back as a conflict. A value of 0 deletes.
+     *
+     * Nodes never delete values that merely ran out, so a claim is sent with
+     * the latest timestamp whose cooldown has ended by now as its bound: the
+     * service needs no notion of cooldowns to refuse a second claim.
+     *
+     * Batches must be applied in the order this is called. The array is only
+     * read until the call returns.
+     *
+     * @param records {@code count} records of {@link #RECORD_WIDTH} fields
+     * @return Conflicts as player msb, player lsb, kit key and stored value,
+     * flattened
+     */
+    CompletableFuture<long[]> write(long[] records, int count);
+
+    /**
+     * Receive changes written by other nodes. Called once, before any write.
+     */
+    void subscribe(ChangeListener listener);
+
+    @Override
+    void close();
+
+    /**
+     * Opens transports for the {@code storage.shared_transport} setting.
+     * The plugin ships {@link TcpCooldownTransport.Provider}; networks with
+     * their own key-value service register another under
+     * {@code META-INF/services} in a jar on the plugin classpath, and it is
+     * found with {@link java.util.ServiceLoader}.
+     */
+    interface Provider {
+
+        /**
+         * Name selected by {@code storage.shared_transport}.
+         */
+        String getName();
+
+        /**
+         * Connect this node. Called once during plugin setup.
+         *
+         * @param dataDirectory The plugin data directory, for the provider's
+         * own settings
+         */
+        CooldownTransport open(Path dataDirectory) throws IOException;
+    }
+
+    /**
+     * Receives invalidation messages.
+     */
+    @FunctionalInterface
+    interface ChangeListener {
+
+        /**
+         * @param previous Value stored before the change
+         * @param value Value stored now, 0 if deleted
+         */
+        void changed(long msb, long lsb, long kitKey, long previous, long value);
+    }
+}
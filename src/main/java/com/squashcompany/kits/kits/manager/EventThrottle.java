@@ -0,0 +1,77 @@
+package com.squashcompany.kits.kits.manager;
+
+import com.squashcompany.kits.kits.config.PluginSettings;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-player token bucket for kits page events, so auto-clickers cannot
+ * flood the world thread with claims.
+ *
+ * Each player holds a single cell in a {@link CooldownTable}: the time at
+ * which their bucket is full again. Every accepted event pushes it one
+ * refill interval further; an event is refused while it is more than a
+ * burst's worth of intervals ahead. This is a token bucket without a
+ * separate token count, so checking and spending a token is one read and one
+ * compare-and-set, with no lock or allocation once the player's cell exists.
+ */
+public final class EventThrottle {
+
+    private static final EventThrottle instance = new EventThrottle();
+
+    // Player -> nanos (since origin) at which the bucket is full, in ordinal 0
+    private final CooldownTable buckets = new CooldownTable();
+    // Keeps stored times positive, since 0 means no cell
+    private final long origin = System.nanoTime() - 1;
+
+    // Limits from settings.properties, read once
+    private final long intervalNanos;
+    private final long toleranceNanos;
+
+    private EventThrottle() {
+        PluginSettings settings = PluginSettings.get();
+        intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.getThrottleEventsPerSecond();
+        toleranceNanos = intervalNanos * (settings.getThrottleBurst() - 1);
+    }
+
+    public static EventThrottle get() {
+        return instance;
+    }
+
+    /**
+     * Take a token from the player's bucket.
+     *
+     * @param playerUuid The player's UUID
+     * @return true if the event may be handled, false if it should be dropped
+     */
+    public boolean tryAcquire(UUID playerUuid) {
+        long msb = playerUuid.getMostSignificantBits();
+        long lsb = playerUuid.getLeastSignificantBits();
+        long now = System.nanoTime() - origin;
+        while (true) {
+            long full = buckets.get(msb, lsb, 0);
+            long from = Math.max(full, now);
+            if (from - now > toleranceNanos) {
+                return false;
+            }
+            if (buckets.compareAndSet(msb, lsb, 0, full, from + intervalNanos, 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Drop a player's bucket when they disconnect.
+     */
+    public void forget(UUID playerUuid) {
+        buckets.removePlayer(playerUuid.getMostSignificantBits(), playerUuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Number of players holding a bucket.
+     */
+    public int size() {
+        return buckets.size();
+    }
+}
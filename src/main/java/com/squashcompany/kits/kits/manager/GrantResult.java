@@ -0,0 +1,100 @@
+package com.squashcompany.kits.kits.manager;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+
+import java.util.List;
+
+/**
+ * Outcome of claiming a kit.
+ */
+public final class GrantResult {
+
+    private static final GrantResult GRANTED = new GrantResult(Status.GRANTED, List.of(), 0);
+    private static final GrantResult UNAVAILABLE = new GrantResult(Status.UNAVAILABLE, List.of(), 0);
+
+    private final Status status;
+    private final List<ItemStack> leftovers;
+    private final long remainingCooldown;
+
+    private GrantResult(Status status, List<ItemStack> leftovers, long remainingCooldown) {
+        this.status = status;
+        this.leftovers = leftovers;
+        this.remainingCooldown = remainingCooldown;
+    }
+
+    static GrantResult granted() {
+        return GRANTED;
+    }
+
+    static GrantResult partial(List<ItemStack> leftovers) {
+        return new GrantResult(Status.PARTIAL, List.copyOf(leftovers), 0);
+    }
+
+    static GrantResult rejected(List<ItemStack> leftovers) {
+        // Loot rolls hand out a buffer the claiming thread reuses
+        return new GrantResult(Status.REJECTED, List.copyOf(leftovers), 0);
+    }
+
+    static GrantResult onCooldown(long remainingCooldown) {
+        return new GrantResult(Status.ON_COOLDOWN, List.of(), remainingCooldown);
+    }
+
+    static GrantResult unavailable() {
+        return UNAVAILABLE;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Whether the player received items (and the kit cooldown started).
+     */
+    public boolean isSuccess() {
+        return status == Status.GRANTED || status == Status.PARTIAL;
+    }
+
+    /**
+     * Seconds left on the kit cooldown when the claim was refused for it,
+     * otherwise 0.
+     */
+    public long getRemainingCooldown() {
+        return remainingCooldown;
+    }
+
+    /**
+     * Stacks that did not fit. Empty when granted; the whole kit when
+     * rejected.
+     */
+    public List<ItemStack> getLeftovers() {
+        return leftovers;
+    }
+
+    /**
+     * Claim outcomes. Metrics index their counters by ordinal, so keep the
+     * order in step with the {@code CLAIM_} constants of KitsMetrics.
+     */
+    public enum Status {
+        /**
+         * Every item was added.
+         */
+        GRANTED,
+        /**
+         * Some items were added; {@link #getLeftovers()} did not fit.
+         */
+        PARTIAL,
+        /**
+         * Nothing was added because the kit did not fit.
+         */
+        REJECTED,
+        /**
+         * Nothing was added because the kit is still on cooldown.
+         */
+        ON_COOLDOWN,
+        /**
+         * Nothing was added because the player's cooldowns are still being
+         * loaded; the claim can be retried shortly.
+         */
+        UNAVAILABLE
+    }
+}
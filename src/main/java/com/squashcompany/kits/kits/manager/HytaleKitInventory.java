@@ -0,0 +1,58 @@
+package com.squashcompany.kits.kits.manager;
+
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+import com.hypixel.hytale.server.core.inventory.transaction.ItemStackTransaction;
+import com.hypixel.hytale.server.core.inventory.transaction.ListTransaction;
+import com.squashcompany.kits.kits.config.KitsConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@link KitInventory} over a player's combined hotbar and storage.
+ */
+public final class HytaleKitInventory implements KitInventory {
+
+    private final Player player;
+
+    public HytaleKitInventory(Player player) {
+        this.player = player;
+    }
+
+    /**
+     * Add a kit's prebuilt stacks as a single batched inventory transaction.
+     * Loot kits are rolled with the calling thread's generator first.
+     *
+     * Capacity for the whole kit is checked in one pass first; if it does not
+     * fit nothing is added. The batch can still report leftovers despite the
+     * check, which makes the grant partial.
+     */
+    @Override
+    public GrantResult add(KitsConfig.KitDefinition kit) {
+        ItemContainer container = player.getInventory().getCombinedHotbarFirst();
+        List<ItemStack> stacks = KitTemplates.get().get(kit).roll(ThreadLocalRandom.current());
+
+        if (!container.canAddItemStacks(stacks)) {
+            return GrantResult.rejected(stacks);
+        }
+
+        ListTransaction<ItemStackTransaction> transaction = container.addItemStacks(stacks);
+
+        // Collect anything the batch could not place
+        List<ItemStack> leftovers = null;
+        for (ItemStackTransaction itemTransaction : transaction.getList()) {
+            ItemStack remainder = itemTransaction.getRemainder();
+            if (remainder != null && !remainder.isEmpty()) {
+                if (leftovers == null) {
+                    leftovers = new ArrayList<>();
+                }
+                leftovers.add(remainder);
+            }
+        }
+
+        return leftovers == null ? GrantResult.granted() : GrantResult.partial(leftovers);
+    }
+}
@@ -0,0 +1,22 @@
+package com.squashcompany.kits.kits.manager;
+
+import com.squashcompany.kits.kits.config.KitsConfig;
+
+/**
+ * Where claimed kits are delivered.
+ *
+ * {@link HytaleKitInventory} adds them to a player's inventory on the
+ * server; benchmarks and the load generator use in-memory fakes, so claims
+ * can be exercised without a running server.
+ */
+public interface KitInventory {
+
+    /**
+     * Add every item of a kit as one transaction. Nothing is added if the
+     * whole kit does not fit.
+     *
+     * @param kit The kit to add
+     * @return {@code GRANTED}, {@code PARTIAL} or {@code REJECTED}
+     */
+    GrantResult add(KitsConfig.KitDefinition kit);
+}
@@ -1,137 +1,462 @@
 package com.squashcompany.kits.kits.manager;
 
-import com.hypixel.hytale.server.core.entity.entities.Player;
-import com.hypixel.hytale.server.core.inventory.Inventory;
-import com.hypixel.hytale.server.core.inventory.ItemStack;
-import com.hypixel.hytale.server.core.inventory.transaction.ItemStackTransaction;
-import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.squashcompany.kits.kits.audit.ClaimAuditLog;
 import com.squashcompany.kits.kits.config.KitsConfig;
+import com.squashcompany.kits.kits.metrics.KitsMetrics;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.UUID;
 
 /**
  * Manages kit distribution and cooldowns.
  */
 public class KitManager {
 
-    private static KitManager instance;
+    private static final KitManager instance = new KitManager();
 
-    // Map: playerUUID -> (kitId -> lastUsedTimestamp)
-    private final Map<String, Map<String, Long>> playerCooldowns = new HashMap<>();
+    // playerUUID -> lastUsedTimestamp by kit ordinal
+    private volatile CooldownStore playerCooldowns = new LocalCooldownStore();
+
+    // Evicts cooldowns once they run out
+    private volatile CooldownExpiry expiry = new CooldownExpiry(playerCooldowns, this::cooldownOf);
+
+    // Write-behind persistence, null until storage is opened
+    private volatile CooldownJournal journal;
+
+    // Cooldowns started at or before these times count as expired: one for
+    // every kit and one per kit ordinal (writes guarded by this)
+    private volatile long globalReset;
+    private volatile long[] kitResets = new long[0];
 
     private KitManager() {
+        expiry.start();
     }
 
     public static KitManager get() {
-        if (instance == null) {
-            instance = new KitManager();
-        }
         return instance;
     }
 
     /**
-     * Give a kit to a player.
+     * Replace where cooldowns are kept, for example with a
+     * {@link NetworkCooldownStore} shared by the servers of a network. Must be
+     * called during plugin setup, before {@link #openStorage(Path)}; the
+     * previous store is closed and its cooldowns are dropped.
+     */
+    public synchronized void setStore(CooldownStore store) {
+        if (journal != null) {
+            throw new IllegalStateException("Cooldown store must be set before storage is opened");
+        }
+        CooldownStore previous = playerCooldowns;
+        CooldownExpiry replaced = expiry;
+
+        CooldownExpiry next = new CooldownExpiry(store, this::cooldownOf);
+        store.setChangeListener(next::schedule);
+        playerCooldowns = store;
+        expiry = next;
+        next.start();
+
+        replaced.stop();
+        previous.close();
+    }
+
+    /**
+     * Restore persisted cooldowns from the data directory and start
+     * journaling new ones. Called once during plugin setup.
+     *
+     * @param dataDirectory The plugin data directory
+     * @return Number of records replayed from the snapshot and journal
+     */
+    public int openStorage(Path dataDirectory) throws IOException {
+        KitsConfig.Snapshot kits = KitsConfig.get().getSnapshot();
+        int rowLength = kits.getOrdinalCount();
+        long currentTime = System.currentTimeMillis() / 1000;
+
+        CooldownJournal opened = new CooldownJournal(dataDirectory, this::forEachLive);
+        opened.recover((msb, lsb, kitKey, value) -> {
+            if (msb == 0 && lsb == 0) {
+                recoverReset(kits, kitKey, value);
+                return;
+            }
+            if (kitKey == 0) {
+                for (KitsConfig.KitDefinition kit : kits.getKits()) {
+                    playerCooldowns.restore(msb, lsb, kit.getOrdinal(), 0, rowLength);
+                }
+                return;
+            }
+            KitsConfig.KitDefinition kit = kits.getKitByKey(kitKey);
+            if (kit == null) {
+                return; // Kit no longer configured
+            }
+            restore(msb, lsb, kit, value, currentTime, rowLength);
+        });
+        opened.start();
+        journal = opened;
+
+        return opened.getSnapshotEntries() + opened.getJournalEntries();
+    }
+
+    /**
+     * Apply a persisted cooldown value, dropping it if it already ran out.
+     */
+    void restore(long msb, long lsb, KitsConfig.KitDefinition kit, long lastUsed, long currentTime, int rowLength) {
+        if (lastUsed <= resetOf(kit.getOrdinal()) || lastUsed + kit.getCooldownSeconds() <= currentTime) {
+            playerCooldowns.restore(msb, lsb, kit.getOrdinal(), 0, rowLength);
+        } else {
+            playerCooldowns.restore(msb, lsb, kit.getOrdinal(), lastUsed, rowLength);
+            expiry.schedule(msb, lsb, kit.getOrdinal(), lastUsed);
+        }
+    }
+
+    /**
+     * Flush pending cooldown records and write a final snapshot, then close
+     * the cooldown store.
+     */
+    public void closeStorage() throws IOException {
+        expiry.stop();
+        CooldownJournal current = journal;
+        journal = null;
+        try {
+            if (current != null) {
+                current.close();
+            }
+        } finally {
+            playerCooldowns.close();
+        }
+    }
+
+    /**
+     * Apply a reset record replayed from the journal.
+     */
+    private void recoverReset(KitsConfig.Snapshot kits, long kitKey, long resetAt) {
+        if (kitKey == 0) {
+            markGlobalReset(resetAt);
+            return;
+        }
+        KitsConfig.KitDefinition kit = kits.getKitByKey(kitKey);
+        if (kit != null) {
+            markKitReset(kit.getOrdinal(), resetAt);
+        }
+    }
+
+    /**
+     * Emit the reset times, then every cooldown that has not expired yet,
+     * keyed by kit key, once the store made everything it no longer holds in
+     * memory durable.
+     */
+    private void forEachLive(CooldownJournal.EntrySink sink) throws IOException {
+        playerCooldowns.sync();
+        KitsConfig.Snapshot kits = KitsConfig.get().getSnapshot();
+        long currentTime = System.currentTimeMillis() / 1000;
+        if (globalReset != 0) {
+            sink.accept(0, 0, 0, globalReset);
+        }
+        long[] resets = kitResets;
+        for (int ordinal = 0; ordinal < resets.length; ordinal++) {
+            KitsConfig.KitDefinition kit = kits.getKit(ordinal);
+            if (kit != null && resets[ordinal] > globalReset) {
+                sink.accept(0, 0, kit.getKey(), resets[ordinal]);
+            }
+        }
+        playerCooldowns.forEach((msb, lsb, ordinal, lastUsed) -> {
+            KitsConfig.KitDefinition kit = kits.getKit(ordinal);
+            if (kit != null && lastUsed > resetOf(ordinal) && lastUsed + kit.getCooldownSeconds() > currentTime) {
+                sink.accept(msb, lsb, kit.getKey(), lastUsed);
+            }
+        });
+    }
+
+    /**
+     * Claim a kit for a player: reserve its cooldown, then grant it.
+     *
+     * The cooldown cell is reserved with a compare-and-set before any item is
+     * handed out, so double clicks, macros or two open pages racing for the
+     * same kit grant it at most once per cooldown. If the grant is rejected
+     * the reservation is rolled back and nothing is persisted.
+     *
+     * The cooldown is kept whenever items were handed out, including a
+     * partial grant. While the cooldown store is still loading the player's
+     * cooldowns the claim is refused without waiting.
      *
-     * @param player The player to give the kit to
-     * @param playerRef The player reference for UUID
+     * @param playerUuid The player's UUID
+     * @param inventory Where the kit's items go
      * @param kit The kit definition
-     * @return true if successful, false if inventory is full
+     * @return The outcome, with any items that did not fit
      */
-    public boolean giveKit(Player player, PlayerRef playerRef, KitsConfig.KitDefinition kit) {
-        Inventory inventory = player.getInventory();
+    public GrantResult tryClaim(UUID playerUuid, KitInventory inventory, KitsConfig.KitDefinition kit) {
+        long start = System.nanoTime();
+        GrantResult result = claim(playerUuid, inventory, kit);
+        KitsMetrics.get().recordClaim(kit.getOrdinal(), result.getStatus().ordinal(), System.nanoTime() - start);
+        ClaimAuditLog.get().record(playerUuid, kit, result);
+        return result;
+    }
 
-        // Give all items from the kit
-        for (KitsConfig.KitItem kitItem : kit.getItems()) {
-            ItemStack itemStack = new ItemStack(kitItem.getItemId(), kitItem.getQuantity());
-            ItemStackTransaction transaction = inventory.getCombinedHotbarFirst().addItemStack(itemStack);
+    private GrantResult claim(UUID playerUuid, KitInventory inventory, KitsConfig.KitDefinition kit) {
+        long msb = playerUuid.getMostSignificantBits();
+        long lsb = playerUuid.getLeastSignificantBits();
+
+        if (!playerCooldowns.isReady(msb, lsb)) {
+            return GrantResult.unavailable();
+        }
+
+        long reserved = reserve(msb, lsb, kit);
+        if (reserved < 0) {
+            return GrantResult.onCooldown(-reserved);
+        }
 
-            // If there's remainder, some items couldn't be added
-            ItemStack remainder = transaction.getRemainder();
-            if (remainder != null && !remainder.isEmpty()) {
-                // Continue anyway, player will receive partial kit
+        GrantResult result;
+        try {
+            result = inventory.add(kit);
+        } catch (RuntimeException e) {
+            release(msb, lsb, kit, reserved);
+            throw e;
+        }
+
+        if (!result.isSuccess()) {
+            release(msb, lsb, kit, reserved);
+            return result;
+        }
+
+        expiry.schedule(msb, lsb, kit.getOrdinal(), reserved);
+        journal(msb, lsb, kit.getKey(), reserved);
+        return result;
+    }
+
+    /**
+     * Reserve a kit's cooldown by swapping an expired, reset (or absent)
+     * timestamp for the current time.
+     *
+     * @return The reserved timestamp, or the remaining cooldown negated if
+     * the kit is still on cooldown
+     */
+    long reserve(long msb, long lsb, KitsConfig.KitDefinition kit) {
+        int ordinal = kit.getOrdinal();
+        int rowLength = KitsConfig.get().getSnapshot().getOrdinalCount();
+        while (true) {
+            long reset = resetOf(ordinal);
+            // A claim in the same second as a reset must still outlive it
+            long currentTime = Math.max(System.currentTimeMillis() / 1000, reset + 1);
+            long lastUsed = playerCooldowns.get(msb, lsb, ordinal);
+            if (lastUsed > reset && lastUsed + kit.getCooldownSeconds() > currentTime) {
+                return -(lastUsed + kit.getCooldownSeconds() - currentTime);
+            }
+            if (playerCooldowns.compareAndSet(msb, lsb, ordinal, lastUsed, currentTime, rowLength)) {
+                return currentTime;
             }
         }
+    }
 
-        // Set cooldown using PlayerRef UUID (not deprecated)
-        setCooldown(playerRef.getUuid().toString(), kit.getId(), kit.getCooldownSeconds());
+    /**
+     * Roll back a reservation unless a concurrent write already replaced it.
+     */
+    void release(long msb, long lsb, KitsConfig.KitDefinition kit, long reserved) {
+        playerCooldowns.release(msb, lsb, kit.getOrdinal(), reserved);
+    }
+
+    /**
+     * Start loading a player's cooldowns if the store keeps them on disk, and
+     * mark the player as active so they stay loaded. Cheap once loaded.
+     *
+     * @param playerUuid The player's UUID
+     * @return true if the player's cooldowns are loaded
+     */
+    public boolean preload(UUID playerUuid) {
+        return playerCooldowns.isReady(playerUuid.getMostSignificantBits(), playerUuid.getLeastSignificantBits());
+    }
 
-        return true;
+    /**
+     * Let the store drop a player who left this server, if it loads players
+     * on demand. Cooldowns are kept.
+     *
+     * @param playerUuid The player's UUID
+     */
+    public void forget(UUID playerUuid) {
+        playerCooldowns.unload(playerUuid.getMostSignificantBits(), playerUuid.getLeastSignificantBits());
     }
 
     /**
      * Check if a player can use a specific kit (cooldown check).
      *
      * @param playerUuid The player's UUID
-     * @param kitId The kit ID
+     * @param kit The kit definition
      * @return true if the player can use the kit, false if on cooldown
      */
-    public boolean canUseKit(String playerUuid, String kitId) {
-        return getRemainingCooldown(playerUuid, kitId) <= 0;
+    public boolean canUseKit(UUID playerUuid, KitsConfig.KitDefinition kit) {
+        return getRemainingCooldown(playerUuid, kit) <= 0;
     }
 
     /**
      * Get the remaining cooldown time in seconds.
      *
      * @param playerUuid The player's UUID
-     * @param kitId The kit ID
+     * @param kit The kit definition
      * @return Remaining cooldown in seconds, or 0 if no cooldown
      */
-    public long getRemainingCooldown(String playerUuid, String kitId) {
-        Map<String, Long> kitCooldowns = playerCooldowns.get(playerUuid);
-        if (kitCooldowns == null) {
-            return 0;
-        }
-
-        Long lastUsed = kitCooldowns.get(kitId);
-        if (lastUsed == null) {
-            return 0;
-        }
+    public long getRemainingCooldown(UUID playerUuid, KitsConfig.KitDefinition kit) {
+        return getRemainingCooldown(playerUuid, kit, System.currentTimeMillis() / 1000);
+    }
 
-        KitsConfig.KitDefinition kit = KitsConfig.get().getKit(kitId);
-        if (kit == null) {
+    /**
+     * Get the remaining cooldown time in seconds at a given time, so callers
+     * checking many players can read the clock once.
+     *
+     * @param playerUuid The player's UUID
+     * @param kit The kit definition
+     * @param currentTime The current time in epoch seconds
+     * @return Remaining cooldown in seconds, or 0 if no cooldown
+     */
+    public long getRemainingCooldown(UUID playerUuid, KitsConfig.KitDefinition kit, long currentTime) {
+        long lastUsed = playerCooldowns.get(
+                playerUuid.getMostSignificantBits(),
+                playerUuid.getLeastSignificantBits(),
+                kit.getOrdinal());
+        if (lastUsed <= resetOf(kit.getOrdinal())) {
             return 0;
         }
 
-        long currentTime = System.currentTimeMillis() / 1000;
         long cooldownEnd = lastUsed + kit.getCooldownSeconds();
 
         return Math.max(0, cooldownEnd - currentTime);
     }
 
     /**
-     * Set a cooldown for a player's kit usage.
+     * Clear all cooldowns for a player. Useful for admin commands or when
+     * player data needs to be reset.
      *
      * @param playerUuid The player's UUID
-     * @param kitId The kit ID
-     * @param cooldownSeconds The cooldown duration in seconds
      */
-    private void setCooldown(String playerUuid, String kitId, int cooldownSeconds) {
-        playerCooldowns
-                .computeIfAbsent(playerUuid, k -> new HashMap<>())
-                .put(kitId, System.currentTimeMillis() / 1000);
+    public void clearCooldowns(UUID playerUuid) {
+        long msb = playerUuid.getMostSignificantBits();
+        long lsb = playerUuid.getLeastSignificantBits();
+
+        playerCooldowns.clearPlayer(msb, lsb);
+        journal(msb, lsb, 0, 0);
     }
 
     /**
-     * Clear all cooldowns for a player. Useful for admin commands or when
-     * player data needs to be reset.
+     * Clear a specific kit cooldown for a player.
      *
      * @param playerUuid The player's UUID
+     * @param kit The kit definition
      */
-    public void clearCooldowns(String playerUuid) {
-        playerCooldowns.remove(playerUuid);
+    public void clearCooldown(UUID playerUuid, KitsConfig.KitDefinition kit) {
+        long msb = playerUuid.getMostSignificantBits();
+        long lsb = playerUuid.getLeastSignificantBits();
+
+        playerCooldowns.clear(msb, lsb, kit.getOrdinal());
+        journal(msb, lsb, kit.getKey(), 0);
     }
 
     /**
-     * Clear a specific kit cooldown for a player.
+     * Whether kits can be reset. Resets are kept on this server only, and a
+     * shared store would keep refusing claims the reset allowed, so they are
+     * unavailable while cooldowns are shared with other servers.
+     */
+    public boolean canReset() {
+        return !playerCooldowns.isShared();
+    }
+
+    /**
+     * Reset a kit's cooldown for every player, in constant time: cooldowns
+     * started up to now stop counting, and are dropped later as they would
+     * have run out.
      *
-     * @param playerUuid The player's UUID
-     * @param kitId The kit ID
+     * @param kit The kit definition
+     * @throws IllegalStateException if {@link #canReset()} is false
+     */
+    public synchronized void resetKit(KitsConfig.KitDefinition kit) {
+        requireResettable();
+        long resetAt = Math.max(System.currentTimeMillis() / 1000, resetOf(kit.getOrdinal()) + 1);
+        markKitReset(kit.getOrdinal(), resetAt);
+        journal(0, 0, kit.getKey(), resetAt);
+    }
+
+    /**
+     * Reset every kit's cooldown for every player, in constant time.
+     *
+     * @throws IllegalStateException if {@link #canReset()} is false
      */
-    public void clearCooldown(String playerUuid, String kitId) {
-        Map<String, Long> kitCooldowns = playerCooldowns.get(playerUuid);
-        if (kitCooldowns != null) {
-            kitCooldowns.remove(kitId);
+    public synchronized void resetAll() {
+        requireResettable();
+        long resetAt = Math.max(System.currentTimeMillis() / 1000, globalReset + 1);
+        for (long kitReset : kitResets) {
+            resetAt = Math.max(resetAt, kitReset + 1);
+        }
+        markGlobalReset(resetAt);
+        journal(0, 0, 0, resetAt);
+    }
+
+    private void requireResettable() {
+        if (!canReset()) {
+            throw new IllegalStateException("Kit resets are unavailable while cooldowns are shared");
+        }
+    }
+
+    private synchronized void markKitReset(int ordinal, long resetAt) {
+        long[] resets = kitResets;
+        if (ordinal >= resets.length) {
+            resets = Arrays.copyOf(resets, ordinal + 1);
+        } else if (resets[ordinal] >= resetAt) {
+            return;
+        } else {
+            resets = resets.clone();
+        }
+        resets[ordinal] = resetAt;
+        kitResets = resets;
+    }
+
+    private synchronized void markGlobalReset(long resetAt) {
+        globalReset = Math.max(globalReset, resetAt);
+    }
+
+    /**
+     * Latest reset that applies to a kit ordinal, 0 if never reset. Cooldowns
+     * started at or before it are expired.
+     */
+    private long resetOf(int ordinal) {
+        long[] resets = kitResets;
+        long kitReset = ordinal < resets.length ? resets[ordinal] : 0;
+        return Math.max(globalReset, kitReset);
+    }
+
+    private void journal(long msb, long lsb, long kitKey, long value) {
+        CooldownJournal current = journal;
+        if (current != null) {
+            current.append(msb, lsb, kitKey, value);
         }
     }
+
+    private long cooldownOf(int ordinal) {
+        KitsConfig.KitDefinition kit = KitsConfig.get().getKit(ordinal);
+        return kit != null ? kit.getCooldownSeconds() : -1;
+    }
+
+    /**
+     * Number of players currently holding cooldown state.
+     */
+    public int getTrackedPlayers() {
+        return playerCooldowns.size();
+    }
+
+    /**
+     * Cooldown entries evicted by the most recent expiry sweep.
+     */
+    public int getLastSweepEvictions() {
+        return expiry.getLastSweepEvicted();
+    }
+
+    /**
+     * Cooldown entries evicted since startup.
+     */
+    public long getTotalEvictions() {
+        return expiry.getTotalEvicted();
+    }
+
+    /**
+     * Cooldown entries waiting to expire.
+     */
+    public int getPendingExpirations() {
+        return expiry.getPending();
+    }
 }
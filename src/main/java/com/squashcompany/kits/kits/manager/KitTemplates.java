@@ -0,0 +1,324 @@
+package com.squashcompany.kits.kits.manager;
+
+import com.hypixel.hytale.server.core.asset.type.item.config.Item;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.ui.ItemGridSlot;
+import com.squashcompany.kits.kits.config.ItemCatalog;
+import com.squashcompany.kits.kits.config.KitsConfig;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.random.RandomGenerator;
+
+/**
+ * Per-kit item templates compiled once per config snapshot.
+ *
+ * Granting and displaying a kit reuses the same {@link ItemStack} prototypes
+ * and {@link ItemGridSlot} arrays instead of building them on every claim and
+ * page open. ItemStacks are immutable, so prototypes are safe to share. The
+ * whole set is recompiled lazily the first time it is asked for after the
+ * config snapshot changes.
+ *
+ * Loot kits also get a {@link LootTable} of their weights and a prebuilt
+ * stack for every quantity each entry can roll, so a claim only draws
+ * indexes and picks existing stacks into a buffer its thread reuses.
+ *
+ * Once the server's item assets are loaded, each item id is looked up in
+ * them once and the {@link Item} kept, so validating kits at config load
+ * does not search the asset map again on every reload.
+ */
+public final class KitTemplates {
+
+    private static final KitTemplates instance = new KitTemplates();
+
+    // Loot roll buffer of each claiming thread
+    private static final ThreadLocal<RolledStacks> ROLLED = ThreadLocal.withInitial(RolledStacks::new);
+
+    private volatile Compiled compiled;
+
+    // Item id -> asset, filled once item assets are available
+    private final Map<String, Item> itemAssets = new ConcurrentHashMap<>();
+    private volatile boolean assetsLoaded;
+
+    private KitTemplates() {
+    }
+
+    public static KitTemplates get() {
+        return instance;
+    }
+
+    /**
+     * Get the template for a kit.
+     *
+     * @param kit A kit from any snapshot; kits from a replaced snapshot get a
+     * one-off template so in-flight claims still grant what they were shown
+     */
+    public KitTemplate get(KitsConfig.KitDefinition kit) {
+        KitsConfig.Snapshot snapshot = KitsConfig.get().getSnapshot();
+        Compiled current = compiled;
+        if (current == null || current.source != snapshot) {
+            current = compile(snapshot);
+        }
+        KitTemplate template = current.get(kit.getOrdinal());
+        if (template == null || template.getDefinition() != kit) {
+            return new KitTemplate(kit);
+        }
+        return template;
+    }
+
+    /**
+     * Start resolving item ids against the server's item assets. Call once
+     * they are loaded.
+     *
+     * @return A catalog of the item ids the assets know
+     */
+    public ItemCatalog useItemAssets() {
+        assetsLoaded = true;
+        return itemId -> resolve(itemId) != null;
+    }
+
+    /**
+     * @return The asset of an item id, or null if it has none or assets are
+     * not loaded yet
+     */
+    private Item resolve(String itemId) {
+        if (!assetsLoaded) {
+            return null;
+        }
+        Item item = itemAssets.get(itemId);
+        if (item == null) {
+            // Unknown ids are looked up again, in case assets are added later
+            item = Item.getAssetMap().getAsset(itemId);
+            if (item != null) {
+                itemAssets.put(itemId, item);
+            }
+        }
+        return item;
+    }
+
+    private synchronized Compiled compile(KitsConfig.Snapshot snapshot) {
+        Compiled current = compiled;
+        if (current != null && current.source == snapshot) {
+            return current;
+        }
+        KitTemplate[] templates = new KitTemplate[snapshot.getOrdinalCount()];
+        for (KitsConfig.KitDefinition kit : snapshot.getKits()) {
+            templates[kit.getOrdinal()] = new KitTemplate(kit);
+        }
+        current = new Compiled(snapshot, templates);
+        compiled = current;
+        return current;
+    }
+
+    /**
+     * Templates for one snapshot, indexed by kit ordinal.
+     */
+    private static final class Compiled {
+
+        final KitsConfig.Snapshot source;
+        final KitTemplate[] templates;
+
+        Compiled(KitsConfig.Snapshot source, KitTemplate[] templates) {
+            this.source = source;
+            this.templates = templates;
+        }
+
+        KitTemplate get(int ordinal) {
+            return ordinal >= 0 && ordinal < templates.length ? templates[ordinal] : null;
+        }
+    }
+
+    /**
+     * Prebuilt items of a single kit. Treat every returned array as read-only.
+     */
+    public static final class KitTemplate {
+
+        private final KitsConfig.KitDefinition definition;
+        private final List<ItemStack> grantStacks;
+        // Fixed items first, then loot entries
+        private final ItemGridSlot[][] displaySlots;
+        private final String[] quantityLabels;
+        // Null for fixed kits
+        private final LootTable lootTable;
+        private final int[] lootWeights;
+        private final long totalLootWeight;
+        // Entry -> stack by quantity - minimum
+        private final ItemStack[][] lootStacks;
+
+        KitTemplate(KitsConfig.KitDefinition definition) {
+            List<KitsConfig.KitItem> items = definition.getItems();
+            List<KitsConfig.LootEntry> loot = definition.getLoot();
+            List<ItemStack> stacks = new ArrayList<>(items.size());
+            ItemGridSlot[][] slots = new ItemGridSlot[items.size() + loot.size()][];
+            String[] labels = new String[slots.length];
+            for (int i = 0; i < items.size(); i++) {
+                KitsConfig.KitItem item = items.get(i);
+                ItemStack stack = new ItemStack(item.getItemId(), item.getQuantity());
+                stacks.add(stack);
+                slots[i] = new ItemGridSlot[]{new ItemGridSlot(stack)};
+                labels[i] = "x" + item.getQuantity();
+            }
+
+            int[] weights = new int[loot.size()];
+            long totalWeight = 0;
+            ItemStack[][] byQuantity = new ItemStack[loot.size()][];
+            for (int i = 0; i < loot.size(); i++) {
+                KitsConfig.LootEntry entry = loot.get(i);
+                weights[i] = entry.getWeight();
+                totalWeight += entry.getWeight();
+                byQuantity[i] = new ItemStack[entry.getMaxQuantity() - entry.getMinQuantity() + 1];
+                for (int q = 0; q < byQuantity[i].length; q++) {
+                    byQuantity[i][q] = new ItemStack(entry.getItemId(), entry.getMinQuantity() + q);
+                }
+                slots[items.size() + i] = new ItemGridSlot[]{new ItemGridSlot(byQuantity[i][0])};
+                labels[items.size() + i] = entry.getMinQuantity() == entry.getMaxQuantity()
+                        ? "x" + entry.getMinQuantity()
+                        : "x" + entry.getMinQuantity() + "-" + entry.getMaxQuantity();
+            }
+
+            this.definition = definition;
+            this.grantStacks = Collections.unmodifiableList(stacks);
+            this.displaySlots = slots;
+            this.quantityLabels = labels;
+            this.lootTable = loot.isEmpty() ? null : new LootTable(weights);
+            this.lootWeights = weights;
+            this.totalLootWeight = totalWeight;
+            this.lootStacks = byQuantity;
+        }
+
+        public KitsConfig.KitDefinition getDefinition() {
+            return definition;
+        }
+
+        /**
+         * Fixed stacks of the kit, in kit item order.
+         */
+        public List<ItemStack> getGrantStacks() {
+            return grantStacks;
+        }
+
+        /**
+         * Stacks for one claim: the fixed stacks followed by the kit's loot
+         * rolls, each a different entry. Fixed kits return
+         * {@link #getGrantStacks()} itself.
+         *
+         * Loot kits return the calling thread's roll buffer, which its next
+         * roll overwrites; copy the list to keep it longer.
+         *
+         * @param random The calling thread's generator
+         */
+        public List<ItemStack> roll(RandomGenerator random) {
+            if (lootTable == null) {
+                return grantStacks;
+            }
+            int rolls = Math.min(definition.getLootRolls(), lootStacks.length);
+            RolledStacks rolled = ROLLED.get().start(grantStacks, rolls);
+            long remainingWeight = totalLootWeight;
+            for (int i = 0; i < rolls; i++) {
+                int entry = i == 0 ? lootTable.sample(random) : sampleRemaining(random, rolled, remainingWeight);
+                remainingWeight -= lootWeights[entry];
+                ItemStack[] byQuantity = lootStacks[entry];
+                rolled.addLoot(entry, byQuantity.length == 1 ? byQuantity[0] : byQuantity[random.nextInt(byQuantity.length)]);
+            }
+            return rolled;
+        }
+
+        /**
+         * Weighted draw among the entries not rolled yet. A kit card holds
+         * only a few entries, so a linear scan beats rebuilding a table.
+         */
+        private int sampleRemaining(RandomGenerator random, RolledStacks rolled, long remainingWeight) {
+            long target = random.nextLong(remainingWeight);
+            int entry = -1;
+            for (int i = 0; i < lootWeights.length; i++) {
+                if (!rolled.hasLoot(i)) {
+                    entry = i;
+                    target -= lootWeights[i];
+                    if (target < 0) {
+                        break;
+                    }
+                }
+            }
+            return entry;
+        }
+
+        /**
+         * Items shown on the kit card: fixed items, then loot entries.
+         */
+        public int getDisplayCount() {
+            return displaySlots.length;
+        }
+
+        /**
+         * Single-slot grid contents showing the item at {@code index}.
+         */
+        public ItemGridSlot[] getDisplaySlots(int index) {
+            return displaySlots[index];
+        }
+
+        /**
+         * Quantity text of the item at {@code index}, a range for loot
+         * entries that roll one.
+         */
+        public String getQuantityLabel(int index) {
+            return quantityLabels[index];
+        }
+    }
+
+    /**
+     * Stacks of one loot roll, reused by every roll of its thread.
+     */
+    private static final class RolledStacks extends AbstractList<ItemStack> implements RandomAccess {
+
+        private ItemStack[] stacks = new ItemStack[KitsConfig.MAX_CARD_ITEMS];
+        // Loot entry of each rolled stack, in roll order
+        private int[] entries = new int[KitsConfig.MAX_CARD_ITEMS];
+        private int size;
+        private int rolled;
+
+        RolledStacks start(List<ItemStack> fixed, int rolls) {
+            int needed = fixed.size() + rolls;
+            if (needed > stacks.length) {
+                stacks = new ItemStack[needed];
+                entries = new int[needed];
+            }
+            for (int i = 0; i < fixed.size(); i++) {
+                stacks[i] = fixed.get(i);
+            }
+            size = fixed.size();
+            rolled = 0;
+            return this;
+        }
+
+        void addLoot(int entry, ItemStack stack) {
+            entries[rolled++] = entry;
+            stacks[size++] = stack;
+        }
+
+        boolean hasLoot(int entry) {
+            for (int i = 0; i < rolled; i++) {
+                if (entries[i] == entry) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public ItemStack get(int index) {
+            Objects.checkIndex(index, size);
+            return stacks[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
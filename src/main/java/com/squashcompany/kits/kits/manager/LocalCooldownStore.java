@@ -0,0 +1,68 @@
+package com.squashcompany.kits.kits.manager;
+
+/**
+ * Cooldown store that keeps everything in this process. The default, for
+ * servers that are not part of a network.
+ */
+public final class LocalCooldownStore implements CooldownStore {
+
+    private final CooldownTable table = new CooldownTable();
+
+    @Override
+    public boolean isReady(long msb, long lsb) {
+        return true;
+    }
+
+    @Override
+    public long get(long msb, long lsb, int ordinal) {
+        return table.get(msb, lsb, ordinal);
+    }
+
+    @Override
+    public boolean compareAndSet(long msb, long lsb, int ordinal, long expected, long value, int rowLength) {
+        return table.compareAndSet(msb, lsb, ordinal, expected, value, rowLength);
+    }
+
+    @Override
+    public boolean release(long msb, long lsb, int ordinal, long expected) {
+        return table.expire(msb, lsb, ordinal, expected);
+    }
+
+    @Override
+    public boolean evict(long msb, long lsb, int ordinal, long expected) {
+        return table.expire(msb, lsb, ordinal, expected);
+    }
+
+    @Override
+    public void restore(long msb, long lsb, int ordinal, long value, int rowLength) {
+        if (value == 0) {
+            table.remove(msb, lsb, ordinal);
+        } else {
+            table.put(msb, lsb, ordinal, value, rowLength);
+        }
+    }
+
+    @Override
+    public void clear(long msb, long lsb, int ordinal) {
+        table.remove(msb, lsb, ordinal);
+    }
+
+    @Override
+    public void clearPlayer(long msb, long lsb) {
+        table.removePlayer(msb, lsb);
+    }
+
+    @Override
+    public void forEach(Visitor visitor) {
+        table.forEach(visitor::visit);
+    }
+
+    @Override
+    public int size() {
+        return table.size();
+    }
+
+    @Override
+    public void close() {
+    }
+}
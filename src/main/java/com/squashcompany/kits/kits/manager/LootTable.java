@@ -0,0 +1,98 @@
+package com.squashcompany.kits.kits.manager;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted choice among a fixed set of entries in constant time (Walker's
+ * alias method, built with Vose's algorithm).
+ *
+ * Each entry owns one column holding part of its own weight and, topped up
+ * to the same height, part of one other entry's. A draw picks a column
+ * uniformly and then one of its two entries. Columns are kept in integer
+ * units of the total weight, so the table reproduces the configured weights
+ * exactly rather than up to rounding. Drawing allocates nothing and the
+ * table is immutable, so one instance serves every thread; callers pass
+ * their own generator.
+ */
+final class LootTable {
+
+    // Column height; entry i owns threshold[i] of it, alias[i] the rest
+    private final long total;
+    private final long[] threshold;
+    private final int[] alias;
+
+    /**
+     * @param weights Positive weights, at most a few million in total
+     */
+    LootTable(int[] weights) {
+        int count = weights.length;
+        if (count == 0) {
+            throw new IllegalArgumentException("Loot table needs at least one entry");
+        }
+        long sum = 0;
+        for (int weight : weights) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Loot weights must be positive");
+            }
+            sum += weight;
+        }
+
+        // Scale by the column count so the average column is exactly sum high
+        long[] scaled = new long[count];
+        int[] small = new int[count];
+        int[] large = new int[count];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < count; i++) {
+            scaled[i] = (long) weights[i] * count;
+            if (scaled[i] < sum) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        long[] thresholds = new long[count];
+        int[] aliases = new int[count];
+        while (smallCount > 0 && largeCount > 0) {
+            int under = small[--smallCount];
+            int over = large[--largeCount];
+            thresholds[under] = scaled[under];
+            aliases[under] = over;
+            // Top up the short column from the tall one
+            scaled[over] -= sum - scaled[under];
+            if (scaled[over] < sum) {
+                small[smallCount++] = over;
+            } else {
+                large[largeCount++] = over;
+            }
+        }
+        // Whatever is left fills its column exactly
+        while (largeCount > 0) {
+            int full = large[--largeCount];
+            thresholds[full] = sum;
+            aliases[full] = full;
+        }
+        while (smallCount > 0) {
+            int full = small[--smallCount];
+            thresholds[full] = sum;
+            aliases[full] = full;
+        }
+
+        this.total = sum;
+        this.threshold = thresholds;
+        this.alias = aliases;
+    }
+
+    /**
+     * Draw an entry index with probability proportional to its weight.
+     */
+    int sample(RandomGenerator random) {
+        int column = random.nextInt(threshold.length);
+        return random.nextLong(total) < threshold[column] ? column : alias[column];
+    }
+
+    int size() {
+        return threshold.length;
+    }
+}
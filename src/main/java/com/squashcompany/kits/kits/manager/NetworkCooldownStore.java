@@ -0,0 +1,369 @@
+package com.squashcompany.kits.kits.manager;
+
+import com.squashcompany.kits.kits.Kits;
+import com.squashcompany.kits.kits.config.KitsConfig;
+import com.squashcompany.kits.kits.util.RecordRing;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+/**
+ * Cooldown store shared by the servers of a network through a
+ * {@link CooldownTransport}.
+ *
+ * Each node keeps a near-cache of the players it has seen in a
+ * {@link CooldownTable}, so claims and cooldown displays are answered from
+ * memory exactly like {@link LocalCooldownStore}. A player's cooldowns are
+ * fetched asynchronously the first time the player is checked; until then
+ * {@link #isReady} is false and claims are refused. Local writes are queued
+ * in a non-blocking ring and shipped in batches by a background thread.
+ * Changes made by other nodes arrive as invalidation messages and are merged
+ * into the cache.
+ *
+ * Two nodes can still grant the same kit if a player claims it on both within
+ * the write-through delay (a few tens of milliseconds plus the network round
+ * trip). The service refuses the second write and reports it as a conflict,
+ * which is logged and counted; the cache then adopts the stored value.
+ *
+ * A player's cache row and load state are dropped when the player leaves,
+ * and fetched again on the next check after they return. Writes still queued
+ * at that point race with the fetch the same way writes of another node do.
+ *
+ * Installed by the {@code storage.shared_transport} setting, with a
+ * transport from a {@link CooldownTransport.Provider}.
+ */
+public final class NetworkCooldownStore implements CooldownStore {
+
+    private static final long LOADING = 1;
+    private static final long READY = 2;
+
+    private static final int RING_CAPACITY = 1 << 14;
+    private static final int BATCH_RECORDS = 512;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final CooldownTransport transport;
+    private final CooldownTable cache = new CooldownTable();
+    // Player -> LOADING or READY, in ordinal 0
+    private final CooldownTable loadState = new CooldownTable();
+
+    // Outgoing writes; the queue only takes what does not fit the ring
+    private final RecordRing outgoing = new RecordRing(RING_CAPACITY, CooldownTransport.RECORD_WIDTH);
+    private final ConcurrentLinkedQueue<long[]> overflow = new ConcurrentLinkedQueue<>();
+
+    // Writer-thread state
+    private final long[] batch = new long[BATCH_RECORDS * CooldownTransport.RECORD_WIDTH];
+    private final RecordRing.Handler batcher = this::addToBatch;
+    private int batchSize;
+
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder failedWrites = new LongAdder();
+
+    private volatile ChangeListener listener;
+    private volatile boolean running = true;
+    private final Thread writer;
+
+    public NetworkCooldownStore(CooldownTransport transport) {
+        this.transport = transport;
+        transport.subscribe(this::applyRemote);
+        writer = new Thread(this::runWriter, "Kits-CooldownSync");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public boolean isReady(long msb, long lsb) {
+        long state = loadState.get(msb, lsb, 0);
+        if (state == READY) {
+            return true;
+        }
+        if (state == 0 && loadState.compareAndSet(msb, lsb, 0, 0, LOADING, 1)) {
+            load(msb, lsb);
+        }
+        return false;
+    }
+
+    private void load(long msb, long lsb) {
+        try {
+            transport.fetch(msb, lsb).whenComplete((pairs, error) -> {
+                if (error != null) {
+                    loadFailed(msb, lsb, error);
+                    return;
+                }
+                if (loadState.get(msb, lsb, 0) != LOADING) {
+                    return; // The player left meanwhile
+                }
+                long currentTime = System.currentTimeMillis() / 1000;
+                int rowLength = KitsConfig.get().getSnapshot().getOrdinalCount();
+                for (int i = 0; i + 1 < pairs.length; i += 2) {
+                    KitsConfig.KitDefinition kit = kitByKey(pairs[i]);
+                    // Values that already ran out are left out; nodes never delete them
+                    if (kit != null && pairs[i + 1] + kit.getCooldownSeconds() > currentTime) {
+                        raise(msb, lsb, kit.getOrdinal(), pairs[i + 1], rowLength);
+                    }
+                }
+                loadState.compareAndSet(msb, lsb, 0, LOADING, READY, 1);
+            });
+        } catch (RuntimeException e) {
+            loadFailed(msb, lsb, e);
+        }
+    }
+
+    private void loadFailed(long msb, long lsb, Throwable error) {
+        // Let the next check retry
+        loadState.expire(msb, lsb, 0, LOADING);
+        Kits.get().getLogger().at(Level.WARNING).withCause(error).log("Failed to load shared cooldowns");
+    }
+
+    @Override
+    public long get(long msb, long lsb, int ordinal) {
+        return cache.get(msb, lsb, ordinal);
+    }
+
+    @Override
+    public boolean compareAndSet(long msb, long lsb, int ordinal, long expected, long value, int rowLength) {
+        if (!cache.compareAndSet(msb, lsb, ordinal, expected, value, rowLength)) {
+            return false;
+        }
+        KitsConfig.KitDefinition kit = KitsConfig.get().getKit(ordinal);
+        if (kit != null) {
+            enqueue(msb, lsb, kit.getKey(), value - kit.getCooldownSeconds(), value);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean release(long msb, long lsb, int ordinal, long expected) {
+        if (!cache.expire(msb, lsb, ordinal, expected)) {
+            return false;
+        }
+        KitsConfig.KitDefinition kit = KitsConfig.get().getKit(ordinal);
+        if (kit != null) {
+            // Leaves a newer claim from another node in place
+            enqueue(msb, lsb, kit.getKey(), expected, 0);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean evict(long msb, long lsb, int ordinal, long expected) {
+        return cache.expire(msb, lsb, ordinal, expected);
+    }
+
+    @Override
+    public void restore(long msb, long lsb, int ordinal, long value, int rowLength) {
+        if (value == 0) {
+            cache.remove(msb, lsb, ordinal);
+        } else {
+            raise(msb, lsb, ordinal, value, rowLength);
+        }
+    }
+
+    @Override
+    public void clear(long msb, long lsb, int ordinal) {
+        cache.remove(msb, lsb, ordinal);
+        KitsConfig.KitDefinition kit = KitsConfig.get().getKit(ordinal);
+        if (kit != null) {
+            enqueue(msb, lsb, kit.getKey(), CooldownTransport.UNCONDITIONAL, 0);
+        }
+    }
+
+    @Override
+    public void clearPlayer(long msb, long lsb) {
+        cache.removePlayer(msb, lsb);
+        enqueue(msb, lsb, 0, CooldownTransport.UNCONDITIONAL, 0);
+    }
+
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+
+    @Override
+    public void unload(long msb, long lsb) {
+        loadState.removePlayer(msb, lsb);
+        cache.removePlayer(msb, lsb);
+    }
+
+    @Override
+    public void forEach(Visitor visitor) {
+        cache.forEach(visitor::visit);
+    }
+
+    @Override
+    public int size() {
+        return cache.size();
+    }
+
+    @Override
+    public void setChangeListener(ChangeListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Writes refused by the service because another node claimed the kit
+     * first.
+     */
+    public long getConflicts() {
+        return conflicts.sum();
+    }
+
+    /**
+     * Writes lost because the service could not be reached.
+     */
+    public long getFailedWrites() {
+        return failedWrites.sum();
+    }
+
+    /**
+     * Writes queued but not shipped yet.
+     */
+    public int getPendingWrites() {
+        return outgoing.size() + overflow.size();
+    }
+
+    /**
+     * Ship every queued write, then disconnect.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        transport.close();
+    }
+
+    /**
+     * Merge a change made by another node.
+     */
+    private void applyRemote(long msb, long lsb, long kitKey, long previous, long value) {
+        if (loadState.get(msb, lsb, 0) == 0) {
+            return; // Not cached here; the next load fetches it
+        }
+        if (kitKey == 0) {
+            cache.removePlayer(msb, lsb);
+            return;
+        }
+        KitsConfig.KitDefinition kit = kitByKey(kitKey);
+        if (kit == null) {
+            return;
+        }
+        if (value == 0) {
+            cache.expire(msb, lsb, kit.getOrdinal(), previous);
+        } else {
+            raise(msb, lsb, kit.getOrdinal(), value, KitsConfig.get().getSnapshot().getOrdinalCount());
+        }
+    }
+
+    /**
+     * Keep the later of the cached and given timestamps, telling the listener
+     * if the cache changed.
+     */
+    private void raise(long msb, long lsb, int ordinal, long value, int rowLength) {
+        while (true) {
+            long current = cache.get(msb, lsb, ordinal);
+            if (current >= value) {
+                return;
+            }
+            if (cache.compareAndSet(msb, lsb, ordinal, current, value, rowLength)) {
+                ChangeListener changes = listener;
+                if (changes != null) {
+                    changes.changed(msb, lsb, ordinal, value);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Queue a write for the service. Never blocks; once the ring is full
+     * writes go to an unbounded queue until the writer catches up, so writes
+     * of one thread are always shipped in order.
+     */
+    private void enqueue(long msb, long lsb, long kitKey, long bound, long value) {
+        long sequence = overflow.isEmpty() ? outgoing.tryClaim() : -1;
+        if (sequence < 0) {
+            overflow.add(new long[] {msb, lsb, kitKey, bound, value});
+            LockSupport.unpark(writer);
+            return;
+        }
+        long[] data = outgoing.data();
+        int offset = outgoing.offset(sequence);
+        data[offset] = msb;
+        data[offset + 1] = lsb;
+        data[offset + 2] = kitKey;
+        data[offset + 3] = bound;
+        data[offset + 4] = value;
+        outgoing.publish(sequence);
+    }
+
+    private void runWriter() {
+        while (running || outgoing.size() > 0 || !overflow.isEmpty()) {
+            try {
+                outgoing.drain(batcher, BATCH_RECORDS);
+                // Overflowed writes are newer than everything in the ring
+                long[] record;
+                while (batchSize < BATCH_RECORDS && outgoing.size() == 0 && (record = overflow.poll()) != null) {
+                    addToBatch(record, 0);
+                }
+
+                if (batchSize > 0) {
+                    ship();
+                } else if (running) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (RuntimeException e) {
+                failedWrites.add(batchSize);
+                batchSize = 0;
+                Kits.get().getLogger().at(Level.WARNING).withCause(e).log("Failed to send shared cooldowns");
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void addToBatch(long[] data, int offset) {
+        System.arraycopy(data, offset, batch, batchSize * CooldownTransport.RECORD_WIDTH,
+                CooldownTransport.RECORD_WIDTH);
+        batchSize++;
+    }
+
+    private void ship() {
+        int count = batchSize;
+        // The transport is done with the batch once write returns
+        transport.write(batch, count).whenComplete((refused, error) -> {
+            if (error != null) {
+                failedWrites.add(count);
+                Kits.get().getLogger().at(Level.WARNING).withCause(error)
+                        .log("Failed to send " + count + " shared cooldown writes");
+            } else if (refused.length > 0) {
+                applyConflicts(refused);
+            }
+        });
+        batchSize = 0;
+    }
+
+    private void applyConflicts(long[] refused) {
+        int rowLength = KitsConfig.get().getSnapshot().getOrdinalCount();
+        int count = 0;
+        for (int i = 0; i + 3 < refused.length; i += 4) {
+            count++;
+            KitsConfig.KitDefinition kit = kitByKey(refused[i + 2]);
+            if (kit != null && refused[i + 3] != 0) {
+                raise(refused[i], refused[i + 1], kit.getOrdinal(), refused[i + 3], rowLength);
+            }
+        }
+        conflicts.add(count);
+        Kits.get().getLogger().at(Level.WARNING)
+                .log(count + " kit claims were also made on another server within their cooldown");
+    }
+
+    private static KitsConfig.KitDefinition kitByKey(long key) {
+        return KitsConfig.get().getSnapshot().getKitByKey(key);
+    }
+}
@@ -0,0 +1,711 @@
+package com.squashcompany.kits.kits.manager;
+
+import com.squashcompany.kits.kits.Kits;
+import com.squashcompany.kits.kits.config.KitsConfig;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Cooldown store that keeps recently active players in memory and everyone
+ * else on disk, in one shard file per UUID prefix.
+ *
+ * A player's cooldowns are loaded in the background the first time they are
+ * checked, usually when /kits is opened; {@link #isReady} is false until then
+ * and claims are refused. Loaded players sit in a CLOCK ring: every check
+ * marks the player as recently used, and once the ring is full the hand
+ * clears marks until it finds an unmarked player, whose row is written back
+ * to its shard and dropped from memory. Heap use therefore follows the number
+ * of active players rather than every player ever seen.
+ *
+ * All file work happens on one background thread, so loads, write-backs and
+ * clears of a shard never overlap, and a shard file is only rewritten when
+ * its contents change. Values that ran out are pruned whenever a shard is
+ * rewritten. Clears, including those replayed from the journal, are queued
+ * and applied to the shard whether or not the player is in memory.
+ *
+ * Crash safety comes from the cooldown journal, whose snapshot only holds
+ * players in memory. Shard files and their directory are forced to disk
+ * before an evicted row leaves memory, and {@link #sync} waits for queued
+ * clears before the journal compacts, so every value and clear is always
+ * either in the journal or durable in a shard.
+ *
+ * Shard layout: magic, version, entry count, then entries of player msb,
+ * player lsb, kit key and value, then a CRC32 of everything before it.
+ */
+public final class ShardedCooldownStore implements CooldownStore {
+
+    private static final int SHARD_BITS = 12;
+    private static final int MAGIC = 0x4B534844; // "KSHD"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+    private static final int ENTRY_BYTES = 32;
+
+    // Player state cell: load phase plus the CLOCK reference mark
+    private static final long LOADING = 1;
+    private static final long READY = 2;
+    private static final long REFERENCED = 4;
+
+    private static final long SYNC_TIMEOUT_SECONDS = 30;
+
+    private final Path directory;
+    private final int capacity;
+    private final CooldownTable cache = new CooldownTable();
+    private final CooldownTable states = new CooldownTable();
+    private final ExecutorService io;
+    private final ConcurrentLinkedQueue<Clear> clears = new ConcurrentLinkedQueue<>();
+
+    // IO-thread state: CLOCK ring of loaded players, as msb/lsb pairs
+    private final long[] clock;
+    private int clockSize;
+    private int hand;
+    // IO-thread state: queued clears whose shard could not be written yet
+    private final Map<Integer, List<Update>> unapplied = new HashMap<>();
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder shardWrites = new LongAdder();
+
+    /**
+     * @param directory Where shard files live
+     * @param capacity Players kept in memory before the least recently active
+     * ones are written back
+     */
+    public ShardedCooldownStore(Path directory, int capacity) throws IOException {
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.capacity = Math.max(1, capacity);
+        this.clock = new long[this.capacity * 2];
+        this.io = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Kits-CooldownShards");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public boolean isReady(long msb, long lsb) {
+        long state = states.get(msb, lsb, 0);
+        if ((state & READY) != 0) {
+            if ((state & REFERENCED) == 0) {
+                states.compareAndSet(msb, lsb, 0, state, state | REFERENCED, 1);
+            }
+            return true;
+        }
+        if (state == 0 && states.compareAndSet(msb, lsb, 0, 0, LOADING, 1)) {
+            try {
+                io.execute(() -> load(msb, lsb));
+            } catch (RejectedExecutionException e) {
+                states.expire(msb, lsb, 0, LOADING); // Closing
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public long get(long msb, long lsb, int ordinal) {
+        return cache.get(msb, lsb, ordinal);
+    }
+
+    @Override
+    public boolean compareAndSet(long msb, long lsb, int ordinal, long expected, long value, int rowLength) {
+        return cache.compareAndSet(msb, lsb, ordinal, expected, value, rowLength);
+    }
+
+    @Override
+    public boolean release(long msb, long lsb, int ordinal, long expected) {
+        return cache.expire(msb, lsb, ordinal, expected);
+    }
+
+    @Override
+    public boolean evict(long msb, long lsb, int ordinal, long expected) {
+        return cache.expire(msb, lsb, ordinal, expected);
+    }
+
+    /**
+     * A cleared value is also deleted from the player's shard, which may hold
+     * an older copy of it if the player was not in memory when the clear was
+     * journaled.
+     */
+    @Override
+    public void restore(long msb, long lsb, int ordinal, long value, int rowLength) {
+        if (value != 0) {
+            raise(msb, lsb, ordinal, value, rowLength);
+            return;
+        }
+        cache.remove(msb, lsb, ordinal);
+        KitsConfig.KitDefinition kit = KitsConfig.get().getKit(ordinal);
+        if (kit != null) {
+            submitClear(new Clear(msb, lsb, new long[] {kit.getKey(), 0}, null));
+        }
+    }
+
+    @Override
+    public void clear(long msb, long lsb, int ordinal) {
+        KitsConfig.KitDefinition kit = KitsConfig.get().getKit(ordinal);
+        boolean loading = states.get(msb, lsb, 0) == LOADING;
+        cache.remove(msb, lsb, ordinal);
+        if (kit != null) {
+            submitClear(new Clear(msb, lsb, new long[] {kit.getKey(), 0},
+                    loading ? () -> cache.remove(msb, lsb, ordinal) : null));
+        }
+    }
+
+    @Override
+    public void clearPlayer(long msb, long lsb) {
+        boolean loading = states.get(msb, lsb, 0) == LOADING;
+        cache.removePlayer(msb, lsb);
+        submitClear(new Clear(msb, lsb, null, loading ? () -> cache.removePlayer(msb, lsb) : null));
+    }
+
+    /**
+     * Queue a clear for the player's shard. Queued clears are applied in
+     * batches, one rewrite per shard; if closing, {@link #close} applies
+     * them.
+     */
+    private void submitClear(Clear clear) {
+        clears.add(clear);
+        try {
+            io.execute(this::applyClearsLogged);
+        } catch (RejectedExecutionException e) {
+            // Closing
+        }
+    }
+
+    private void applyClearsLogged() {
+        try {
+            applyClears();
+        } catch (IOException e) {
+            Kits.get().getLogger().at(Level.WARNING).withCause(e).log("Failed to clear stored cooldowns");
+        }
+    }
+
+    /**
+     * Write queued clears to their shards and force them to disk. Clears
+     * whose shard fails are kept and retried by the next call. IO thread
+     * only, or after it stopped.
+     *
+     * @throws IOException If any clear is still not written
+     */
+    private void applyClears() throws IOException {
+        Clear clear;
+        while ((clear = clears.poll()) != null) {
+            // A load that was already running may have put the cleared values back
+            if (clear.clearLoaded != null) {
+                clear.clearLoaded.run();
+            }
+            unapplied.computeIfAbsent(shardOf(clear.msb), shard -> new ArrayList<>())
+                    .add(new Update(clear.msb, clear.lsb, clear.pairs == null ? new long[0] : clear.pairs,
+                            clear.pairs == null));
+        }
+        if (unapplied.isEmpty()) {
+            return;
+        }
+
+        IOException failure = null;
+        var iterator = unapplied.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, List<Update>> shard = iterator.next();
+            try {
+                rewrite(shard.getKey(), shard.getValue());
+                iterator.remove();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        syncDirectory();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Wait until every clear handed to the store so far is durable in its
+     * shard. Evicted rows already are by the time they leave memory.
+     */
+    @Override
+    public void sync() throws IOException {
+        Future<?> applied;
+        try {
+            applied = io.submit(() -> {
+                applyClears();
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            return; // Closing; close() applies what is queued
+        }
+        try {
+            applied.get(SYNC_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException cause ? cause : new IOException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IOException("Cooldown shard writes did not finish within " + SYNC_TIMEOUT_SECONDS + " s");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for cooldown shard writes");
+        }
+    }
+
+    @Override
+    public void forEach(Visitor visitor) {
+        cache.forEach(visitor::visit);
+    }
+
+    @Override
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Players loaded from their shard since startup.
+     */
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    /**
+     * Players written back and dropped from memory since startup.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Shard files rewritten since startup.
+     */
+    public long getShardWrites() {
+        return shardWrites.sum();
+    }
+
+    /**
+     * Finish queued file work, then write every player still in memory back
+     * to their shard.
+     */
+    @Override
+    public void close() {
+        io.shutdown();
+        try {
+            io.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        applyClearsLogged();
+
+        KitsConfig.Snapshot kits = KitsConfig.get().getSnapshot();
+        Map<Integer, Map<UUID, Update>> byShard = new HashMap<>();
+        cache.forEach((msb, lsb, ordinal, value) -> {
+            KitsConfig.KitDefinition kit = kits.getKit(ordinal);
+            if (kit == null) {
+                return;
+            }
+            // Values of players that never finished loading are merged, not
+            // replaced, since their shard may hold more
+            byShard.computeIfAbsent(shardOf(msb), shard -> new HashMap<>())
+                    .computeIfAbsent(new UUID(msb, lsb),
+                            uuid -> new Update(msb, lsb, new long[0], (states.get(msb, lsb, 0) & READY) != 0))
+                    .add(kit.getKey(), value);
+        });
+        for (Map.Entry<Integer, Map<UUID, Update>> shard : byShard.entrySet()) {
+            try {
+                rewrite(shard.getKey(), new ArrayList<>(shard.getValue().values()));
+            } catch (IOException e) {
+                Kits.get().getLogger().at(Level.SEVERE).withCause(e)
+                        .log("Failed to write cooldown shard " + shard.getKey());
+            }
+        }
+        try {
+            syncDirectory();
+        } catch (IOException e) {
+            Kits.get().getLogger().at(Level.SEVERE).withCause(e).log("Failed to sync cooldown shards");
+        }
+    }
+
+    private void load(long msb, long lsb) {
+        try {
+            // The shard must not hand back values a queued clear deletes
+            applyClearsLogged();
+            int shard = shardOf(msb);
+            Map<UUID, long[]> players = readShard(shard);
+            for (Update clear : unapplied.getOrDefault(shard, List.of())) {
+                clear.applyTo(players);
+            }
+            long[] pairs = players.get(new UUID(msb, lsb));
+            if (pairs != null) {
+                KitsConfig.Snapshot kits = KitsConfig.get().getSnapshot();
+                long currentTime = System.currentTimeMillis() / 1000;
+                for (int i = 0; i < pairs.length; i += 2) {
+                    KitsConfig.KitDefinition kit = kits.getKitByKey(pairs[i]);
+                    if (kit != null && pairs[i + 1] + kit.getCooldownSeconds() > currentTime) {
+                        raise(msb, lsb, kit.getOrdinal(), pairs[i + 1], kits.getOrdinalCount());
+                    }
+                }
+            }
+
+            makeRoom();
+            clock[clockSize * 2] = msb;
+            clock[clockSize * 2 + 1] = lsb;
+            clockSize++;
+            states.compareAndSet(msb, lsb, 0, LOADING, READY | REFERENCED, 1);
+            loads.increment();
+        } catch (IOException | RuntimeException e) {
+            // Let the next check retry
+            states.expire(msb, lsb, 0, LOADING);
+            Kits.get().getLogger().at(Level.WARNING).withCause(e).log("Failed to load stored cooldowns");
+        }
+    }
+
+    /**
+     * Evict players until the ring has room for one more.
+     */
+    private void makeRoom() throws IOException {
+        while (clockSize >= capacity) {
+            if (hand >= clockSize) {
+                hand = 0;
+            }
+            long msb = clock[hand * 2];
+            long lsb = clock[hand * 2 + 1];
+            long state = states.get(msb, lsb, 0);
+            if ((state & REFERENCED) != 0) {
+                // Give it another round
+                states.compareAndSet(msb, lsb, 0, state, state & ~REFERENCED, 1);
+                hand++;
+                continue;
+            }
+            if ((state & READY) != 0 && !states.expire(msb, lsb, 0, state)) {
+                continue; // Marked meanwhile
+            }
+
+            // Fill the gap with the last player; the hand looks at it next
+            clockSize--;
+            clock[hand * 2] = clock[clockSize * 2];
+            clock[hand * 2 + 1] = clock[clockSize * 2 + 1];
+
+            // New checks now start a reload, which queues behind this write.
+            // The row stays in memory, and so in journal snapshots, until its
+            // shard is on disk.
+            KitsConfig.Snapshot kits = KitsConfig.get().getSnapshot();
+            long[] row = new long[kits.getOrdinalCount()];
+            Update update = new Update(msb, lsb, new long[0], true);
+            for (int ordinal = 0; ordinal < row.length; ordinal++) {
+                KitsConfig.KitDefinition kit = kits.getKit(ordinal);
+                row[ordinal] = cache.get(msb, lsb, ordinal);
+                if (kit != null && row[ordinal] != 0) {
+                    update.add(kit.getKey(), row[ordinal]);
+                }
+            }
+            if (update.size > 0) {
+                rewrite(shardOf(msb), List.of(update));
+                syncDirectory();
+            }
+
+            // Keep values that changed while the shard was written
+            long[] taken = cache.takePlayer(msb, lsb);
+            if (taken != null) {
+                for (int ordinal = 0; ordinal < taken.length; ordinal++) {
+                    if (taken[ordinal] != 0 && (ordinal >= row.length || taken[ordinal] != row[ordinal])) {
+                        raise(msb, lsb, ordinal, taken[ordinal], taken.length);
+                    }
+                }
+            }
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Keep the later of the cached and given timestamps.
+     */
+    private void raise(long msb, long lsb, int ordinal, long value, int rowLength) {
+        while (true) {
+            long current = cache.get(msb, lsb, ordinal);
+            if (current >= value || cache.compareAndSet(msb, lsb, ordinal, current, value, rowLength)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Apply updates to a shard, pruning values that ran out, and write it if
+     * anything changed.
+     */
+    private void rewrite(int shard, List<Update> updates) throws IOException {
+        Map<UUID, long[]> players = readShard(shard);
+        boolean changed = false;
+        for (Update update : updates) {
+            changed |= update.applyTo(players);
+        }
+        changed |= prune(players);
+        if (changed) {
+            writeShard(shard, players);
+        }
+    }
+
+    private static boolean prune(Map<UUID, long[]> players) {
+        KitsConfig.Snapshot kits = KitsConfig.get().getSnapshot();
+        long currentTime = System.currentTimeMillis() / 1000;
+        boolean changed = false;
+        var iterator = players.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, long[]> player = iterator.next();
+            long[] pairs = player.getValue();
+            int kept = 0;
+            for (int i = 0; i < pairs.length; i += 2) {
+                KitsConfig.KitDefinition kit = kits.getKitByKey(pairs[i]);
+                if (kit != null && pairs[i + 1] + kit.getCooldownSeconds() > currentTime) {
+                    pairs[kept++] = pairs[i];
+                    pairs[kept++] = pairs[i + 1];
+                }
+            }
+            if (kept == 0) {
+                iterator.remove();
+                changed = true;
+            } else if (kept < pairs.length) {
+                player.setValue(Arrays.copyOf(pairs, kept));
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private Path shardFile(int shard) {
+        return directory.resolve(String.format("%03x.shard", shard));
+    }
+
+    private static int shardOf(long msb) {
+        return (int) (msb >>> (64 - SHARD_BITS));
+    }
+
+    /**
+     * @return Kit key and value pairs by player; empty if the shard does not
+     * exist yet. A corrupt shard is moved aside and read as empty.
+     */
+    private Map<UUID, long[]> readShard(int shard) throws IOException {
+        Path file = shardFile(shard);
+        try {
+            return parseShard(file);
+        } catch (CorruptShardException e) {
+            Files.move(file, file.resolveSibling(file.getFileName() + ".corrupt"), StandardCopyOption.REPLACE_EXISTING);
+            Kits.get().getLogger().at(Level.SEVERE).withCause(e).log("Moved corrupt cooldown shard aside: " + file);
+            return new HashMap<>();
+        }
+    }
+
+    private static Map<UUID, long[]> parseShard(Path file) throws IOException {
+        Map<UUID, long[]> players = new HashMap<>();
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 14), crc))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new CorruptShardException("bad header", null);
+            }
+            int entries = in.readInt();
+            for (int i = 0; i < entries; i++) {
+                UUID player = new UUID(in.readLong(), in.readLong());
+                long kitKey = in.readLong();
+                long value = in.readLong();
+                long[] pairs = players.get(player);
+                pairs = pairs == null ? new long[2] : Arrays.copyOf(pairs, pairs.length + 2);
+                pairs[pairs.length - 2] = kitKey;
+                pairs[pairs.length - 1] = value;
+                players.put(player, pairs);
+            }
+            long expected = crc.getValue();
+            if (in.readLong() != expected) {
+                throw new CorruptShardException("bad checksum", null);
+            }
+        } catch (NoSuchFileException e) {
+            return players;
+        } catch (EOFException e) {
+            throw new CorruptShardException("truncated", e);
+        }
+        return players;
+    }
+
+    private void writeShard(int shard, Map<UUID, long[]> players) throws IOException {
+        Path file = shardFile(shard);
+        if (players.isEmpty()) {
+            Files.deleteIfExists(file);
+            shardWrites.increment();
+            return;
+        }
+
+        int entries = 0;
+        for (long[] pairs : players.values()) {
+            entries += pairs.length / 2;
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(
+                Channels.newOutputStream(channel), Math.min(1 << 16, HEADER_BYTES + entries * ENTRY_BYTES + 8)), crc))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entries);
+            for (Map.Entry<UUID, long[]> player : players.entrySet()) {
+                long[] pairs = player.getValue();
+                for (int i = 0; i < pairs.length; i += 2) {
+                    out.writeLong(player.getKey().getMostSignificantBits());
+                    out.writeLong(player.getKey().getLeastSignificantBits());
+                    out.writeLong(pairs[i]);
+                    out.writeLong(pairs[i + 1]);
+                }
+            }
+            out.flush();
+            out.writeLong(crc.getValue());
+            out.flush();
+            // The rename must never reach the disk before the contents
+            channel.force(false);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        shardWrites.increment();
+    }
+
+    /**
+     * Force renames and deletions of shard files to disk. Callers run this
+     * after their shard writes, before relying on them.
+     */
+    private void syncDirectory() throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return; // Directories cannot be opened on Windows, whose renames are journaled
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Clear queued for a player's shard.
+     */
+    private static final class Clear {
+
+        private final long msb;
+        private final long lsb;
+        // Kit keys each followed by 0, or null for every kit
+        private final long[] pairs;
+        // Removes the values from memory again, if the player was loading
+        private final Runnable clearLoaded;
+
+        Clear(long msb, long lsb, long[] pairs, Runnable clearLoaded) {
+            this.msb = msb;
+            this.lsb = lsb;
+            this.pairs = pairs;
+            this.clearLoaded = clearLoaded;
+        }
+    }
+
+    private static final class CorruptShardException extends IOException {
+
+        CorruptShardException(String reason, Throwable cause) {
+            super("Corrupt cooldown shard (" + reason + ")", cause);
+        }
+    }
+
+    /**
+     * Change to one player's entries in a shard: either their whole set of
+     * entries, or values merged into it (later timestamp wins, 0 deletes).
+     */
+    private static final class Update {
+
+        private final UUID player;
+        private final boolean replace;
+        private long[] pairs;
+        private int size;
+
+        Update(long msb, long lsb, long[] pairs, boolean replace) {
+            this.player = new UUID(msb, lsb);
+            this.pairs = pairs;
+            this.size = pairs.length;
+            this.replace = replace;
+        }
+
+        void add(long kitKey, long value) {
+            if (size == pairs.length) {
+                pairs = Arrays.copyOf(pairs, Math.max(4, size * 2));
+            }
+            pairs[size++] = kitKey;
+            pairs[size++] = value;
+        }
+
+        /**
+         * @return true if the shard changed
+         */
+        boolean applyTo(Map<UUID, long[]> players) {
+            long[] current = players.get(player);
+            long[] next;
+            if (replace) {
+                next = Arrays.copyOf(pairs, size);
+            } else {
+                next = current != null ? current.clone() : new long[0];
+                for (int i = 0; i < size; i += 2) {
+                    next = merge(next, pairs[i], pairs[i + 1]);
+                }
+            }
+
+            if (next.length == 0) {
+                return players.remove(player) != null;
+            }
+            if (current != null && Arrays.equals(current, next)) {
+                return false;
+            }
+            players.put(player, next);
+            return true;
+        }
+
+        private static long[] merge(long[] entries, long kitKey, long value) {
+            for (int i = 0; i < entries.length; i += 2) {
+                if (entries[i] != kitKey) {
+                    continue;
+                }
+                if (value != 0) {
+                    entries[i + 1] = Math.max(entries[i + 1], value);
+                    return entries;
+                }
+                long[] removed = new long[entries.length - 2];
+                System.arraycopy(entries, 0, removed, 0, i);
+                System.arraycopy(entries, i + 2, removed, i, entries.length - i - 2);
+                return removed;
+            }
+            if (value == 0) {
+                return entries;
+            }
+            long[] added = Arrays.copyOf(entries, entries.length + 2);
+            added[entries.length] = kitKey;
+            added[entries.length + 1] = value;
+            return added;
+        }
+    }
+}
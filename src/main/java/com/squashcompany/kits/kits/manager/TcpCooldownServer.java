@@ -0,0 +1,285 @@
+package com.squashcompany.kits.kits.manager;
+
+import com.squashcompany.kits.kits.Kits;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Shared cooldown service of the built-in {@code tcp} transport, run by one
+ * server of the network. Every node, including the hosting server, talks to
+ * it through a {@link TcpCooldownTransport}.
+ *
+ * Requests of a connection are answered in order. Writes and the
+ * invalidation messages they cause are queued under the {@link
+ * CooldownService} lock, so every node receives changes in the order they
+ * were applied. Cooldowns are kept in memory and saved to a snapshot file
+ * every {@value #SAVE_INTERVAL_SECONDS} seconds and on close.
+ *
+ * Wire format, in both directions: a type byte, a long count and that many
+ * longs. Nodes send {@link #FETCH} (msb, lsb) and {@link #WRITE} (write
+ * records); the service sends {@link #REPLY} for each request, in request
+ * order, and {@link #CHANGES} with the changes of other nodes.
+ */
+final class TcpCooldownServer implements AutoCloseable {
+
+    static final byte FETCH = 1;
+    static final byte WRITE = 2;
+    static final byte REPLY = 3;
+    static final byte CHANGES = 4;
+
+    // Largest frame accepted, far above any batch a node sends
+    private static final int MAX_FRAME_LONGS = 1 << 22;
+    private static final long SAVE_INTERVAL_SECONDS = 30;
+
+    private final CooldownService service = new CooldownService();
+    private final ServerSocket serverSocket;
+    private final Path snapshot;
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    private final Thread acceptor;
+    private final Thread saver;
+    private volatile boolean running = true;
+
+    /**
+     * Start listening, after restoring the snapshot if there is one.
+     *
+     * @param snapshot Snapshot file of the cooldowns, or null to keep them in
+     * memory only
+     */
+    TcpCooldownServer(InetSocketAddress address, Path snapshot) throws IOException {
+        this.snapshot = snapshot;
+        if (snapshot != null) {
+            service.load(snapshot);
+        }
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(address);
+
+        acceptor = new Thread(this::accept, "Kits-CooldownService");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        saver = new Thread(this::saveLoop, "Kits-CooldownServiceSaver");
+        saver.setDaemon(true);
+        saver.start();
+    }
+
+    /**
+     * Port the service listens on.
+     */
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Records applied since startup.
+     */
+    long getWrites() {
+        return service.getWrites();
+    }
+
+    /**
+     * Disconnect every node and save the snapshot.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+        for (Connection connection : connections) {
+            connection.close();
+        }
+        saver.interrupt();
+        try {
+            acceptor.join(TimeUnit.SECONDS.toMillis(5));
+            saver.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        save();
+    }
+
+    private void accept() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Connection connection = new Connection(socket);
+                connections.add(connection);
+                connection.start();
+            } catch (IOException e) {
+                if (running) {
+                    Kits.get().getLogger().at(Level.WARNING).withCause(e).log("Cooldown service failed to accept a node");
+                }
+            }
+        }
+    }
+
+    private void saveLoop() {
+        while (running) {
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(SAVE_INTERVAL_SECONDS));
+            } catch (InterruptedException e) {
+                return;
+            }
+            save();
+        }
+    }
+
+    private void save() {
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            service.save(snapshot);
+        } catch (IOException e) {
+            Kits.get().getLogger().at(Level.SEVERE).withCause(e).log("Failed to save shared cooldowns to " + snapshot);
+        }
+    }
+
+    /**
+     * Write one frame. Does not flush.
+     */
+    static void writeFrame(DataOutputStream out, byte type, long[] data, int length) throws IOException {
+        out.writeByte(type);
+        out.writeLong(length);
+        for (int i = 0; i < length; i++) {
+            out.writeLong(data[i]);
+        }
+    }
+
+    /**
+     * Read the body of a frame whose type byte was just read.
+     */
+    static long[] readFrame(DataInputStream in) throws IOException {
+        long length = in.readLong();
+        if (length < 0 || length > MAX_FRAME_LONGS) {
+            throw new IOException("Invalid cooldown frame of " + length + " longs");
+        }
+        long[] data = new long[(int) length];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = in.readLong();
+        }
+        return data;
+    }
+
+    /**
+     * One connected node, with a thread reading its requests and one sending
+     * its queued replies and changes.
+     */
+    private final class Connection {
+
+        private final Socket socket;
+        private final LinkedBlockingQueue<Frame> outgoing = new LinkedBlockingQueue<>();
+        private final Thread reader;
+        private final Thread sender;
+
+        Connection(Socket socket) {
+            this.socket = socket;
+            String name = "Kits-CooldownService-" + socket.getRemoteSocketAddress();
+            reader = new Thread(this::read, name);
+            reader.setDaemon(true);
+            sender = new Thread(this::send, name + "-Send");
+            sender.setDaemon(true);
+        }
+
+        void start() {
+            reader.start();
+            sender.start();
+        }
+
+        void queue(byte type, long[] data) {
+            outgoing.add(new Frame(type, data));
+        }
+
+        void close() {
+            connections.remove(this);
+            sender.interrupt();
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+
+        private void read() {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+                while (true) {
+                    byte type = in.readByte();
+                    long[] data = readFrame(in);
+                    if (type == FETCH && data.length == 2) {
+                        synchronized (service) {
+                            queue(REPLY, service.read(data[0], data[1]));
+                        }
+                    } else if (type == WRITE && data.length % CooldownTransport.RECORD_WIDTH == 0) {
+                        synchronized (service) {
+                            long[][] result = service.apply(data, data.length / CooldownTransport.RECORD_WIDTH);
+                            queue(REPLY, result[0]);
+                            if (result[1].length > 0) {
+                                for (Connection other : connections) {
+                                    if (other != this) {
+                                        other.queue(CHANGES, result[1]);
+                                    }
+                                }
+                            }
+                        }
+                    } else {
+                        throw new IOException("Unexpected cooldown frame of type " + type);
+                    }
+                }
+            } catch (EOFException | SocketException e) {
+                // Node disconnected
+            } catch (IOException e) {
+                if (running) {
+                    Kits.get().getLogger().at(Level.WARNING).withCause(e)
+                            .log("Dropped node " + socket.getRemoteSocketAddress() + " from the cooldown service");
+                }
+            } finally {
+                close();
+            }
+        }
+
+        private void send() {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+                while (true) {
+                    Frame frame = outgoing.take();
+                    writeFrame(out, frame.type, frame.data, frame.data.length);
+                    if (outgoing.isEmpty()) {
+                        out.flush();
+                    }
+                }
+            } catch (IOException | InterruptedException e) {
+                // Closed; the reader drops the connection
+            } finally {
+                close();
+            }
+        }
+    }
+
+    private static final class Frame {
+
+        final byte type;
+        final long[] data;
+
+        Frame(byte type, long[] data) {
+            this.type = type;
+            this.data = data;
+        }
+    }
+}
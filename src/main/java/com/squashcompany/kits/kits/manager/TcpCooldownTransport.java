@@ -0,0 +1,307 @@
+package com.squashcompany.kits.kits.manager;
+
+import com.squashcompany.kits.kits.Kits;
+import com.squashcompany.kits.kits.config.PluginSettings;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Built-in {@link CooldownTransport} talking to a {@link TcpCooldownServer}
+ * over one TCP connection, selected with
+ * {@code storage.shared_transport = tcp}.
+ *
+ * Requests are queued and sent by a background thread, so no call waits on
+ * the network. While the service is unreachable the transport reconnects
+ * every {@value #RECONNECT_MILLIS} ms, and requests fail at once: claims of
+ * players not loaded yet are refused and writes are counted as failed.
+ * Changes made by other nodes while disconnected are not replayed; cached
+ * players pick them up when they next join.
+ */
+public final class TcpCooldownTransport implements CooldownTransport {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+    private static final long RECONNECT_MILLIS = 1000;
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final InetSocketAddress address;
+    private final AutoCloseable hosted;
+    private final LinkedBlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+    // Replies still expected on the current link, in request order
+    private final ConcurrentLinkedQueue<CompletableFuture<long[]>> pending = new ConcurrentLinkedQueue<>();
+    private final Thread receiver;
+    private final Thread sender;
+
+    private volatile ChangeListener listener;
+    private volatile Link link;
+    private volatile boolean open = true;
+
+    /**
+     * Start connecting to the service.
+     *
+     * @param hosted Service run by this server, closed after the
+     * connection, or null
+     */
+    TcpCooldownTransport(InetSocketAddress address, AutoCloseable hosted) {
+        this.address = address;
+        this.hosted = hosted;
+        receiver = new Thread(this::receive, "Kits-CooldownLink");
+        receiver.setDaemon(true);
+        sender = new Thread(this::send, "Kits-CooldownLink-Send");
+        sender.setDaemon(true);
+        receiver.start();
+        sender.start();
+    }
+
+    /**
+     * Whether the service is connected right now.
+     */
+    boolean isConnected() {
+        return link != null;
+    }
+
+    @Override
+    public CompletableFuture<long[]> fetch(long msb, long lsb) {
+        return request(TcpCooldownServer.FETCH, new long[] {msb, lsb});
+    }
+
+    @Override
+    public CompletableFuture<long[]> write(long[] records, int count) {
+        return request(TcpCooldownServer.WRITE, Arrays.copyOf(records, count * RECORD_WIDTH));
+    }
+
+    @Override
+    public void subscribe(ChangeListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Send every queued request, then disconnect and stop the hosted service.
+     */
+    @Override
+    public void close() {
+        open = false;
+        try {
+            sender.join(TimeUnit.SECONDS.toMillis(10));
+            Link current = link;
+            if (current != null) {
+                current.close();
+            }
+            receiver.interrupt();
+            receiver.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failAll(requests.stream().map(request -> request.reply).toList());
+        if (hosted != null) {
+            try {
+                hosted.close();
+            } catch (Exception e) {
+                Kits.get().getLogger().at(Level.WARNING).withCause(e).log("Failed to stop the cooldown service");
+            }
+        }
+    }
+
+    private CompletableFuture<long[]> request(byte type, long[] data) {
+        CompletableFuture<long[]> reply = new CompletableFuture<>();
+        if (!open) {
+            reply.completeExceptionally(new IOException("Cooldown transport closed"));
+        } else {
+            requests.add(new Request(type, data, reply));
+        }
+        return reply;
+    }
+
+    private void send() {
+        while (open || !requests.isEmpty()) {
+            Request request;
+            try {
+                request = requests.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (request == null) {
+                continue;
+            }
+            Link current = link;
+            if (current == null) {
+                request.reply.completeExceptionally(new IOException("Not connected to the cooldown service at " + address));
+                continue;
+            }
+            pending.add(request.reply);
+            try {
+                TcpCooldownServer.writeFrame(current.out, request.type, request.data, request.data.length);
+                if (requests.isEmpty()) {
+                    current.out.flush();
+                }
+            } catch (IOException e) {
+                request.reply.completeExceptionally(e);
+                current.close();
+            }
+            // The receiver fails pending replies after clearing the link, so
+            // one added after that is failed here
+            if (link != current) {
+                request.reply.completeExceptionally(new IOException("Lost the cooldown service at " + address));
+            }
+        }
+    }
+
+    private void receive() {
+        boolean reported = false;
+        while (open) {
+            Link current;
+            try {
+                current = new Link(new InetSocketAddress(address.getHostString(), address.getPort()));
+            } catch (IOException e) {
+                if (!reported) {
+                    Kits.get().getLogger().at(Level.WARNING).withCause(e)
+                            .log("Cannot reach the cooldown service at " + address + ", retrying");
+                    reported = true;
+                }
+                pause();
+                continue;
+            }
+            if (reported) {
+                Kits.get().getLogger().at(Level.INFO).log("Connected to the cooldown service at " + address);
+                reported = false;
+            }
+            link = current;
+            try {
+                while (true) {
+                    byte type = current.in.readByte();
+                    long[] data = TcpCooldownServer.readFrame(current.in);
+                    if (type == TcpCooldownServer.REPLY) {
+                        CompletableFuture<long[]> reply = pending.poll();
+                        if (reply == null) {
+                            throw new IOException("Unexpected reply from the cooldown service");
+                        }
+                        reply.complete(data);
+                    } else if (type == TcpCooldownServer.CHANGES) {
+                        dispatch(data);
+                    } else {
+                        throw new IOException("Unexpected cooldown frame of type " + type);
+                    }
+                }
+            } catch (IOException e) {
+                if (open) {
+                    Kits.get().getLogger().at(Level.WARNING).withCause(e)
+                            .log("Lost the cooldown service at " + address + ", reconnecting");
+                    reported = true;
+                }
+            } finally {
+                link = null;
+                current.close();
+                failAll(pending);
+                pending.clear();
+            }
+            pause();
+        }
+    }
+
+    private void dispatch(long[] changes) {
+        ChangeListener target = listener;
+        if (target == null) {
+            return;
+        }
+        for (int i = 0; i + 4 < changes.length; i += 5) {
+            target.changed(changes[i], changes[i + 1], changes[i + 2], changes[i + 3], changes[i + 4]);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(RECONNECT_MILLIS);
+        } catch (InterruptedException e) {
+            // Closing
+        }
+    }
+
+    private static void failAll(Iterable<CompletableFuture<long[]>> replies) {
+        IOException error = new IOException("Disconnected from the cooldown service");
+        for (CompletableFuture<long[]> reply : replies) {
+            reply.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * One open connection to the service.
+     */
+    private static final class Link {
+
+        final Socket socket;
+        final DataInputStream in;
+        final DataOutputStream out;
+
+        Link(InetSocketAddress address) throws IOException {
+            socket = new Socket();
+            try {
+                socket.setTcpNoDelay(true);
+                socket.connect(address, CONNECT_TIMEOUT_MILLIS);
+                in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+    }
+
+    private static final class Request {
+
+        final byte type;
+        final long[] data;
+        final CompletableFuture<long[]> reply;
+
+        Request(byte type, long[] data, CompletableFuture<long[]> reply) {
+            this.type = type;
+            this.data = data;
+            this.reply = reply;
+        }
+    }
+
+    /**
+     * Provider of the {@code tcp} transport. Every server connects to
+     * {@code storage.shared_address}; the server with
+     * {@code storage.shared_host = true} also runs the service there, saving
+     * its cooldowns under {@code shared-cooldowns.dat}.
+     */
+    public static final class Provider implements CooldownTransport.Provider {
+
+        static final String SNAPSHOT_FILE = "shared-cooldowns.dat";
+
+        @Override
+        public String getName() {
+            return "tcp";
+        }
+
+        @Override
+        public CooldownTransport open(Path dataDirectory) throws IOException {
+            InetSocketAddress address = PluginSettings.get().getStorageSharedAddress();
+            TcpCooldownServer service = null;
+            if (PluginSettings.get().isStorageSharedHost()) {
+                service = new TcpCooldownServer(address, dataDirectory.resolve(SNAPSHOT_FILE));
+            }
+            return new TcpCooldownTransport(address, service);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.squashcompany.kits.kits.metrics;
+
+import com.squashcompany.kits.kits.Kits;
+import com.squashcompany.kits.kits.config.KitsConfig;
+import com.squashcompany.kits.kits.config.MessageCatalog;
+import com.squashcompany.kits.kits.config.MessageKey;
+import com.squashcompany.kits.kits.config.Messages;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+
+/**
+ * Runtime counters, latency histograms and gauges of the plugin.
+ *
+ * Every {@code record} method is a handful of striped adds and allocates
+ * nothing, so they are safe to call on claim and tick paths. Values from
+ * other components (open pages, tracked players) are pulled through gauges
+ * registered at startup, only when a report is built.
+ */
+public final class KitsMetrics {
+
+    // Claim outcomes, in GrantResult.Status order
+    public static final int CLAIM_GRANTED = 0;
+    public static final int CLAIM_PARTIAL = 1;
+    public static final int CLAIM_REJECTED = 2;
+    public static final int CLAIM_ON_COOLDOWN = 3;
+    public static final int CLAIM_UNAVAILABLE = 4;
+    private static final int CLAIM_OUTCOMES = 5;
+
+    private static final KitsMetrics instance = new KitsMetrics();
+
+    private final LongAdder[] claimsByOutcome = newAdders(CLAIM_OUTCOMES);
+    // Successful claims by kit ordinal; grown when kits are added
+    private volatile LongAdder[] claimsByKit = newAdders(0);
+    private final LatencyHistogram claimLatency = new LatencyHistogram();
+
+    private final LongAdder pageOpens = new LongAdder();
+    private final LatencyHistogram pageOpenLatency = new LatencyHistogram();
+    private final LongAdder updatesSent = new LongAdder();
+    private final LongAdder updatesSuppressed = new LongAdder();
+    private final LongAdder fieldsSuppressed = new LongAdder();
+    private final LongAdder eventsThrottled = new LongAdder();
+
+    private final LatencyHistogram tickDuration = new LatencyHistogram();
+    private final LatencyHistogram tickLag = new LatencyHistogram();
+    private final LongAdder pagesDeferred = new LongAdder();
+    private final LongAdder refreshModeChanges = new LongAdder();
+
+    private final Map<MessageKey, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    // Periodic log dump, null while disabled
+    private ScheduledExecutorService logger;
+
+    private KitsMetrics() {
+    }
+
+    public static KitsMetrics get() {
+        return instance;
+    }
+
+    /**
+     * Record a finished claim attempt.
+     *
+     * @param ordinal The kit ordinal
+     * @param outcome One of the {@code CLAIM_} constants
+     * @param nanos Time spent in the claim
+     */
+    public void recordClaim(int ordinal, int outcome, long nanos) {
+        claimsByOutcome[outcome].increment();
+        claimLatency.record(nanos);
+        if (outcome == CLAIM_GRANTED || outcome == CLAIM_PARTIAL) {
+            LongAdder[] byKit = claimsByKit;
+            if (ordinal >= byKit.length) {
+                byKit = growKits(ordinal + 1);
+            }
+            byKit[ordinal].increment();
+        }
+    }
+
+    private synchronized LongAdder[] growKits(int length) {
+        LongAdder[] byKit = claimsByKit;
+        if (length > byKit.length) {
+            LongAdder[] grown = Arrays.copyOf(byKit, length);
+            for (int i = byKit.length; i < length; i++) {
+                grown[i] = new LongAdder();
+            }
+            claimsByKit = grown;
+            byKit = grown;
+        }
+        return byKit;
+    }
+
+    public void recordPageOpen() {
+        pageOpens.increment();
+    }
+
+    /**
+     * Record the time from a /kits command to its page being sent.
+     */
+    public void recordPageOpenLatency(long nanos) {
+        pageOpenLatency.record(nanos);
+    }
+
+    /**
+     * Record a cooldown refresh: a packet was sent, or skipped because
+     * nothing changed.
+     */
+    public void recordRefresh(boolean sent) {
+        (sent ? updatesSent : updatesSuppressed).increment();
+    }
+
+    /**
+     * Record a field left out of an update because the client already shows
+     * it.
+     */
+    public void recordFieldSuppressed() {
+        fieldsSuppressed.increment();
+    }
+
+    /**
+     * Record a page event dropped because the player sent too many.
+     */
+    public void recordEventThrottled() {
+        eventsThrottled.increment();
+    }
+
+    /**
+     * Record one cooldown ticker run.
+     *
+     * @param durationNanos Time the tick took
+     * @param lagNanos How late the tick started compared to its schedule
+     */
+    public void recordTick(long durationNanos, long lagNanos) {
+        tickDuration.record(durationNanos);
+        tickLag.record(lagNanos);
+    }
+
+    /**
+     * Record pages with a running cooldown left out of a tick by the
+     * per-tick cap while the ticker sheds load.
+     */
+    public void recordPagesDeferred(int count) {
+        pagesDeferred.add(count);
+    }
+
+    public void recordRefreshModeChange() {
+        refreshModeChanges.increment();
+    }
+
+    /**
+     * Register a value sampled whenever a report is built.
+     *
+     * @param line Report line of the gauge, taking the value as {@code {0}}
+     */
+    public void registerGauge(MessageKey line, LongSupplier gauge) {
+        gauges.put(line, gauge);
+    }
+
+    public long getPageOpens() {
+        return pageOpens.sum();
+    }
+
+    public long getUpdatesSent() {
+        return updatesSent.sum();
+    }
+
+    public long getUpdatesSuppressed() {
+        return updatesSuppressed.sum();
+    }
+
+    public long getFieldsSuppressed() {
+        return fieldsSuppressed.sum();
+    }
+
+    public long getEventsThrottled() {
+        return eventsThrottled.sum();
+    }
+
+    public LatencyHistogram getClaimLatency() {
+        return claimLatency;
+    }
+
+    public LatencyHistogram getPageOpenLatency() {
+        return pageOpenLatency;
+    }
+
+    public LatencyHistogram getTickDuration() {
+        return tickDuration;
+    }
+
+    public LatencyHistogram getTickLag() {
+        return tickLag;
+    }
+
+    /**
+     * Summary of every metric in the default locale, one entry per line.
+     */
+    public List<String> report() {
+        return report(MessageCatalog.get().getDefault());
+    }
+
+    /**
+     * Summary of every metric, one entry per line.
+     */
+    public List<String> report(Messages messages) {
+        List<String> lines = new ArrayList<>();
+
+        lines.add(messages.format(MessageKey.STATS_CLAIMS, claimsByOutcome[CLAIM_GRANTED].sum(),
+                claimsByOutcome[CLAIM_PARTIAL].sum(), claimsByOutcome[CLAIM_REJECTED].sum(),
+                claimsByOutcome[CLAIM_ON_COOLDOWN].sum(), claimsByOutcome[CLAIM_UNAVAILABLE].sum()));
+
+        LongAdder[] byKit = claimsByKit;
+        StringBuilder kits = new StringBuilder();
+        for (KitsConfig.KitDefinition kit : KitsConfig.get().getKits()) {
+            long count = kit.getOrdinal() < byKit.length ? byKit[kit.getOrdinal()].sum() : 0;
+            if (count > 0) {
+                kits.append(kits.length() == 0 ? "" : ", ").append(kit.getId()).append(' ').append(count);
+            }
+        }
+        lines.add(kits.length() == 0 ? messages.text(MessageKey.STATS_CLAIMS_BY_KIT_NONE)
+                : messages.format(MessageKey.STATS_CLAIMS_BY_KIT, kits));
+
+        lines.add(messages.format(MessageKey.STATS_CLAIM_LATENCY, describe(claimLatency.snapshot(), messages)));
+        lines.add(messages.format(MessageKey.STATS_PAGE_OPENS, pageOpens.sum()));
+        lines.add(messages.format(MessageKey.STATS_PAGE_OPEN_LATENCY, describe(pageOpenLatency.snapshot(), messages)));
+        lines.add(messages.format(MessageKey.STATS_UPDATES, updatesSent.sum(), updatesSuppressed.sum(),
+                fieldsSuppressed.sum()));
+        lines.add(messages.format(MessageKey.STATS_EVENTS_THROTTLED, eventsThrottled.sum()));
+        lines.add(messages.format(MessageKey.STATS_TICK_DURATION, describe(tickDuration.snapshot(), messages)));
+        lines.add(messages.format(MessageKey.STATS_TICK_LAG, describe(tickLag.snapshot(), messages)));
+        lines.add(messages.format(MessageKey.STATS_TICKER, pagesDeferred.sum(), refreshModeChanges.sum()));
+
+        List<MessageKey> registered = new ArrayList<>(gauges.keySet());
+        registered.sort(null);
+        for (MessageKey line : registered) {
+            lines.add(messages.format(line, gauges.get(line).getAsLong()));
+        }
+        return lines;
+    }
+
+    private static String describe(LatencyHistogram.Snapshot snapshot, Messages messages) {
+        if (snapshot.getCount() == 0) {
+            return messages.text(MessageKey.STATS_NO_SAMPLES);
+        }
+        return messages.format(MessageKey.STATS_LATENCY, snapshot.getCount(), formatNanos(snapshot.getMeanNanos()),
+                formatNanos(snapshot.getQuantileNanos(0.5)), formatNanos(snapshot.getQuantileNanos(0.99)),
+                formatNanos(snapshot.getMaxNanos()));
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + "ns";
+        } else if (nanos < 1_000_000) {
+            return String.format("%.1fus", nanos / 1_000.0);
+        } else if (nanos < 1_000_000_000) {
+            return String.format("%.1fms", nanos / 1_000_000.0);
+        }
+        return String.format("%.2fs", nanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Write the report to the server log every {@code intervalSeconds}.
+     * Does nothing when the interval is 0.
+     */
+    public synchronized void startLogging(int intervalSeconds) {
+        if (intervalSeconds <= 0 || logger != null) {
+            return;
+        }
+        logger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Kits-MetricsLog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.scheduleAtFixedRate(this::logReport, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public synchronized void stopLogging() {
+        if (logger != null) {
+            logger.shutdownNow();
+            logger = null;
+        }
+    }
+
+    private void logReport() {
+        try {
+            for (String line : report()) {
+                Kits.get().getLogger().at(Level.INFO).log("[Metrics] " + line);
+            }
+        } catch (RuntimeException e) {
+            Kits.get().getLogger().at(Level.WARNING).withCause(e).log("Failed to log metrics");
+        }
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
@@ -0,0 +1,259 @@
+package com.squashcompany.kits.kits.pages;
+
+import com.squashcompany.kits.kits.Kits;
+import com.squashcompany.kits.kits.config.KitsConfig;
+import com.squashcompany.kits.kits.config.PluginSettings;
+import com.squashcompany.kits.kits.metrics.KitsMetrics;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Single shared ticker refreshing the cooldown display of every open
+ * {@link KitsPage}.
+ *
+ * Instead of one scheduled task per page, pages register while open and one
+ * task per second resolves the time and kit set once, then walks the
+ * registry in fixed-size batches.
+ *
+ * The ticker watches its own duration, start lag and the number of open
+ * pages. When it falls behind it degrades one {@link Mode} at a time, and
+ * steps back up once ticks have stayed calm for a while. Every change is
+ * logged.
+ */
+final class CooldownTicker {
+
+    private static final CooldownTicker instance = new CooldownTicker();
+
+    private static final int BATCH_SIZE = 256;
+    private static final long PERIOD_NANOS = 1_000_000_000L;
+
+    // Overloaded ticks in a row before degrading, so a single GC pause does not
+    private static final int ESCALATE_TICKS = 2;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Kits-CooldownTicker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Set<KitsPageSession> openPages = ConcurrentHashMap.newKeySet();
+
+    // Limits from settings.properties, read once
+    private final long tickBudgetNanos;
+    private final long lagThresholdNanos;
+    private final int reducedPages;
+    private final int longCooldownInterval;
+    private final int maxPagesPerTick;
+    private final int recoveryTicks;
+
+    private volatile Mode mode = Mode.NORMAL;
+
+    // Ticker-thread state, reused between ticks
+    private final Tick tick = new Tick();
+    private KitsPageSession[] batch = new KitsPageSession[BATCH_SIZE];
+    private int batchCount;
+    private long lastTickEnd;
+    private int overloadedTicks;
+    private int calmTicks;
+    // Round-robin position among eligible pages while the per-tick cap applies
+    private int cursor;
+
+    private CooldownTicker() {
+        PluginSettings settings = PluginSettings.get();
+        tickBudgetNanos = TimeUnit.MILLISECONDS.toNanos(settings.getRefreshTickBudgetMillis());
+        lagThresholdNanos = TimeUnit.MILLISECONDS.toNanos(settings.getRefreshLagThresholdMillis());
+        reducedPages = settings.getRefreshReducedPages();
+        longCooldownInterval = settings.getRefreshLongCooldownInterval();
+        maxPagesPerTick = settings.getRefreshMaxPagesPerTick();
+        recoveryTicks = settings.getRefreshRecoveryTicks();
+
+        scheduler.scheduleWithFixedDelay(this::runTick, PERIOD_NANOS, PERIOD_NANOS, TimeUnit.NANOSECONDS);
+    }
+
+    static CooldownTicker get() {
+        return instance;
+    }
+
+    void register(KitsPageSession page) {
+        openPages.add(page);
+    }
+
+    void unregister(KitsPageSession page) {
+        openPages.remove(page);
+    }
+
+    int getOpenPages() {
+        return openPages.size();
+    }
+
+    Mode getMode() {
+        return mode;
+    }
+
+    private void runTick() {
+        long start = System.nanoTime();
+        Mode current = mode;
+        try {
+            tick.nowSeconds = System.currentTimeMillis() / 1000;
+            tick.kits = KitsConfig.get().getSnapshot();
+            tick.longCooldownStride = current == Mode.NORMAL ? 1 : longCooldownInterval;
+
+            if (current == Mode.SHED) {
+                refreshCapped();
+            } else {
+                for (KitsPageSession page : openPages) {
+                    offer(page);
+                }
+                flush();
+            }
+        } catch (RuntimeException e) {
+            Kits.get().getLogger().at(Level.WARNING).withCause(e).log("Cooldown tick failed");
+        }
+        long end = System.nanoTime();
+        // Fixed-delay schedule: each tick is due one period after the last one ended
+        long lag = lastTickEnd == 0 ? 0 : start - lastTickEnd - PERIOD_NANOS;
+        lastTickEnd = end;
+        KitsMetrics.get().recordTick(end - start, lag);
+
+        adapt(current, end - start, lag);
+    }
+
+    /**
+     * Refresh at most {@code maxPagesPerTick} pages that have a running
+     * cooldown, continuing next tick where this one stopped.
+     */
+    private void refreshCapped() {
+        int from = cursor;
+        int eligible = 0;
+        int refreshed = 0;
+        int next = 0;
+        for (KitsPageSession page : openPages) {
+            if (page.isIdle()) {
+                continue;
+            }
+            int position = eligible++;
+            if (position >= from && refreshed < maxPagesPerTick) {
+                offer(page);
+                refreshed++;
+                next = position + 1;
+            }
+        }
+        // Wrap around to the pages before the cursor
+        if (refreshed < maxPagesPerTick && from > 0) {
+            int position = 0;
+            for (KitsPageSession page : openPages) {
+                if (page.isIdle()) {
+                    continue;
+                }
+                if (position >= from || refreshed >= maxPagesPerTick) {
+                    break;
+                }
+                offer(page);
+                refreshed++;
+                next = ++position;
+            }
+        }
+        flush();
+
+        cursor = next < eligible ? next : 0;
+        // Idle pages had nothing to refresh, so only capped ones count
+        KitsMetrics.get().recordPagesDeferred(eligible - refreshed);
+    }
+
+    /**
+     * Move between modes from the last tick's measurements. Degrades after
+     * {@link #ESCALATE_TICKS} overloaded ticks, recovers one step after
+     * {@code recoveryTicks} calm ones, and never sits below REDUCED while at
+     * least {@code reducedPages} pages are open.
+     */
+    private void adapt(Mode current, long duration, long lag) {
+        int pages = openPages.size();
+        Mode floor = pages >= reducedPages ? Mode.REDUCED : Mode.NORMAL;
+        Mode target = current;
+
+        if (duration > tickBudgetNanos || lag > lagThresholdNanos) {
+            calmTicks = 0;
+            if (++overloadedTicks >= ESCALATE_TICKS) {
+                overloadedTicks = 0;
+                target = current.degraded();
+            }
+        } else if (duration < tickBudgetNanos / 2 && lag < lagThresholdNanos / 2) {
+            overloadedTicks = 0;
+            if (++calmTicks >= recoveryTicks) {
+                calmTicks = 0;
+                target = current.recovered();
+            }
+        } else {
+            overloadedTicks = 0;
+            calmTicks = 0;
+        }
+
+        if (target.ordinal() < floor.ordinal()) {
+            target = floor;
+        }
+        if (target != current) {
+            mode = target;
+            cursor = 0;
+            KitsMetrics.get().recordRefreshModeChange();
+            Kits.get().getLogger().at(Level.INFO).log("Cooldown refresh mode " + current + " -> " + target
+                    + " (" + pages + " pages, tick " + TimeUnit.NANOSECONDS.toMillis(duration)
+                    + " ms, lag " + TimeUnit.NANOSECONDS.toMillis(Math.max(0, lag)) + " ms)");
+        }
+    }
+
+    private void offer(KitsPageSession page) {
+        batch[batchCount++] = page;
+        if (batchCount == BATCH_SIZE) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        for (int i = 0; i < batchCount; i++) {
+            try {
+                batch[i].refreshCooldowns(tick);
+            } catch (RuntimeException e) {
+                // A page whose player left mid-tick; it unregisters on dismiss
+            }
+        }
+        Arrays.fill(batch, 0, batchCount, null);
+        batchCount = 0;
+    }
+
+    /**
+     * Refresh modes, from full resolution to heaviest shedding.
+     */
+    enum Mode {
+        /** Every page, every second. */
+        NORMAL,
+        /** Cooldowns longer than a minute refresh every few seconds. */
+        REDUCED,
+        /** As REDUCED, idle pages are skipped and pages per tick are capped. */
+        SHED;
+
+        Mode degraded() {
+            return this == NORMAL ? REDUCED : SHED;
+        }
+
+        Mode recovered() {
+            return this == SHED ? REDUCED : NORMAL;
+        }
+    }
+
+    /**
+     * Values shared by every page during one tick.
+     */
+    static final class Tick {
+
+        long nowSeconds;
+        KitsConfig.Snapshot kits;
+        // Long cooldowns are refreshed every this many seconds; 1 = every tick
+        int longCooldownStride = 1;
+    }
+}
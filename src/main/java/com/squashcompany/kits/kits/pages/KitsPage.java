@@ -15,114 +15,96 @@ import com.hypixel.hytale.server.core.ui.builder.UICommandBuilder;
 import com.hypixel.hytale.server.core.ui.builder.UIEventBuilder;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
-import com.hypixel.hytale.server.core.ui.ItemGridSlot;
-import com.hypixel.hytale.server.core.inventory.ItemStack;
-import com.squashcompany.kits.kits.config.KitsConfig;
-import com.squashcompany.kits.kits.manager.KitManager;
+import com.squashcompany.kits.kits.config.MessageCatalog;
+import com.squashcompany.kits.kits.manager.HytaleKitInventory;
 
 import javax.annotation.Nonnull;
-import java.util.List;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Native Hytale UI page for the Kits selection menu. Uses
  * InteractiveCustomUIPage with UICommandBuilder and UIEventBuilder.
  *
- * Features: - Decorated container with runic header (Hytale style) - Two kit
- * cards (Basic and VIP) - Dynamic item display - Cooldown status indicators -
- * Confirmation popup - Real-time cooldown updates
+ * Features: - Decorated container with runic header (Hytale style) - Kit
+ * cards rendered from the configured kit list, one page of card slots at a
+ * time - Dynamic item display - Cooldown status indicators - Confirmation
+ * popup - Real-time cooldown updates for the visible cards only
+ *
+ * The page itself only adapts the server API; what is shown and how events
+ * are handled lives in {@link KitsPageSession}.
+ *
+ * One page is kept per online player and reused every time they open /kits,
+ * so a reopen only replays the cached layout and refreshes the status
+ * fields. The page is dropped when the player disconnects.
  */
 public class KitsPage extends InteractiveCustomUIPage<KitsPage.KitsPageData> {
 
-    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor();
+    // playerUUID -> page of the player's current connection
+    private static final Map<UUID, KitsPage> cached = new ConcurrentHashMap<>();
 
-    private final PlayerRef playerRef;
     private final Player player;
-    private final String playerUuid;
-
-    // UI State
-    private boolean popupVisible = false;
-    private String lastClaimedKit = null;
-
-    // Real-time cooldown update task
-    private ScheduledFuture<?> cooldownUpdateTask;
+    private final String language;
+    private final KitsPageSession session;
 
-    public KitsPage(@Nonnull PlayerRef playerRef, @Nonnull Player player) {
+    private KitsPage(@Nonnull PlayerRef playerRef, @Nonnull Player player) {
         super(playerRef, CustomPageLifetime.CanDismiss, KitsPageData.CODEC);
-        this.playerRef = playerRef;
         this.player = player;
-        this.playerUuid = playerRef.getUuid().toString();
-
-        // Start real-time cooldown update task (every 1 second)
-        startCooldownUpdateTask();
+        this.language = playerRef.getLanguage();
+        this.session = new KitsPageSession(
+                playerRef.getUuid(),
+                MessageCatalog.get().forLanguage(playerRef.getLanguage()),
+                new Sink(),
+                text -> playerRef.sendMessage(Message.raw(text)),
+                new HytaleKitInventory(player));
     }
 
     /**
-     * Start the real-time cooldown update task.
+     * The player's kits page, reusing the one from their last /kits unless
+     * they switched language or their player entity was replaced. Must be
+     * called on the player's world thread.
      */
-    private void startCooldownUpdateTask() {
-        cooldownUpdateTask = SCHEDULER.scheduleWithFixedDelay(() -> {
-            try {
-                updateCooldownsRealtime();
-            } catch (Exception e) {
-                // Ignore errors during update
-            }
-        }, 1, 1, TimeUnit.SECONDS);
+    public static KitsPage forPlayer(@Nonnull PlayerRef playerRef, @Nonnull Player player) {
+        UUID uuid = playerRef.getUuid();
+        KitsPage page = cached.get(uuid);
+        if (page == null || page.player != player || !Objects.equals(page.language, playerRef.getLanguage())) {
+            page = new KitsPage(playerRef, player);
+            cached.put(uuid, page);
+        }
+        return page;
     }
 
     /**
-     * Update cooldown displays in real-time.
+     * Drop a player's page when they disconnect.
      */
-    private void updateCooldownsRealtime() {
-        UICommandBuilder builder = new UICommandBuilder();
-        boolean hasUpdates = false;
-
-        // Update Basic Kit cooldown
-        KitsConfig.KitDefinition basicKit = KitsConfig.get().getKit("basic");
-        if (basicKit != null) {
-            long remaining = KitManager.get().getRemainingCooldown(playerUuid, "basic");
-            if (remaining > 0) {
-                builder.set("#BasicStatusLabel.Text", "COOLDOWN: " + formatCooldown(remaining));
-                builder.set("#BtnClaimBasic.Text", formatCooldown(remaining));
-                hasUpdates = true;
-            } else {
-                builder.set("#BasicStatusLabel.Text", "DISPONIVEL");
-                builder.set("#BasicStatusLabel.Style.TextColor", "#7dd87d");
-                builder.set("#BtnClaimBasic.Text", "RESGATAR KIT");
-                hasUpdates = true;
-            }
+    public static void forget(UUID playerUuid) {
+        KitsPage page = cached.remove(playerUuid);
+        if (page != null) {
+            CooldownTicker.get().unregister(page.session);
         }
+    }
 
-        // Update VIP Kit cooldown
-        KitsConfig.KitDefinition vipKit = KitsConfig.get().getKit("vip");
-        if (vipKit != null) {
-            long remaining = KitManager.get().getRemainingCooldown(playerUuid, "vip");
-            if (remaining > 0) {
-                builder.set("#VipStatusLabel.Text", "COOLDOWN: " + formatCooldown(remaining));
-                builder.set("#BtnClaimVip.Text", formatCooldown(remaining));
-                hasUpdates = true;
-            } else {
-                builder.set("#VipStatusLabel.Text", "DISPONIVEL");
-                builder.set("#VipStatusLabel.Style.TextColor", "#7dd87d");
-                builder.set("#BtnClaimVip.Text", "RESGATAR KIT VIP");
-                hasUpdates = true;
-            }
-        }
+    /**
+     * Number of kit pages currently open on the server.
+     */
+    public static int getOpenPages() {
+        return CooldownTicker.get().getOpenPages();
+    }
 
-        if (hasUpdates) {
-            sendUpdate(builder);
-        }
+    /**
+     * Number of pages kept for online players, open or not.
+     */
+    public static int getCachedPages() {
+        return cached.size();
     }
 
     @Override
     public void onDismiss(@Nonnull Ref<EntityStore> ref, @Nonnull Store<EntityStore> store) {
-        // Cancel the cooldown update task when page is closed
-        if (cooldownUpdateTask != null && !cooldownUpdateTask.isCancelled()) {
-            cooldownUpdateTask.cancel(false);
-        }
+        // Stop cooldown updates when page is closed
+        CooldownTicker.get().unregister(session);
+        session.dismiss();
         super.onDismiss(ref, store);
     }
 
@@ -135,37 +117,33 @@ public class KitsPage extends InteractiveCustomUIPage<KitsPage.KitsPageData> {
         // Load the UI file
         uiCommandBuilder.append("Pages/KitsPage.ui");
 
-        // Get kit definitions
-        KitsConfig.KitDefinition basicKit = KitsConfig.get().getKit("basic");
-        KitsConfig.KitDefinition vipKit = KitsConfig.get().getKit("vip");
+        // Receive real-time cooldown updates while open
+        CooldownTicker.get().register(session);
 
-        // Setup Basic Kit card
-        if (basicKit != null) {
-            setupKitCard(uiCommandBuilder, "Basic", basicKit);
-        }
+        session.build(new UICommandUpdate(uiCommandBuilder));
 
-        // Setup VIP Kit card
-        if (vipKit != null) {
-            setupKitCard(uiCommandBuilder, "Vip", vipKit);
+        // ===== BUTTON EVENT BINDINGS =====
+        // Claim button of each card slot
+        for (KitsPageSession.CardSelectors card : KitsPageSession.CARDS) {
+            uiEventBuilder.addEventBinding(
+                    CustomUIEventBindingType.Activating,
+                    card.claimButton,
+                    EventData.of("Button", card.claimEvent),
+                    false
+            );
         }
 
-        // Setup popup state
-        uiCommandBuilder.set("#ConfirmPopup.Visible", this.popupVisible);
-
-        // ===== BUTTON EVENT BINDINGS =====
-        // Basic kit claim button
+        // Page navigation
         uiEventBuilder.addEventBinding(
                 CustomUIEventBindingType.Activating,
-                "#BtnClaimBasic",
-                EventData.of("Button", "ClaimBasic"),
+                "#BtnPrevPage",
+                EventData.of("Button", "PrevPage"),
                 false
         );
-
-        // VIP kit claim button
         uiEventBuilder.addEventBinding(
                 CustomUIEventBindingType.Activating,
-                "#BtnClaimVip",
-                EventData.of("Button", "ClaimVip"),
+                "#BtnNextPage",
+                EventData.of("Button", "NextPage"),
                 false
         );
 
@@ -178,53 +156,6 @@ public class KitsPage extends InteractiveCustomUIPage<KitsPage.KitsPageData> {
         );
     }
 
-    /**
-     * Setup a kit card with dynamic data.
-     */
-    private void setupKitCard(UICommandBuilder builder, String prefix, KitsConfig.KitDefinition kit) {
-        // Kit name and description
-        builder.set("#" + prefix + "KitName.Text", kit.getDisplayName().toUpperCase());
-        builder.set("#" + prefix + "KitDescription.Text", kit.getDescription());
-
-        // Cooldown display
-        builder.set("#" + prefix + "CooldownValue.Text", formatCooldownDisplay(kit.getCooldownSeconds()));
-
-        // Status and button state
-        long remainingCooldown = KitManager.get().getRemainingCooldown(playerUuid, kit.getId());
-        boolean isAvailable = remainingCooldown <= 0;
-
-        if (isAvailable) {
-            builder.set("#" + prefix + "StatusLabel.Text", "DISPONIVEL");
-            builder.set("#" + prefix + "StatusLabel.Style.TextColor", "#7dd87d");
-            builder.set("#BtnClaim" + prefix + ".Text", kit.isVip() ? "RESGATAR KIT VIP" : "RESGATAR KIT");
-        } else {
-            builder.set("#" + prefix + "StatusLabel.Text", "COOLDOWN: " + formatCooldown(remainingCooldown));
-            builder.set("#" + prefix + "StatusLabel.Style.TextColor", "#d87d7d");
-            builder.set("#BtnClaim" + prefix + ".Text", formatCooldown(remainingCooldown));
-        }
-
-        // Setup item displays with ItemGrid and ItemGridSlot
-        List<KitsConfig.KitItem> items = kit.getItems();
-        for (int i = 0; i < 5 && i < items.size(); i++) {
-            KitsConfig.KitItem item = items.get(i);
-            String itemNum = String.valueOf(i + 1);
-
-            // Create ItemGridSlot with ItemStack to show item icon
-            ItemStack itemStack = new ItemStack(item.getItemId(), item.getQuantity());
-            ItemGridSlot[] slots = new ItemGridSlot[]{new ItemGridSlot(itemStack)};
-            builder.set("#" + prefix + "Item" + itemNum + "Grid.Slots", slots);
-
-            // Set quantity label
-            builder.set("#" + prefix + "Item" + itemNum + "Qty.Text", "x" + item.getQuantity());
-        }
-
-        // Hide unused item slots
-        for (int i = items.size(); i < 5; i++) {
-            String itemNum = String.valueOf(i + 1);
-            builder.set("#" + prefix + "Item" + itemNum + ".Visible", false);
-        }
-    }
-
     @Override
     public void handleDataEvent(@Nonnull Ref<EntityStore> ref,
             @Nonnull Store<EntityStore> store,
@@ -235,127 +166,22 @@ public class KitsPage extends InteractiveCustomUIPage<KitsPage.KitsPageData> {
             return;
         }
 
-        switch (data.button) {
-            case "ClaimBasic" ->
-                handleKitClaim("basic");
-            case "ClaimVip" ->
-                handleKitClaim("vip");
-            case "ClosePopup" ->
-                closePopup();
-        }
+        session.handleButton(data.button);
     }
 
     /**
-     * Handle kit claim request.
+     * Sends session changes to the client as UI command packets.
      */
-    private void handleKitClaim(String kitId) {
-        KitsConfig.KitDefinition kit = KitsConfig.get().getKit(kitId);
-
-        if (kit == null) {
-            playerRef.sendMessage(Message.raw("§c[Kits] Kit nao encontrado!"));
-            return;
-        }
-
-        // Check cooldown
-        long remainingCooldown = KitManager.get().getRemainingCooldown(playerUuid, kitId);
-        if (remainingCooldown > 0) {
-            playerRef.sendMessage(Message.raw("§c[Kits] Aguarde " + formatCooldown(remainingCooldown) + " para usar este kit novamente!"));
-            return;
-        }
-
-        // Give the kit
-        boolean success = KitManager.get().giveKit(player, playerRef, kit);
-
-        if (success) {
-            lastClaimedKit = kitId;
+    private final class Sink implements PageSink {
 
-            // Show success popup
-            UICommandBuilder builder = new UICommandBuilder();
-            builder.set("#ConfirmPopup.Visible", true);
-            builder.set("#PopupTitle.Text", "KIT RESGATADO!");
-            builder.set("#PopupMessage.Text", "Voce recebeu o " + kit.getDisplayName() + " com sucesso!");
-
-            // Update kit card status
-            String prefix = kitId.equals("basic") ? "Basic" : "Vip";
-            long newCooldown = kit.getCooldownSeconds();
-            builder.set("#" + prefix + "StatusLabel.Text", "COOLDOWN: " + formatCooldown(newCooldown));
-            builder.set("#" + prefix + "StatusLabel.Style.TextColor", "#d87d7d");
-            builder.set("#BtnClaim" + prefix + ".Text", formatCooldown(newCooldown));
-
-            sendUpdate(builder);
-            popupVisible = true;
-
-            // Send chat message
-            String color = kit.isVip() ? "§6" : "§a";
-            playerRef.sendMessage(Message.raw(color + "[Kits] §fVoce recebeu o " + kit.getDisplayName() + "!"));
-        } else {
-            playerRef.sendMessage(Message.raw("§c[Kits] Erro ao entregar o kit. Verifique seu inventario!"));
+        @Override
+        public PageUpdate begin() {
+            return new UICommandUpdate(new UICommandBuilder());
         }
-    }
 
-    /**
-     * Close the confirmation popup.
-     */
-    private void closePopup() {
-        popupVisible = false;
-        UICommandBuilder builder = new UICommandBuilder();
-        builder.set("#ConfirmPopup.Visible", false);
-        sendUpdate(builder);
-    }
-
-    /**
-     * Get a short display name for an item ID.
-     */
-    private String getItemShortName(String itemId) {
-        return itemId
-                .replace("Weapon_Sword_", "Espada ")
-                .replace("Tool_Pickaxe_", "Picareta ")
-                .replace("Tool_Hatchet_", "Machado ")
-                .replace("Plant_Fruit_", "")
-                .replace("Furniture_Crude_", "")
-                .replace("Iron", "Ferro")
-                .replace("Mithril", "Mithril")
-                .replace("Apple", "Maca")
-                .replace("Torch", "Tocha");
-    }
-
-    /**
-     * Format cooldown for display (e.g., "5m 30s").
-     */
-    private String formatCooldown(long seconds) {
-        if (seconds <= 0) {
-            return "Pronto!";
-        } else if (seconds < 60) {
-            return seconds + "s";
-        } else if (seconds < 3600) {
-            long minutes = seconds / 60;
-            long secs = seconds % 60;
-            if (secs == 0) {
-                return minutes + "m";
-            }
-            return minutes + "m " + secs + "s";
-        } else {
-            long hours = seconds / 3600;
-            long minutes = (seconds % 3600) / 60;
-            if (minutes == 0) {
-                return hours + "h";
-            }
-            return hours + "h " + minutes + "m";
-        }
-    }
-
-    /**
-     * Format cooldown for kit info display (e.g., "5 minutos").
-     */
-    private String formatCooldownDisplay(int seconds) {
-        if (seconds < 60) {
-            return seconds + " segundo" + (seconds != 1 ? "s" : "");
-        } else if (seconds < 3600) {
-            int minutes = seconds / 60;
-            return minutes + " minuto" + (minutes != 1 ? "s" : "");
-        } else {
-            int hours = seconds / 3600;
-            return hours + " hora" + (hours != 1 ? "s" : "");
+        @Override
+        public void send(PageUpdate update) {
+            sendUpdate(((UICommandUpdate) update).builder);
         }
     }
 
@@ -0,0 +1,407 @@
+package com.squashcompany.kits.kits.pages;
+
+import com.squashcompany.kits.kits.config.KitsConfig;
+import com.squashcompany.kits.kits.config.MessageKey;
+import com.squashcompany.kits.kits.config.Messages;
+import com.squashcompany.kits.kits.manager.EventThrottle;
+import com.squashcompany.kits.kits.manager.GrantResult;
+import com.squashcompany.kits.kits.manager.KitInventory;
+import com.squashcompany.kits.kits.manager.KitManager;
+import com.squashcompany.kits.kits.metrics.KitsMetrics;
+
+import java.util.UUID;
+
+/**
+ * State and behaviour of one open kits page, free of server classes.
+ *
+ * The session decides what the client should show and talks to the outside
+ * only through its ports: a {@link PageSink} for UI changes, a
+ * {@link PlayerMessenger} for chat and a {@link KitInventory} for claimed
+ * items. {@link KitsPage} wires it to a real player; the load generator wires
+ * it to in-memory fakes.
+ */
+final class KitsPageSession {
+
+    // Card slots in the .ui file; kits are shown one page of slots at a time
+    static final int CARDS_PER_PAGE = 2;
+    static final int ITEMS_PER_CARD = KitsConfig.MAX_CARD_ITEMS;
+
+    // Dynamic fields of each card slot, remembered so refreshes only send changes
+    private static final int STATUS_TEXT = 0;
+    private static final int STATUS_COLOR = 1;
+    private static final int BUTTON_TEXT = 2;
+    private static final int FIELDS_PER_CARD = 3;
+
+    static final CardSelectors[] CARDS = new CardSelectors[CARDS_PER_PAGE];
+
+    static {
+        for (int slot = 0; slot < CARDS_PER_PAGE; slot++) {
+            CARDS[slot] = new CardSelectors(slot);
+        }
+    }
+
+    private static final String COLOR_AVAILABLE = "#7dd87d";
+    private static final String COLOR_COOLDOWN = "#d87d7d";
+    static final String COLOR_NAME = "#F0E68C";
+    static final String COLOR_NAME_VIP = "#FFD700";
+    static final String COLOR_SECTION = "#96a9be";
+    static final String COLOR_SECTION_VIP = "#e8a83c";
+
+    // Cooldowns above this may be refreshed less often when the ticker is degraded
+    private static final long LONG_COOLDOWN_SECONDS = 60;
+
+    private final UUID playerUuid;
+    private final Messages messages;
+    private final PageSink sink;
+    private final PlayerMessenger messenger;
+    private final KitInventory inventory;
+
+    // UI State
+    private boolean popupVisible = false;
+    private String lastClaimedKit = null;
+
+    // Visible window and the last status values the client received; both
+    // guarded by sentFields since the ticker and world threads share them
+    private final SentFields sentFields = new SentFields(CARDS_PER_PAGE * FIELDS_PER_CARD);
+    private final String[] visibleKits = new String[CARDS_PER_PAGE];
+    private int pageIndex = 0;
+
+    // True once no visible card has a running cooldown; such a page only
+    // changes through its own events, so a loaded ticker may skip it
+    private volatile boolean idle = false;
+
+    // Spreads slowed refreshes of long cooldowns over the interval
+    private final int refreshPhase;
+
+    KitsPageSession(UUID playerUuid, Messages messages, PageSink sink, PlayerMessenger messenger, KitInventory inventory) {
+        this.playerUuid = playerUuid;
+        this.messages = messages;
+        this.sink = sink;
+        this.messenger = messenger;
+        this.inventory = inventory;
+        this.refreshPhase = (int) (playerUuid.getLeastSignificantBits() & Integer.MAX_VALUE);
+    }
+
+    /**
+     * Fill a freshly loaded page, on first open and on every reopen. The
+     * client shows the .ui defaults, so every field is sent; the static part
+     * comes prebuilt from {@link PageFragments}.
+     */
+    void build(PageUpdate update) {
+        KitsMetrics.get().recordPageOpen();
+        KitManager.get().preload(playerUuid);
+
+        // Texts of the client locale
+        update.fragment(PageFragments.get().chrome(messages));
+
+        // Fill the visible card slots
+        synchronized (sentFields) {
+            sentFields.clear();
+            renderPage(update, KitsConfig.get().getSnapshot());
+        }
+
+        // Setup popup state
+        update.flag("#ConfirmPopup.Visible", popupVisible);
+    }
+
+    /**
+     * Update cooldown displays in real-time. Called by the shared
+     * {@link CooldownTicker} once per tick while the page is open. Only the
+     * visible cards are checked and only fields whose text changed are sent;
+     * if nothing changed no packet is sent.
+     *
+     * Cooldowns longer than a minute are only refreshed every
+     * {@code tick.longCooldownStride} seconds, staggered per player.
+     */
+    void refreshCooldowns(CooldownTicker.Tick tick) {
+        PageUpdate update = null;
+        boolean cooling = false;
+        boolean longDue = tick.longCooldownStride <= 1
+                || Math.floorMod(tick.nowSeconds + refreshPhase, tick.longCooldownStride) == 0;
+
+        // Keeps the player's cooldowns loaded while the page is open
+        KitManager.get().preload(playerUuid);
+
+        synchronized (sentFields) {
+            for (int slot = 0; slot < CARDS_PER_PAGE; slot++) {
+                String kitId = visibleKits[slot];
+                KitsConfig.KitDefinition kit = kitId != null ? tick.kits.getKit(kitId) : null;
+                if (kit != null) {
+                    long remaining = KitManager.get().getRemainingCooldown(playerUuid, kit, tick.nowSeconds);
+                    if (remaining > 0) {
+                        cooling = true;
+                        if (remaining > LONG_COOLDOWN_SECONDS && !longDue) {
+                            continue;
+                        }
+                    }
+                    update = queueStatus(update, slot, kit, remaining);
+                }
+            }
+            idle = !cooling;
+        }
+
+        KitsMetrics.get().recordRefresh(update != null);
+        if (update != null) {
+            sink.send(update);
+        }
+    }
+
+    /**
+     * Whether the last refresh found no running cooldown on screen.
+     */
+    boolean isIdle() {
+        return idle;
+    }
+
+    /**
+     * Handle a button event from the client. Claims and page changes beyond
+     * the player's {@link EventThrottle} allowance are dropped before
+     * anything else runs. Closing the popup only hides it and is always
+     * handled, so a throttled close cannot leave it stuck on screen.
+     */
+    void handleButton(String button) {
+        switch (button) {
+            case "PrevPage" -> {
+                if (tryAcquire()) {
+                    changePage(-1);
+                }
+            }
+            case "NextPage" -> {
+                if (tryAcquire()) {
+                    changePage(1);
+                }
+            }
+            case "ClosePopup" ->
+                closePopup();
+            default -> {
+                for (int slot = 0; slot < CARDS_PER_PAGE; slot++) {
+                    if (CARDS[slot].claimEvent.equals(button)) {
+                        if (tryAcquire()) {
+                            handleKitClaim(slot);
+                        }
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Take one event from the player's allowance, counting it if none is
+     * left.
+     */
+    private boolean tryAcquire() {
+        if (EventThrottle.get().tryAcquire(playerUuid)) {
+            return true;
+        }
+        KitsMetrics.get().recordEventThrottled();
+        return false;
+    }
+
+    /**
+     * Queue the status fields of a card slot that differ from what the client
+     * already shows.
+     *
+     * @param update Batch collecting changes, or null if none yet
+     * @return The batch holding the queued changes, or null if none
+     */
+    private PageUpdate queueStatus(PageUpdate update, int slot, KitsConfig.KitDefinition kit, long remaining) {
+        String statusText;
+        String statusColor;
+        String buttonText;
+        if (remaining > 0) {
+            statusText = messages.cooldownStatus(remaining);
+            statusColor = COLOR_COOLDOWN;
+            buttonText = messages.duration(remaining);
+        } else {
+            statusText = messages.text(MessageKey.PAGE_STATUS_AVAILABLE);
+            statusColor = COLOR_AVAILABLE;
+            buttonText = messages.text(kit.isVip() ? MessageKey.PAGE_BUTTON_CLAIM_VIP : MessageKey.PAGE_BUTTON_CLAIM);
+        }
+
+        String[] selectors = CARDS[slot].status;
+        int base = slot * FIELDS_PER_CARD;
+        update = queueField(update, base + STATUS_TEXT, selectors[STATUS_TEXT], statusText);
+        update = queueField(update, base + STATUS_COLOR, selectors[STATUS_COLOR], statusColor);
+        update = queueField(update, base + BUTTON_TEXT, selectors[BUTTON_TEXT], buttonText);
+        return update;
+    }
+
+    private PageUpdate queueField(PageUpdate update, int field, String selector, String value) {
+        if (!sentFields.update(field, value)) {
+            KitsMetrics.get().recordFieldSuppressed();
+            return update;
+        }
+        if (update == null) {
+            update = sink.begin();
+        }
+        update.text(selector, value);
+        return update;
+    }
+
+    /**
+     * Fill every card slot from the current page of kits and update the page
+     * navigation. The static part is replayed from {@link PageFragments}; only
+     * the status fields are computed for this player. Caller must hold
+     * {@code sentFields}.
+     */
+    private void renderPage(PageUpdate update, KitsConfig.Snapshot kits) {
+        PageFragments.Page page = PageFragments.get().page(kits, messages, pageIndex);
+        pageIndex = page.index;
+        update.page(page);
+        // New cards on screen; let the next tick decide again
+        idle = false;
+
+        // Status and button state, sent only where the slot showed something else
+        long currentTime = System.currentTimeMillis() / 1000;
+        for (int slot = 0; slot < CARDS_PER_PAGE; slot++) {
+            KitsConfig.KitDefinition kit = page.kits[slot];
+            visibleKits[slot] = kit != null ? kit.getId() : null;
+            if (kit != null) {
+                long remainingCooldown = KitManager.get().getRemainingCooldown(playerUuid, kit, currentTime);
+                queueStatus(update, slot, kit, remainingCooldown);
+            }
+        }
+    }
+
+    /**
+     * Move the visible window of kits by whole pages. Nothing is sent when
+     * the page would not change, as on NextPage from the last page.
+     */
+    private void changePage(int delta) {
+        PageUpdate update;
+        synchronized (sentFields) {
+            KitsConfig.Snapshot kits = KitsConfig.get().getSnapshot();
+            int target = PageFragments.get().page(kits, messages, pageIndex + delta).index;
+            if (target == pageIndex) {
+                return;
+            }
+            pageIndex = target;
+            update = sink.begin();
+            renderPage(update, kits);
+        }
+        sink.send(update);
+    }
+
+    /**
+     * Handle kit claim request.
+     */
+    private void handleKitClaim(int slot) {
+        String kitId;
+        synchronized (sentFields) {
+            kitId = visibleKits[slot];
+        }
+        if (kitId == null) {
+            return;
+        }
+        KitsConfig.KitDefinition kit = KitsConfig.get().getKit(kitId);
+
+        if (kit == null) {
+            messenger.send(messages.text(MessageKey.CHAT_KIT_NOT_FOUND));
+            return;
+        }
+
+        // Reserve the cooldown and give the kit in one step
+        GrantResult result = KitManager.get().tryClaim(playerUuid, inventory, kit);
+
+        if (result.getStatus() == GrantResult.Status.UNAVAILABLE) {
+            messenger.send(messages.text(MessageKey.CHAT_UNAVAILABLE));
+        } else if (result.getStatus() == GrantResult.Status.ON_COOLDOWN) {
+            messenger.send(messages.format(MessageKey.CHAT_COOLDOWN, messages.duration(result.getRemainingCooldown())));
+        } else if (result.isSuccess()) {
+            lastClaimedKit = kitId;
+
+            // Show success popup
+            PageUpdate update = sink.begin();
+            update.flag("#ConfirmPopup.Visible", true);
+            update.text("#PopupTitle.Text", messages.text(MessageKey.PAGE_POPUP_TITLE));
+            update.text("#PopupMessage.Text", messages.format(MessageKey.PAGE_POPUP_MESSAGE, kit.getDisplayName()));
+
+            // Update kit card status if it is still on screen
+            synchronized (sentFields) {
+                if (kitId.equals(visibleKits[slot])) {
+                    queueStatus(update, slot, kit, kit.getCooldownSeconds());
+                }
+                idle = false;
+            }
+
+            sink.send(update);
+            popupVisible = true;
+
+            // Send chat message
+            MessageKey received = kit.isVip() ? MessageKey.CHAT_RECEIVED_VIP : MessageKey.CHAT_RECEIVED;
+            messenger.send(messages.format(received, kit.getDisplayName()));
+            if (result.getStatus() == GrantResult.Status.PARTIAL) {
+                messenger.send(messages.format(MessageKey.CHAT_PARTIAL, result.getLeftovers().size()));
+            }
+        } else {
+            messenger.send(messages.text(MessageKey.CHAT_INVENTORY_FULL));
+        }
+    }
+
+    /**
+     * Forget transient UI state when the page is closed, so the next open
+     * starts without the popup. The visible page of kits is kept.
+     */
+    void dismiss() {
+        popupVisible = false;
+    }
+
+    /**
+     * Close the confirmation popup.
+     */
+    private void closePopup() {
+        popupVisible = false;
+        PageUpdate update = sink.begin();
+        update.flag("#ConfirmPopup.Visible", false);
+        sink.send(update);
+    }
+
+    /**
+     * Selectors of one card slot in KitsPage.ui, built and interned once.
+     */
+    static final class CardSelectors {
+
+        final String card;
+        final String bannerStandard;
+        final String bannerVip;
+        final String name;
+        final String nameColor;
+        final String description;
+        final String sectionHeader;
+        final String sectionHeaderColor;
+        final String cooldown;
+        final String cooldownCaption;
+        final String claimButton;
+        final String claimEvent;
+        final String[] status = new String[FIELDS_PER_CARD];
+        final String[] item = new String[ITEMS_PER_CARD];
+        final String[] itemGrid = new String[ITEMS_PER_CARD];
+        final String[] itemQty = new String[ITEMS_PER_CARD];
+
+        CardSelectors(int slot) {
+            String prefix = "#Card" + slot;
+            card = (prefix + "KitCard.Visible").intern();
+            bannerStandard = (prefix + "BannerStandard.Visible").intern();
+            bannerVip = (prefix + "BannerVip.Visible").intern();
+            name = (prefix + "KitName.Text").intern();
+            nameColor = (prefix + "KitName.Style.TextColor").intern();
+            description = (prefix + "KitDescription.Text").intern();
+            sectionHeader = (prefix + "SectionHeader.Text").intern();
+            sectionHeaderColor = (prefix + "SectionHeader.Style.TextColor").intern();
+            cooldown = (prefix + "CooldownValue.Text").intern();
+            cooldownCaption = (prefix + "CooldownCaption.Text").intern();
+            claimButton = ("#BtnClaimCard" + slot).intern();
+            claimEvent = ("Claim" + slot).intern();
+            status[STATUS_TEXT] = (prefix + "StatusLabel.Text").intern();
+            status[STATUS_COLOR] = (prefix + "StatusLabel.Style.TextColor").intern();
+            status[BUTTON_TEXT] = (claimButton + ".Text").intern();
+            for (int i = 0; i < ITEMS_PER_CARD; i++) {
+                String itemPrefix = prefix + "Item" + (i + 1);
+                item[i] = (itemPrefix + ".Visible").intern();
+                itemGrid[i] = (itemPrefix + "Grid.Slots").intern();
+                itemQty[i] = (itemPrefix + "Qty.Text").intern();
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.squashcompany.kits.kits.pages;
+
+import com.squashcompany.kits.kits.config.KitsConfig;
+import com.squashcompany.kits.kits.config.MessageKey;
+import com.squashcompany.kits.kits.config.Messages;
+import com.squashcompany.kits.kits.manager.KitTemplates;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Static part of every {@link KitsPage} page, compiled once per config
+ * snapshot and locale.
+ *
+ * Card visibility, banners, names, descriptions, cooldown labels, item grids,
+ * quantities and page navigation are the same for every player of a locale,
+ * so opening a page or switching pages replays a prebuilt {@link UIFragment}
+ * and only the per-player status fields are computed on the spot.
+ *
+ * A page's layout (which kits it shows) is known up front; its fragment is
+ * compiled the first time it is drawn, since item grids need server item
+ * classes that headless runs do not have.
+ */
+final class PageFragments {
+
+    private static final PageFragments instance = new PageFragments();
+
+    private volatile Compiled compiled;
+
+    // Fixed page texts per locale
+    private final Map<Messages, UIFragment> chrome = new ConcurrentHashMap<>();
+
+    private PageFragments() {
+    }
+
+    static PageFragments get() {
+        return instance;
+    }
+
+    /**
+     * Get the texts of the page that do not depend on kits, sent once when
+     * the page is built.
+     */
+    UIFragment chrome(Messages messages) {
+        return chrome.computeIfAbsent(messages, PageFragments::compileChrome);
+    }
+
+    /**
+     * Get a page of kits.
+     *
+     * @param pageIndex Requested page, clamped to the pages that exist
+     */
+    Page page(KitsConfig.Snapshot snapshot, Messages messages, int pageIndex) {
+        Compiled current = compiled;
+        if (current == null || current.source != snapshot) {
+            current = compile(snapshot);
+        }
+        Page[] pages = current.byLocale.computeIfAbsent(messages, locale -> compilePages(snapshot, locale));
+        return pages[Math.max(0, Math.min(pageIndex, pages.length - 1))];
+    }
+
+    private synchronized Compiled compile(KitsConfig.Snapshot snapshot) {
+        Compiled current = compiled;
+        if (current != null && current.source == snapshot) {
+            return current;
+        }
+        current = new Compiled(snapshot);
+        compiled = current;
+        return current;
+    }
+
+    private static UIFragment compileChrome(Messages messages) {
+        UIFragment.Builder fragment = new UIFragment.Builder();
+        fragment.text("#PageTitle.Text", messages.text(MessageKey.PAGE_TITLE));
+        fragment.text("#HeaderLine1.Text", messages.text(MessageKey.PAGE_HEADER_LINE1));
+        fragment.text("#HeaderLine2.Text", messages.text(MessageKey.PAGE_HEADER_LINE2));
+        fragment.text("#BtnPrevPage.Text", messages.text(MessageKey.PAGE_BUTTON_PREVIOUS));
+        fragment.text("#BtnNextPage.Text", messages.text(MessageKey.PAGE_BUTTON_NEXT));
+        fragment.text("#BtnPopupClose.Text", messages.text(MessageKey.PAGE_BUTTON_CLOSE));
+        for (KitsPageSession.CardSelectors card : KitsPageSession.CARDS) {
+            fragment.text(card.cooldownCaption, messages.text(MessageKey.PAGE_COOLDOWN_CAPTION));
+        }
+        return fragment.build();
+    }
+
+    private static Page[] compilePages(KitsConfig.Snapshot snapshot, Messages messages) {
+        List<KitsConfig.KitDefinition> kits = snapshot.getKits();
+        int pageCount = Math.max(1, (kits.size() + KitsPageSession.CARDS_PER_PAGE - 1) / KitsPageSession.CARDS_PER_PAGE);
+        Page[] pages = new Page[pageCount];
+        for (int index = 0; index < pageCount; index++) {
+            KitsConfig.KitDefinition[] visible = new KitsConfig.KitDefinition[KitsPageSession.CARDS_PER_PAGE];
+            int first = index * KitsPageSession.CARDS_PER_PAGE;
+            for (int slot = 0; slot < visible.length && first + slot < kits.size(); slot++) {
+                visible[slot] = kits.get(first + slot);
+            }
+            pages[index] = new Page(index, pageCount, visible, messages);
+        }
+        return pages;
+    }
+
+    private static UIFragment compilePage(Page page) {
+        UIFragment.Builder fragment = new UIFragment.Builder();
+        for (int slot = 0; slot < KitsPageSession.CARDS_PER_PAGE; slot++) {
+            KitsPageSession.CardSelectors card = KitsPageSession.CARDS[slot];
+            KitsConfig.KitDefinition kit = page.kits[slot];
+            fragment.flag(card.card, kit != null);
+            if (kit != null) {
+                compileCard(fragment, card, kit, page.messages);
+            }
+        }
+
+        fragment.flag("#PageNav.Visible", page.pageCount > 1);
+        fragment.text("#PageLabel.Text", (page.index + 1) + " / " + page.pageCount);
+        return fragment.build();
+    }
+
+    private static void compileCard(UIFragment.Builder fragment, KitsPageSession.CardSelectors card, KitsConfig.KitDefinition kit, Messages messages) {
+        // Banner, kit name and description
+        fragment.flag(card.bannerStandard, !kit.isVip());
+        fragment.flag(card.bannerVip, kit.isVip());
+        fragment.text(card.name, kit.getDisplayName().toUpperCase());
+        fragment.text(card.nameColor, kit.isVip() ? KitsPageSession.COLOR_NAME_VIP : KitsPageSession.COLOR_NAME);
+        fragment.text(card.description, kit.getDescription());
+        fragment.text(card.sectionHeader, messages.text(kit.isVip() ? MessageKey.PAGE_SECTION_ITEMS_VIP : MessageKey.PAGE_SECTION_ITEMS));
+        fragment.text(card.sectionHeaderColor, kit.isVip() ? KitsPageSession.COLOR_SECTION_VIP : KitsPageSession.COLOR_SECTION);
+
+        // Cooldown display
+        fragment.text(card.cooldown, messages.period(kit.getCooldownSeconds()));
+
+        // Item displays with the kit's prebuilt ItemGridSlots
+        KitTemplates.KitTemplate template = KitTemplates.get().get(kit);
+        for (int i = 0; i < KitsPageSession.ITEMS_PER_CARD; i++) {
+            if (i < template.getDisplayCount()) {
+                fragment.flag(card.item[i], true);
+                fragment.slots(card.itemGrid[i], template.getDisplaySlots(i));
+                fragment.text(card.itemQty[i], template.getQuantityLabel(i));
+            } else {
+                // Hide unused item slots
+                fragment.flag(card.item[i], false);
+            }
+        }
+    }
+
+    /**
+     * Pages compiled from one snapshot, per locale.
+     */
+    private static final class Compiled {
+
+        final KitsConfig.Snapshot source;
+        final Map<Messages, Page[]> byLocale = new ConcurrentHashMap<>();
+
+        Compiled(KitsConfig.Snapshot source) {
+            this.source = source;
+        }
+    }
+
+    /**
+     * One page of card slots: the kits it shows and the commands that draw
+     * them.
+     */
+    static final class Page {
+
+        final int index;
+        final int pageCount;
+        // Kit per card slot, null for empty slots
+        final KitsConfig.KitDefinition[] kits;
+        final Messages messages;
+
+        // Compiled on first use; racing threads build equal fragments
+        private volatile UIFragment fragment;
+
+        Page(int index, int pageCount, KitsConfig.KitDefinition[] kits, Messages messages) {
+            this.index = index;
+            this.pageCount = pageCount;
+            this.kits = kits;
+            this.messages = messages;
+        }
+
+        UIFragment fragment() {
+            UIFragment compiled = fragment;
+            if (compiled == null) {
+                compiled = compilePage(this);
+                fragment = compiled;
+            }
+            return compiled;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.squashcompany.kits.kits.pages;
+
+/**
+ * Where a {@link KitsPageSession} sends changes for the client.
+ *
+ * {@link KitsPage} sends them as UI command packets; the load generator
+ * records them in memory.
+ */
+interface PageSink {
+
+    /**
+     * Start a new batch of changes.
+     */
+    PageUpdate begin();
+
+    /**
+     * Send a batch started by {@link #begin()}.
+     */
+    void send(PageUpdate update);
+}
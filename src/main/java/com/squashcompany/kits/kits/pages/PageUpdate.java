@@ -0,0 +1,23 @@
+package com.squashcompany.kits.kits.pages;
+
+/**
+ * One batch of changes to a kits page, in the order they are applied.
+ */
+interface PageUpdate {
+
+    void text(String selector, String value);
+
+    void flag(String selector, boolean value);
+
+    /**
+     * Replay prebuilt commands, e.g. the fixed page texts.
+     */
+    void fragment(UIFragment fragment);
+
+    /**
+     * Draw the static part of a page of kits. Kept apart from
+     * {@link #fragment} so sinks that do not render never compile the page's
+     * item grids.
+     */
+    void page(PageFragments.Page page);
+}
@@ -0,0 +1,10 @@
+package com.squashcompany.kits.kits.pages;
+
+/**
+ * Chat messages from a kits page to its player.
+ */
+@FunctionalInterface
+interface PlayerMessenger {
+
+    void send(String text);
+}
@@ -0,0 +1,37 @@
+package com.squashcompany.kits.kits.pages;
+
+import java.util.Arrays;
+
+/**
+ * Remembers the last value sent to the client for each dynamic field of a
+ * page, so refreshes can skip fields the client already shows.
+ */
+final class SentFields {
+
+    private final String[] values;
+
+    SentFields(int fields) {
+        this.values = new String[fields];
+    }
+
+    /**
+     * Record a value for a field.
+     *
+     * @return true if it differs from the last value sent and must be sent
+     */
+    boolean update(int field, String value) {
+        String previous = values[field];
+        if (previous == value || (previous != null && previous.equals(value))) {
+            return false;
+        }
+        values[field] = value;
+        return true;
+    }
+
+    /**
+     * Forget everything, e.g. after the page was rebuilt from its .ui file.
+     */
+    void clear() {
+        Arrays.fill(values, null);
+    }
+}
@@ -0,0 +1,35 @@
+package com.squashcompany.kits.kits.pages;
+
+import com.hypixel.hytale.server.core.ui.builder.UICommandBuilder;
+
+/**
+ * {@link PageUpdate} collecting into a {@link UICommandBuilder}.
+ */
+final class UICommandUpdate implements PageUpdate {
+
+    final UICommandBuilder builder;
+
+    UICommandUpdate(UICommandBuilder builder) {
+        this.builder = builder;
+    }
+
+    @Override
+    public void text(String selector, String value) {
+        builder.set(selector, value);
+    }
+
+    @Override
+    public void flag(String selector, boolean value) {
+        builder.set(selector, value);
+    }
+
+    @Override
+    public void fragment(UIFragment fragment) {
+        fragment.applyTo(builder);
+    }
+
+    @Override
+    public void page(PageFragments.Page page) {
+        page.fragment().applyTo(builder);
+    }
+}
@@ -0,0 +1,88 @@
+package com.squashcompany.kits.kits.pages;
+
+import com.hypixel.hytale.server.core.ui.ItemGridSlot;
+import com.hypixel.hytale.server.core.ui.builder.UICommandBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable list of UI set commands, compiled once and replayed into any
+ * number of {@link UICommandBuilder}s.
+ */
+final class UIFragment {
+
+    private static final byte TEXT = 0;
+    private static final byte FLAG = 1;
+    private static final byte SLOTS = 2;
+
+    private final String[] selectors;
+    private final Object[] values;
+    private final byte[] kinds;
+
+    private UIFragment(String[] selectors, Object[] values, byte[] kinds) {
+        this.selectors = selectors;
+        this.values = values;
+        this.kinds = kinds;
+    }
+
+    /**
+     * Number of commands.
+     */
+    int size() {
+        return kinds.length;
+    }
+
+    /**
+     * Replay every command into a builder, in the order they were added.
+     */
+    void applyTo(UICommandBuilder builder) {
+        for (int i = 0; i < kinds.length; i++) {
+            switch (kinds[i]) {
+                case TEXT ->
+                    builder.set(selectors[i], (String) values[i]);
+                case FLAG ->
+                    builder.set(selectors[i], (Boolean) values[i]);
+                default ->
+                    builder.set(selectors[i], (ItemGridSlot[]) values[i]);
+            }
+        }
+    }
+
+    /**
+     * Collects commands for a new fragment.
+     */
+    static final class Builder {
+
+        private final List<String> selectors = new ArrayList<>();
+        private final List<Object> values = new ArrayList<>();
+        private final List<Byte> kinds = new ArrayList<>();
+
+        Builder text(String selector, String value) {
+            return add(selector, value, TEXT);
+        }
+
+        Builder flag(String selector, boolean value) {
+            return add(selector, value, FLAG);
+        }
+
+        Builder slots(String selector, ItemGridSlot[] value) {
+            return add(selector, value, SLOTS);
+        }
+
+        private Builder add(String selector, Object value, byte kind) {
+            selectors.add(selector);
+            values.add(value);
+            kinds.add(kind);
+            return this;
+        }
+
+        UIFragment build() {
+            byte[] kindArray = new byte[kinds.size()];
+            for (int i = 0; i < kindArray.length; i++) {
+                kindArray[i] = kinds.get(i);
+            }
+            return new UIFragment(selectors.toArray(new String[0]), values.toArray(), kindArray);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.squashcompany.kits.kits.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Preallocated multi-producer / single-consumer ring of fixed-width records.
+ *
+ * Producers claim a sequence with {@link #tryClaim()}, write their fields
+ * into {@link #data()} starting at {@link #offset(long)} and then call
+ * {@link #publish(long)}. Claiming never blocks: when the ring is full it
+ * returns -1 and the caller decides what to drop. A single consumer thread
+ * reads published records in order with {@link #drain(Handler, int)}.
+ */
+public final class RecordRing {
+
+    private static final VarHandle PUBLISHED = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] data;
+    private final long[] published;
+    private final int width;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * @param capacity Number of records, rounded up to a power of two
+     * @param width Number of long fields per record
+     */
+    public RecordRing(int capacity, int width) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.data = new long[size * width];
+        this.published = new long[size];
+        this.width = width;
+        this.mask = size - 1;
+    }
+
+    /**
+     * Claim the next slot.
+     *
+     * @return The claimed sequence, or -1 if the ring is full
+     */
+    public long tryClaim() {
+        while (true) {
+            long current = tail.get();
+            if (current - head > mask) {
+                return -1;
+            }
+            if (tail.compareAndSet(current, current + 1)) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Offset of the first field of a claimed sequence in {@link #data()}.
+     */
+    public int offset(long sequence) {
+        return (int) (sequence & mask) * width;
+    }
+
+    public long[] data() {
+        return data;
+    }
+
+    /**
+     * Make a claimed record visible to the consumer.
+     */
+    public void publish(long sequence) {
+        PUBLISHED.setRelease(published, (int) (sequence & mask), sequence + 1);
+    }
+
+    /**
+     * Hand published records to the handler in sequence order. Must only be
+     * called from the consumer thread.
+     *
+     * @return Number of records consumed
+     */
+    public int drain(Handler handler, int max) {
+        long position = head;
+        int count = 0;
+        while (count < max) {
+            int slot = (int) (position & mask);
+            if ((long) PUBLISHED.getAcquire(published, slot) != position + 1) {
+                break;
+            }
+            handler.onRecord(data, slot * width);
+            position++;
+            count++;
+        }
+        if (count > 0) {
+            head = position;
+        }
+        return count;
+    }
+
+    /**
+     * Number of claimed records not yet drained. Approximate under contention.
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Receives records during {@link #drain(Handler, int)}.
+     */
+    @FunctionalInterface
+    public interface Handler {
+
+        void onRecord(long[] data, int offset);
+    }
+}
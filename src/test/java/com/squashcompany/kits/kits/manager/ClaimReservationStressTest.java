@@ -0,0 +1,95 @@
+package com.squashcompany.kits.kits.manager;
+
+import com.squashcompany.kits.kits.config.KitsConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Duplicate-grant stress check: many threads race to reserve the same few
+ * player cooldowns, rolling some reservations back as a rejected grant
+ * would. Each key counts the reservations currently held; a count above one
+ * means two claims won the same cooldown.
+ */
+class ClaimReservationStressTest {
+
+    private static final int PLAYERS = 64;
+    private static final int THREADS = 8;
+    private static final int CLAIMS_PER_THREAD = 200_000;
+
+    @Test
+    void racingClaimsNeverReserveTheSameCooldownTwice() throws InterruptedException {
+        KitsConfig.KitDefinition[] kits = KitsConfig.get().getKits().toArray(new KitsConfig.KitDefinition[0]);
+        assertTrue(kits.length > 0, "No bundled kits to claim");
+        AtomicIntegerArray held = new AtomicIntegerArray(PLAYERS * kits.length);
+        AtomicBoolean duplicate = new AtomicBoolean();
+        AtomicLong reservations = new AtomicLong();
+        AtomicLong releases = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int player = 0; player < PLAYERS; player++) {
+            KitManager.get().clearCooldowns(new UUID(player, ~player));
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < CLAIMS_PER_THREAD; i++) {
+                        claim(kits, held, duplicate, reservations, releases);
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    done.countDown();
+                }
+            }, "Claimer-" + t);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        start.countDown();
+
+        assertTrue(done.await(2, TimeUnit.MINUTES), "Claimers did not finish");
+        if (failure.get() != null) {
+            throw new AssertionError("A claimer failed", failure.get());
+        }
+        assertFalse(duplicate.get(), "A kit cooldown was reserved twice");
+        assertTrue(reservations.get() > 0, "No claim reserved a cooldown");
+        assertTrue(releases.get() > 0, "No reservation was released");
+    }
+
+    private static void claim(KitsConfig.KitDefinition[] kits, AtomicIntegerArray held, AtomicBoolean duplicate,
+                              AtomicLong reservations, AtomicLong releases) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int player = random.nextInt(PLAYERS);
+        int kitIndex = random.nextInt(kits.length);
+        KitsConfig.KitDefinition kit = kits[kitIndex];
+        int key = player * kits.length + kitIndex;
+
+        long reserved = KitManager.get().reserve(player, ~player, kit);
+        if (reserved < 0) {
+            return;
+        }
+        reservations.incrementAndGet();
+        if (held.incrementAndGet(key) > 1) {
+            duplicate.set(true);
+        }
+        if (random.nextInt(4) == 0) {
+            // Rejected grant: give the slot back
+            held.decrementAndGet(key);
+            KitManager.get().release(player, ~player, kit, reserved);
+            releases.incrementAndGet();
+        }
+    }
+}
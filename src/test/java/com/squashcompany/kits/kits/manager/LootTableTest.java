@@ -0,0 +1,156 @@
+package com.squashcompany.kits.kits.manager;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.squashcompany.kits.kits.config.KitsConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Loot draws must come up at the rates of their weights. Tables of several
+ * shapes are sampled with fixed seeds and checked with a chi-square test at
+ * p = 0.001; entries expected fewer than 5 times are pooled first, as the
+ * test requires. Kit rolls must never draw the same entry twice.
+ */
+class LootTableTest {
+
+    private static final int DRAWS = 2_000_000;
+    // Standard normal quantile for a one-sided p of 0.001
+    private static final double Z_CRITICAL = 3.09;
+    // Smallest expected count per bin for the chi-square approximation to hold
+    private static final double MIN_EXPECTED = 5;
+
+    @Test
+    void singleEntryAlwaysComesUp() {
+        LootTable table = new LootTable(new int[] {7});
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(0, table.sample(random));
+        }
+    }
+
+    @Test
+    void uniformWeights() {
+        assertMatchesWeights(new int[] {1, 1, 1, 1}, 2);
+    }
+
+    @Test
+    void skewedWeights() {
+        assertMatchesWeights(new int[] {60, 30, 9, 1}, 3);
+    }
+
+    @Test
+    void rareEntriesNextToADominantOne() {
+        assertMatchesWeights(new int[] {1_000_000, 1, 1, 1, 1, 1, 1, 1}, 4);
+    }
+
+    @Test
+    void doublingWeights() {
+        assertMatchesWeights(new int[] {1, 2, 4, 8, 16, 32, 64, 128, 256, 512, 1024}, 5);
+    }
+
+    @Test
+    void randomWeights() {
+        SplittableRandom random = new SplittableRandom(6);
+        int[] weights = new int[200];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = 1 + random.nextInt(1000);
+        }
+        assertMatchesWeights(weights, 7);
+    }
+
+    @Test
+    void rejectsEmptyAndNonPositiveWeights() {
+        assertThrows(IllegalArgumentException.class, () -> new LootTable(new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> new LootTable(new int[] {3, 0}));
+        assertThrows(IllegalArgumentException.class, () -> new LootTable(new int[] {-1}));
+    }
+
+    @Test
+    void kitRollsDrawDifferentEntries() {
+        List<KitsConfig.LootEntry> loot = List.of(
+                new KitsConfig.LootEntry("Common", 1, 4, 1000),
+                new KitsConfig.LootEntry("Rare_A", 1, 1, 1),
+                new KitsConfig.LootEntry("Rare_B", 1, 1, 1),
+                new KitsConfig.LootEntry("Rare_C", 1, 1, 1));
+        SplittableRandom random = new SplittableRandom(3);
+        for (int rolls = 1; rolls <= loot.size(); rolls++) {
+            KitTemplates.KitTemplate template = new KitTemplates.KitTemplate(new KitsConfig.KitDefinition("crate",
+                    "Crate", "Test crate", 0, false, "Fixed", List.of(new KitsConfig.KitItem("Fixed", 1)), loot, rolls));
+            for (int i = 0; i < 10_000; i++) {
+                List<ItemStack> stacks = template.roll(random);
+                assertEquals(1 + rolls, stacks.size(), "Stacks per claim");
+                assertEquals("Fixed", stacks.get(0).getItemId(), "First stack");
+                Set<String> drawn = new HashSet<>();
+                for (ItemStack stack : stacks.subList(1, stacks.size())) {
+                    assertTrue(drawn.add(stack.getItemId()), "Entry drawn twice: " + stack.getItemId());
+                }
+            }
+        }
+    }
+
+    private static void assertMatchesWeights(int[] weights, long seed) {
+        LootTable table = new LootTable(weights);
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] counts = new long[weights.length];
+        for (int i = 0; i < DRAWS; i++) {
+            counts[table.sample(random)]++;
+        }
+
+        long total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        double[] expected = new double[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            expected[i] = (double) DRAWS * weights[i] / total;
+        }
+
+        // Pool entries from the rarest up until each bin expects enough draws
+        Integer[] order = new Integer[weights.length];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, (a, b) -> Double.compare(expected[a], expected[b]));
+        double[] binExpected = new double[weights.length];
+        long[] binObserved = new long[weights.length];
+        int bins = 0;
+        double pooledExpected = 0;
+        long pooledObserved = 0;
+        for (int entry : order) {
+            pooledExpected += expected[entry];
+            pooledObserved += counts[entry];
+            if (pooledExpected >= MIN_EXPECTED) {
+                binExpected[bins] = pooledExpected;
+                binObserved[bins] = pooledObserved;
+                bins++;
+                pooledExpected = 0;
+                pooledObserved = 0;
+            }
+        }
+        if (pooledExpected > 0) {
+            // Too few left for a bin of their own; join the last one
+            binExpected[bins - 1] += pooledExpected;
+            binObserved[bins - 1] += pooledObserved;
+        }
+
+        int freedom = bins - 1;
+        assertTrue(freedom > 0, "Loot table of " + weights.length + " entries leaves nothing to test");
+        double chiSquare = 0;
+        for (int i = 0; i < bins; i++) {
+            double difference = binObserved[i] - binExpected[i];
+            chiSquare += difference * difference / binExpected[i];
+        }
+        // Wilson-Hilferty approximation of the chi-square quantile
+        double scale = 2.0 / (9.0 * freedom);
+        double critical = freedom * Math.pow(1 - scale + Z_CRITICAL * Math.sqrt(scale), 3);
+        assertTrue(chiSquare <= critical, "Loot table of " + weights.length + " entries (seed " + seed
+                + ") drew a chi-square of " + chiSquare + " over " + bins + " bins, above " + critical);
+    }
+}
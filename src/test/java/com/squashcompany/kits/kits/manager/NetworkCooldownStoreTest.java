@@ -0,0 +1,229 @@
+package com.squashcompany.kits.kits.manager;
+
+import com.squashcompany.kits.kits.config.KitsConfig;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link NetworkCooldownStore} nodes sharing a {@link TcpCooldownServer} on
+ * the loopback interface: claims reach the other node as invalidations, a
+ * claim or release made against a stale cache is refused by the service and
+ * the node adopts the stored value, and a fetch that completes after the
+ * player left is dropped.
+ */
+class NetworkCooldownStoreTest {
+
+    private static final long WAIT_MILLIS = 5000;
+    private static final long MSB = 0x5eed;
+    private static final long LSB = ~0x5eedL;
+
+    @Test
+    void claimsInvalidateOtherNodes() throws IOException, InterruptedException {
+        try (Network network = new Network()) {
+            NetworkCooldownStore first = network.node();
+            NetworkCooldownStore second = network.node();
+            KitsConfig.KitDefinition kit = kitWithCooldown();
+            int ordinal = kit.getOrdinal();
+            awaitReady(first, second);
+
+            long claimed = now();
+            assertTrue(first.compareAndSet(MSB, LSB, ordinal, 0, claimed, rowLength()));
+            await(() -> second.get(MSB, LSB, ordinal) == claimed, "The claim did not reach the other node");
+
+            assertTrue(first.release(MSB, LSB, ordinal, claimed));
+            await(() -> second.get(MSB, LSB, ordinal) == 0, "The release did not reach the other node");
+            assertEquals(0, first.getConflicts() + second.getConflicts(), "Conflicts");
+        }
+    }
+
+    @Test
+    void secondClaimWithinTheCooldownIsRefused() throws IOException, InterruptedException {
+        try (Network network = new Network()) {
+            NetworkCooldownStore first = network.node();
+            NetworkCooldownStore second = network.node();
+            KitsConfig.KitDefinition kit = kitWithCooldown();
+            int ordinal = kit.getOrdinal();
+            awaitReady(first, second);
+
+            long claimed = now();
+            assertTrue(first.compareAndSet(MSB, LSB, ordinal, 0, claimed, rowLength()));
+            await(() -> second.get(MSB, LSB, ordinal) == claimed, "The claim did not reach the other node");
+
+            // As if the invalidation had not arrived yet when the player claimed there too
+            second.restore(MSB, LSB, ordinal, 0, rowLength());
+            assertTrue(second.compareAndSet(MSB, LSB, ordinal, 0, claimed + 1, rowLength()));
+            await(() -> second.getConflicts() == 1, "The service did not refuse the second claim");
+
+            NetworkCooldownStore third = network.node();
+            awaitReady(third);
+            assertEquals(claimed, third.get(MSB, LSB, ordinal), "Stored claim");
+            assertEquals(claimed, first.get(MSB, LSB, ordinal), "Claim on the first node");
+        }
+    }
+
+    @Test
+    void staleReleaseLeavesTheNewerClaim() throws IOException, InterruptedException {
+        try (Network network = new Network()) {
+            NetworkCooldownStore first = network.node();
+            NetworkCooldownStore second = network.node();
+            KitsConfig.KitDefinition kit = kitWithCooldown();
+            int ordinal = kit.getOrdinal();
+            awaitReady(first, second);
+
+            long older = now() - kit.getCooldownSeconds();
+            long newer = now();
+            assertTrue(second.compareAndSet(MSB, LSB, ordinal, 0, newer, rowLength()));
+            await(() -> first.get(MSB, LSB, ordinal) == newer, "The claim did not reach the other node");
+
+            // The first node still holds an older claim and gives it back
+            first.restore(MSB, LSB, ordinal, 0, rowLength());
+            first.restore(MSB, LSB, ordinal, older, rowLength());
+            assertTrue(first.release(MSB, LSB, ordinal, older));
+            await(() -> first.getConflicts() == 1, "The service did not refuse the stale release");
+            await(() -> first.get(MSB, LSB, ordinal) == newer, "The node did not adopt the stored claim");
+            assertEquals(newer, second.get(MSB, LSB, ordinal), "Claim on the other node");
+        }
+    }
+
+    @Test
+    void fetchCompletingAfterThePlayerLeftIsDropped() throws Exception {
+        try (Network network = new Network()) {
+            KitsConfig.KitDefinition kit = kitWithCooldown();
+            int ordinal = kit.getOrdinal();
+            NetworkCooldownStore first = network.node();
+            NetworkCooldownStore second = network.node();
+            awaitReady(first, second);
+            long claimed = now();
+            assertTrue(first.compareAndSet(MSB, LSB, ordinal, 0, claimed, rowLength()));
+            await(() -> second.get(MSB, LSB, ordinal) == claimed, "The claim was not stored");
+
+            HeldFetches transport = new HeldFetches(network.connect());
+            NetworkCooldownStore store = network.add(new NetworkCooldownStore(transport));
+            assertFalse(store.isReady(MSB, LSB), "Loaded before the fetch completed");
+            long[] pairs = transport.replies.get(0).get(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+
+            // The player leaves while the fetch is in flight
+            store.unload(MSB, LSB);
+            transport.held.get(0).complete(pairs);
+            assertEquals(0, store.get(MSB, LSB, ordinal), "Cooldown of a departed player");
+            assertFalse(store.isReady(MSB, LSB), "A departed player was marked loaded");
+            assertEquals(2, transport.held.size(), "Fetches after the player returned");
+        }
+    }
+
+    private static KitsConfig.KitDefinition kitWithCooldown() {
+        for (KitsConfig.KitDefinition kit : KitsConfig.get().getKits()) {
+            if (kit.getCooldownSeconds() > 0) {
+                return kit;
+            }
+        }
+        throw new IllegalStateException("No bundled kit has a cooldown");
+    }
+
+    private static int rowLength() {
+        return KitsConfig.get().getSnapshot().getOrdinalCount();
+    }
+
+    private static long now() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private static void awaitReady(NetworkCooldownStore... stores) throws InterruptedException {
+        for (NetworkCooldownStore store : stores) {
+            await(() -> store.isReady(MSB, LSB), "The player did not load");
+        }
+    }
+
+    private static void await(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, message);
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * A service and the nodes connected to it, closed together.
+     */
+    private static final class Network implements AutoCloseable {
+
+        private final TcpCooldownServer server = new TcpCooldownServer(new InetSocketAddress("127.0.0.1", 0), null);
+        private final List<NetworkCooldownStore> nodes = new ArrayList<>();
+
+        Network() throws IOException {
+        }
+
+        TcpCooldownTransport connect() throws InterruptedException {
+            TcpCooldownTransport transport = new TcpCooldownTransport(
+                    new InetSocketAddress("127.0.0.1", server.getPort()), null);
+            await(transport::isConnected, "The node did not connect");
+            return transport;
+        }
+
+        NetworkCooldownStore node() throws InterruptedException {
+            return add(new NetworkCooldownStore(connect()));
+        }
+
+        NetworkCooldownStore add(NetworkCooldownStore node) {
+            nodes.add(node);
+            return node;
+        }
+
+        @Override
+        public void close() {
+            for (NetworkCooldownStore node : nodes) {
+                node.close();
+            }
+            server.close();
+        }
+    }
+
+    /**
+     * Transport whose fetches complete only when the test completes them,
+     * keeping the real reply of each next to it.
+     */
+    private static final class HeldFetches implements CooldownTransport {
+
+        private final CooldownTransport delegate;
+        final List<CompletableFuture<long[]>> replies = new ArrayList<>();
+        final List<CompletableFuture<long[]>> held = new ArrayList<>();
+
+        HeldFetches(CooldownTransport delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public CompletableFuture<long[]> fetch(long msb, long lsb) {
+            replies.add(delegate.fetch(msb, lsb));
+            CompletableFuture<long[]> reply = new CompletableFuture<>();
+            held.add(reply);
+            return reply;
+        }
+
+        @Override
+        public CompletableFuture<long[]> write(long[] records, int count) {
+            return delegate.write(records, count);
+        }
+
+        @Override
+        public void subscribe(ChangeListener listener) {
+            delegate.subscribe(listener);
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}